@@ -0,0 +1,52 @@
+package com.smartmobility.notification.channel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmobility.notification.config.NotificationProperties;
+import com.smartmobility.notification.model.NotificationDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Canal local : ajoute chaque digest comme une ligne JSON (NDJSON) dans un fichier.
+ * Un lot = une ouverture du fichier et un seul flush.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channel.type", havingValue = "file")
+@Slf4j
+public class FileNotificationChannel implements NotificationChannel {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileNotificationChannel(NotificationProperties props, ObjectMapper objectMapper) throws IOException {
+        this.file = Path.of(props.getChannel().getFilePath());
+        this.objectMapper = objectMapper;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        log.info("[CHANNEL] Digests written to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public void send(List<NotificationDigest> digests) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (NotificationDigest d : digests) {
+                writer.write(objectMapper.writeValueAsString(d));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture des notifications impossible: " + file, e);
+        }
+    }
+}
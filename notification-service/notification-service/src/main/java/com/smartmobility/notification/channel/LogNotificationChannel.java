@@ -0,0 +1,26 @@
+package com.smartmobility.notification.channel;
+
+import com.smartmobility.notification.model.NotificationDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Canal de développement : écrit les digests dans les logs.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channel.type", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LogNotificationChannel implements NotificationChannel {
+
+    @Override
+    public void send(List<NotificationDigest> digests) {
+        for (NotificationDigest d : digests) {
+            log.info("[NOTIFY] userId={}, pass={}, lowBalance={}, subscriptionExpired={}, trips={}, tripTotal={}",
+                    d.getUserId(), d.getPassNumber(), d.getLowBalance(), d.isSubscriptionExpired(),
+                    d.getTripCount(), d.getTripTotal());
+        }
+    }
+}
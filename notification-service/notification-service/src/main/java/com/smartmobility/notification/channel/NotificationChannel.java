@@ -0,0 +1,14 @@
+package com.smartmobility.notification.channel;
+
+import com.smartmobility.notification.model.NotificationDigest;
+
+import java.util.List;
+
+/**
+ * Canal de sortie des digests (SMS, push, e-mail...).
+ * Les implémentations reçoivent des lots et doivent être appelées depuis un seul thread.
+ */
+public interface NotificationChannel {
+
+    void send(List<NotificationDigest> digests);
+}
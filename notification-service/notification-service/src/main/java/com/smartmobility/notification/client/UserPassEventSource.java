@@ -0,0 +1,84 @@
+package com.smartmobility.notification.client;
+
+import com.smartmobility.notification.config.NotificationProperties;
+import com.smartmobility.notification.dto.NotificationDto;
+import com.smartmobility.notification.model.NotificationEvent;
+import com.smartmobility.notification.model.NotificationType;
+import com.smartmobility.notification.service.NotificationAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interroge périodiquement user-mobility-pass-service pour transformer les listes
+ * de pass à solde faible et d'abonnements expirés en événements de notification.
+ * Les doublons d'un cycle à l'autre sont absorbés par la fenêtre de déduplication.
+ * Les listes sont consommées au fil du flux, par paquets de 256 : chaque pass est
+ * soumis à l'agrégateur dès son décodage, sans matérialiser la liste complète.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sources.user-pass.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class UserPassEventSource {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int PREFETCH = 256;
+
+    private final NotificationProperties props;
+    private final NotificationAggregator aggregator;
+    private final WebClient.Builder webClientBuilder;
+    private final Clock clock;
+
+    @Scheduled(initialDelay = 30000,
+            fixedDelayString = "#{@notificationProperties.sources.userPass.pollInterval.toMillis()}")
+    public void poll() {
+        pollList("/api/mobility-passes/low-balance", NotificationType.LOW_BALANCE);
+        pollList("/api/mobility-passes/expired-subscriptions", NotificationType.SUBSCRIPTION_EXPIRED);
+    }
+
+    private void pollList(String path, NotificationType type) {
+        Instant now = clock.instant();
+        AtomicInteger polled = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        try {
+            webClientBuilder.build()
+                    .get()
+                    .uri(props.getSources().getUserPass().getUrl() + path)
+                    .retrieve()
+                    .bodyToFlux(NotificationDto.PassSummary.class)
+                    .limitRate(PREFETCH)
+                    .filter(pass -> pass.getUserId() != null)
+                    .doOnNext(pass -> {
+                        polled.incrementAndGet();
+                        boolean accepted = aggregator.submit(NotificationEvent.builder()
+                                .userId(pass.getUserId())
+                                .type(type)
+                                .passNumber(pass.getPassNumber())
+                                .amount(type == NotificationType.LOW_BALANCE ? pass.getBalance() : null)
+                                .occurredAt(now)
+                                .build());
+                        if (!accepted) {
+                            dropped.incrementAndGet();
+                        }
+                    })
+                    .then()
+                    .block(TIMEOUT);
+        } catch (Exception e) {
+            log.warn("[SOURCE] user-mobility-pass-service unavailable for {} after {} passes: {}",
+                    path, polled.get(), e.getMessage());
+            return;
+        }
+        if (polled.get() > 0) {
+            log.info("[SOURCE] {} {} events polled ({} dropped, queue full)", polled.get(), type, dropped.get());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartmobility.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification")
+@Data
+public class NotificationProperties {
+
+    /** Capacité maximale de la file d'entrée ; au-delà, les événements sont refusés (429). */
+    private int queueCapacity = 20000;
+    private int drainBatchSize = 1000;
+
+    /** Fenêtre pendant laquelle un même événement pour un utilisateur n'est notifié qu'une fois. */
+    private Duration dedupWindow = Duration.ofHours(6);
+    private int dedupCapacity = 200000;
+
+    /** Délai de regroupement des événements d'un utilisateur dans un même digest. */
+    private Duration digestInterval = Duration.ofSeconds(30);
+    private int maxPendingDigests = 50000;
+
+    private Channel channel = new Channel();
+    private Sources sources = new Sources();
+
+    @Data
+    public static class Channel {
+        private String type = "log";
+        private String filePath = "logs/notifications.ndjson";
+    }
+
+    @Data
+    public static class Sources {
+        private UserPass userPass = new UserPass();
+    }
+
+    @Data
+    public static class UserPass {
+        private boolean enabled = true;
+        private String url = "http://user-mobility-pass-service";
+        private Duration pollInterval = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartmobility.notification.controller;
+
+import com.smartmobility.notification.dto.NotificationDto;
+import com.smartmobility.notification.service.NotificationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    /**
+     * Reçoit un événement (solde faible, abonnement expiré, trajet terminé).
+     * L'envoi est différé : l'événement est dédupliqué puis regroupé dans un digest.
+     */
+    @PostMapping("/events")
+    public ResponseEntity<NotificationDto.IngestResponse> ingest(
+            @Valid @RequestBody NotificationDto.EventRequest request) {
+        log.debug("[CONTROLLER] POST /notifications/events - userId={}, type={}",
+                request.getUserId(), request.getType());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(notificationService.ingest(request));
+    }
+
+    /**
+     * Reçoit un lot d'événements en un seul appel.
+     */
+    @PostMapping("/events/batch")
+    public ResponseEntity<NotificationDto.IngestResponse> ingestBatch(
+            @Valid @RequestBody NotificationDto.EventBatchRequest request) {
+        log.debug("[CONTROLLER] POST /notifications/events/batch - size={}", request.getEvents().size());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(notificationService.ingestBatch(request));
+    }
+
+    /**
+     * Compteurs du pipeline (file, déduplication, envois).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<NotificationDto.StatsResponse> stats() {
+        return ResponseEntity.ok(notificationService.stats());
+    }
+}
@@ -0,0 +1,95 @@
+package com.smartmobility.notification.dto;
+
+import com.smartmobility.notification.model.NotificationType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class NotificationDto {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EventRequest {
+
+        @NotNull(message = "userId est obligatoire")
+        private UUID userId;
+
+        @NotNull(message = "type est obligatoire")
+        private NotificationType type;
+
+        private String passNumber;
+        private UUID tripId;
+        private BigDecimal amount;
+        private Instant occurredAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EventBatchRequest {
+
+        @NotEmpty(message = "events ne doit pas être vide")
+        @Valid
+        private List<EventRequest> events;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class IngestResponse {
+        private int accepted;
+        private int rejected;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StatsResponse {
+        private long received;
+        private long rejected;
+        private long deduplicated;
+        private long digestsSent;
+        private long sendFailures;
+        private int queueDepth;
+        private int pendingDigests;
+    }
+
+    /** Vue minimale d'un MobilityPass renvoyée par user-mobility-pass-service. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PassSummary {
+        private UUID userId;
+        private String passNumber;
+        private BigDecimal balance;
+        private LocalDate subscriptionEndDate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ApiError {
+        private int status;
+        private String message;
+        private Object errors;
+        private LocalDateTime timestamp;
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartmobility.notification.exception;
+
+import com.smartmobility.notification.dto.NotificationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(NotificationQueueFullException.class)
+    public ResponseEntity<NotificationDto.ApiError> handleQueueFull(NotificationQueueFullException ex) {
+        log.warn("[EXCEPTION] NotificationQueueFullException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(NotificationDto.ApiError.builder()
+                        .status(429)
+                        .message(ex.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<NotificationDto.ApiError> handleValidation(MethodArgumentNotValidException ex) {
+        Map<String, String> fieldErrors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error -> {
+            String field = ((FieldError) error).getField();
+            fieldErrors.put(field, error.getDefaultMessage());
+        });
+        log.warn("[EXCEPTION] Validation failed: {}", fieldErrors);
+        return ResponseEntity.badRequest().body(
+                NotificationDto.ApiError.builder()
+                        .status(400)
+                        .message("Erreur de validation")
+                        .errors(fieldErrors)
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<NotificationDto.ApiError> handleGeneral(Exception ex) {
+        log.error("[EXCEPTION] Unhandled: {}", ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                NotificationDto.ApiError.builder()
+                        .status(500)
+                        .message("Erreur interne du serveur")
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+}
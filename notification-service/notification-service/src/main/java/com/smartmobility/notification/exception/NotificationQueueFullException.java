@@ -0,0 +1,7 @@
+package com.smartmobility.notification.exception;
+
+public class NotificationQueueFullException extends RuntimeException {
+    public NotificationQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartmobility.notification.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Résumé envoyé à un utilisateur : tous ses événements de la fenêtre de regroupement
+ * sont fusionnés en un seul message de taille fixe.
+ */
+@Value
+@Builder
+public class NotificationDigest {
+    UUID userId;
+    String passNumber;
+    BigDecimal lowBalance;
+    boolean subscriptionExpired;
+    int tripCount;
+    BigDecimal tripTotal;
+    Instant firstEventAt;
+    Instant createdAt;
+}
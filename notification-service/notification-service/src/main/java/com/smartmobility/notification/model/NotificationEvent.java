@@ -0,0 +1,29 @@
+package com.smartmobility.notification.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class NotificationEvent {
+    UUID userId;
+    NotificationType type;
+    String passNumber;
+    UUID tripId;
+    BigDecimal amount;
+    Instant occurredAt;
+
+    /**
+     * Clé de déduplication : un seul avis de solde faible / d'expiration par utilisateur
+     * sur la fenêtre, et chaque trajet n'est compté qu'une fois même s'il est rejoué.
+     */
+    public String dedupKey() {
+        return type == NotificationType.TRIP_COMPLETED
+                ? userId + ":" + type + ":" + tripId
+                : userId + ":" + type;
+    }
+}
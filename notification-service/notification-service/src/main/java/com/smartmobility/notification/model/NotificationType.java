@@ -0,0 +1,5 @@
+package com.smartmobility.notification.model;
+
+public enum NotificationType {
+    LOW_BALANCE, SUBSCRIPTION_EXPIRED, TRIP_COMPLETED
+}
@@ -0,0 +1,58 @@
+package com.smartmobility.notification.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mémoire bornée des clés déjà notifiées.
+ * Les entrées sont conservées dans l'ordre d'insertion : la plus ancienne est toujours
+ * en tête, la purge des entrées expirées s'arrête donc à la première entrée encore valide.
+ * Non thread-safe : utilisée uniquement par le thread de dispatch.
+ */
+class DeduplicationWindow {
+
+    private final long windowMillis;
+    private final int capacity;
+    private final LinkedHashMap<String, Long> seen;
+
+    DeduplicationWindow(long windowMillis, int capacity) {
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        this.seen = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, false);
+    }
+
+    /**
+     * @return true si la clé n'a pas été vue dans la fenêtre (et l'enregistre), false sinon
+     */
+    boolean firstSeen(String key, long nowMillis) {
+        evictExpired(nowMillis);
+
+        Long seenAt = seen.get(key);
+        if (seenAt != null) {
+            return false;
+        }
+
+        if (seen.size() >= capacity) {
+            Iterator<String> it = seen.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        seen.put(key, nowMillis);
+        return true;
+    }
+
+    int size() {
+        return seen.size();
+    }
+
+    private void evictExpired(long nowMillis) {
+        Iterator<Map.Entry<String, Long>> it = seen.entrySet().iterator();
+        while (it.hasNext()) {
+            if (nowMillis - it.next().getValue() < windowMillis) {
+                return;
+            }
+            it.remove();
+        }
+    }
+}
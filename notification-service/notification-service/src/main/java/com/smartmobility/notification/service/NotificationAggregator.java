@@ -0,0 +1,196 @@
+package com.smartmobility.notification.service;
+
+import com.smartmobility.notification.channel.NotificationChannel;
+import com.smartmobility.notification.config.NotificationProperties;
+import com.smartmobility.notification.model.NotificationDigest;
+import com.smartmobility.notification.model.NotificationEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline d'agrégation des notifications.
+ *
+ * <p>Les threads HTTP ne font qu'un {@code offer} sur une file bornée ; un unique thread
+ * planifié la vide par lots, déduplique, regroupe par utilisateur et envoie les digests
+ * arrivés à échéance. La mémoire est bornée par la capacité de la file, celle de la
+ * fenêtre de déduplication et le nombre maximal de digests en attente.</p>
+ */
+@Component
+@Slf4j
+public class NotificationAggregator {
+
+    private final NotificationProperties props;
+    private final NotificationChannel channel;
+    private final Clock clock;
+
+    private final BlockingQueue<NotificationEvent> intake;
+    private final DeduplicationWindow dedup;
+    private final LinkedHashMap<UUID, PendingDigest> pending = new LinkedHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong digestsSent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    public NotificationAggregator(NotificationProperties props, NotificationChannel channel,
+                                  Clock clock, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.channel = channel;
+        this.clock = clock;
+        this.intake = new ArrayBlockingQueue<>(props.getQueueCapacity());
+        this.dedup = new DeduplicationWindow(props.getDedupWindow().toMillis(), props.getDedupCapacity());
+
+        Gauge.builder("notification.queue.depth", intake, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notification.digests.pending", this, NotificationAggregator::pendingDigests)
+                .register(meterRegistry);
+        FunctionCounter.builder("notification.events.received", received, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("notification.events.rejected", rejected, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("notification.events.deduplicated", deduplicated, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("notification.digests.sent", digestsSent, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("notification.digests.failures", sendFailures, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ajoute un événement à la file d'entrée sans bloquer.
+     *
+     * @return false si la file est pleine (l'appelant doit ralentir)
+     */
+    public boolean submit(NotificationEvent event) {
+        if (intake.offer(event)) {
+            received.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch-delay-ms:200}")
+    public synchronized void dispatch() {
+        drain();
+        flush(false);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        drain();
+        flush(true);
+    }
+
+    public int queueDepth() {
+        return intake.size();
+    }
+
+    public synchronized int pendingDigests() {
+        return pending.size();
+    }
+
+    public long received() {
+        return received.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long deduplicated() {
+        return deduplicated.get();
+    }
+
+    public long digestsSent() {
+        return digestsSent.get();
+    }
+
+    public long sendFailures() {
+        return sendFailures.get();
+    }
+
+    // ─── Private helpers ───────────────────────────────────────────────────────
+
+    private void drain() {
+        List<NotificationEvent> batch = new ArrayList<>(props.getDrainBatchSize());
+        while (intake.drainTo(batch, props.getDrainBatchSize()) > 0) {
+            Instant now = clock.instant();
+            for (NotificationEvent event : batch) {
+                accept(event, now);
+            }
+            batch.clear();
+        }
+    }
+
+    private void accept(NotificationEvent event, Instant now) {
+        if (!dedup.firstSeen(event.dedupKey(), now.toEpochMilli())) {
+            deduplicated.incrementAndGet();
+            return;
+        }
+
+        PendingDigest digest = pending.get(event.getUserId());
+        if (digest == null) {
+            if (pending.size() >= props.getMaxPendingDigests()) {
+                flushOldest(now);
+            }
+            digest = new PendingDigest(event.getUserId(), now);
+            pending.put(event.getUserId(), digest);
+        }
+        digest.add(event);
+    }
+
+    /**
+     * Les digests sont dans l'ordre de création : on s'arrête au premier non échu.
+     */
+    private void flush(boolean all) {
+        Instant now = clock.instant();
+        Instant dueBefore = now.minus(props.getDigestInterval());
+
+        List<NotificationDigest> out = new ArrayList<>();
+        Iterator<PendingDigest> it = pending.values().iterator();
+        while (it.hasNext()) {
+            PendingDigest digest = it.next();
+            if (!all && digest.firstEventAt().isAfter(dueBefore)) {
+                break;
+            }
+            out.add(digest.toDigest(now));
+            it.remove();
+        }
+        send(out);
+    }
+
+    private void flushOldest(Instant now) {
+        Iterator<PendingDigest> it = pending.values().iterator();
+        PendingDigest oldest = it.next();
+        it.remove();
+        send(List.of(oldest.toDigest(now)));
+    }
+
+    private void send(List<NotificationDigest> digests) {
+        if (digests.isEmpty()) {
+            return;
+        }
+        try {
+            channel.send(digests);
+            digestsSent.addAndGet(digests.size());
+            log.debug("[DISPATCH] {} digests sent", digests.size());
+        } catch (RuntimeException e) {
+            sendFailures.addAndGet(digests.size());
+            log.error("[DISPATCH] Failed to send {} digests: {}", digests.size(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartmobility.notification.service;
+
+import com.smartmobility.notification.dto.NotificationDto;
+import com.smartmobility.notification.exception.NotificationQueueFullException;
+import com.smartmobility.notification.model.NotificationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationService {
+
+    private final NotificationAggregator aggregator;
+    private final Clock clock;
+
+    public NotificationDto.IngestResponse ingest(NotificationDto.EventRequest request) {
+        if (!aggregator.submit(toEvent(request))) {
+            throw new NotificationQueueFullException("File de notifications saturée, réessayez plus tard");
+        }
+        return NotificationDto.IngestResponse.builder().accepted(1).rejected(0).build();
+    }
+
+    /**
+     * Accepte un lot partiellement : les événements refusés (file pleine) sont comptés
+     * pour que l'émetteur puisse les renvoyer. Lève une exception si rien n'a été accepté.
+     */
+    public NotificationDto.IngestResponse ingestBatch(NotificationDto.EventBatchRequest request) {
+        int accepted = 0;
+        int rejected = 0;
+        for (NotificationDto.EventRequest event : request.getEvents()) {
+            if (aggregator.submit(toEvent(event))) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        log.debug("[NOTIFICATION] Batch ingested - accepted={}, rejected={}", accepted, rejected);
+
+        if (accepted == 0) {
+            throw new NotificationQueueFullException("File de notifications saturée, réessayez plus tard");
+        }
+        return NotificationDto.IngestResponse.builder().accepted(accepted).rejected(rejected).build();
+    }
+
+    public NotificationDto.StatsResponse stats() {
+        return NotificationDto.StatsResponse.builder()
+                .received(aggregator.received())
+                .rejected(aggregator.rejected())
+                .deduplicated(aggregator.deduplicated())
+                .digestsSent(aggregator.digestsSent())
+                .sendFailures(aggregator.sendFailures())
+                .queueDepth(aggregator.queueDepth())
+                .pendingDigests(aggregator.pendingDigests())
+                .build();
+    }
+
+    private NotificationEvent toEvent(NotificationDto.EventRequest request) {
+        return NotificationEvent.builder()
+                .userId(request.getUserId())
+                .type(request.getType())
+                .passNumber(request.getPassNumber())
+                .tripId(request.getTripId())
+                .amount(request.getAmount())
+                .occurredAt(request.getOccurredAt() != null ? request.getOccurredAt() : clock.instant())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartmobility.notification.service;
+
+import com.smartmobility.notification.model.NotificationDigest;
+import com.smartmobility.notification.model.NotificationEvent;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Accumulateur de taille constante : quel que soit le nombre d'événements reçus
+ * pour un utilisateur, seul l'état agrégé est conservé.
+ */
+class PendingDigest {
+
+    private final UUID userId;
+    private final Instant firstEventAt;
+    private String passNumber;
+    private BigDecimal lowBalance;
+    private boolean subscriptionExpired;
+    private int tripCount;
+    private BigDecimal tripTotal = BigDecimal.ZERO;
+
+    PendingDigest(UUID userId, Instant firstEventAt) {
+        this.userId = userId;
+        this.firstEventAt = firstEventAt;
+    }
+
+    void add(NotificationEvent event) {
+        if (event.getPassNumber() != null) {
+            passNumber = event.getPassNumber();
+        }
+        switch (event.getType()) {
+            case LOW_BALANCE -> lowBalance = event.getAmount();
+            case SUBSCRIPTION_EXPIRED -> subscriptionExpired = true;
+            case TRIP_COMPLETED -> {
+                tripCount++;
+                if (event.getAmount() != null) {
+                    tripTotal = tripTotal.add(event.getAmount());
+                }
+            }
+        }
+    }
+
+    Instant firstEventAt() {
+        return firstEventAt;
+    }
+
+    NotificationDigest toDigest(Instant now) {
+        return NotificationDigest.builder()
+                .userId(userId)
+                .passNumber(passNumber)
+                .lowBalance(lowBalance)
+                .subscriptionExpired(subscriptionExpired)
+                .tripCount(tripCount)
+                .tripTotal(tripTotal)
+                .firstEventAt(firstEventAt)
+                .createdAt(now)
+                .build();
+    }
+}
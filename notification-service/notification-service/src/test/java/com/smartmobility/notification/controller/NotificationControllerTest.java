@@ -0,0 +1,101 @@
+package com.smartmobility.notification.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmobility.notification.dto.NotificationDto;
+import com.smartmobility.notification.exception.GlobalExceptionHandler;
+import com.smartmobility.notification.exception.NotificationQueueFullException;
+import com.smartmobility.notification.model.NotificationType;
+import com.smartmobility.notification.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationControllerTest {
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private NotificationController notificationController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(notificationController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST /notifications/events → 202 ACCEPTED")
+    void ingest_accepted() throws Exception {
+        NotificationDto.EventRequest request = NotificationDto.EventRequest.builder()
+                .userId(UUID.randomUUID())
+                .type(NotificationType.LOW_BALANCE)
+                .amount(BigDecimal.valueOf(300))
+                .build();
+
+        when(notificationService.ingest(any()))
+                .thenReturn(NotificationDto.IngestResponse.builder().accepted(1).build());
+
+        mockMvc.perform(post("/notifications/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /notifications/events → 400 quand champs manquants")
+    void ingest_validationFails() throws Exception {
+        mockMvc.perform(post("/notifications/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new NotificationDto.EventRequest())))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").isMap());
+    }
+
+    @Test
+    @DisplayName("POST /notifications/events/batch → 429 quand la file est saturée")
+    void ingestBatch_queueFull() throws Exception {
+        NotificationDto.EventBatchRequest request = NotificationDto.EventBatchRequest.builder()
+                .events(List.of(NotificationDto.EventRequest.builder()
+                        .userId(UUID.randomUUID())
+                        .type(NotificationType.TRIP_COMPLETED)
+                        .tripId(UUID.randomUUID())
+                        .build()))
+                .build();
+
+        when(notificationService.ingestBatch(any()))
+                .thenThrow(new NotificationQueueFullException("File de notifications saturée"));
+
+        mockMvc.perform(post("/notifications/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.smartmobility.notification.service;
+
+import com.smartmobility.notification.config.NotificationProperties;
+import com.smartmobility.notification.model.NotificationDigest;
+import com.smartmobility.notification.model.NotificationEvent;
+import com.smartmobility.notification.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationAggregatorTest {
+
+    private final List<NotificationDigest> sent = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T08:00:00Z"));
+    private NotificationProperties props;
+    private NotificationAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        props = new NotificationProperties();
+        props.setQueueCapacity(4);
+        props.setDigestInterval(Duration.ofSeconds(30));
+        props.setDedupWindow(Duration.ofHours(1));
+        aggregator = new NotificationAggregator(props, sent::addAll, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Les événements d'un utilisateur sont dédupliqués puis regroupés en un digest")
+    void deduplicatesAndCoalesces() {
+        UUID userId = UUID.randomUUID();
+        UUID tripId = UUID.randomUUID();
+
+        aggregator.submit(event(userId, NotificationType.LOW_BALANCE, null, "300"));
+        aggregator.submit(event(userId, NotificationType.LOW_BALANCE, null, "250"));
+        aggregator.submit(event(userId, NotificationType.TRIP_COMPLETED, tripId, "500"));
+        aggregator.submit(event(userId, NotificationType.TRIP_COMPLETED, tripId, "500"));
+        aggregator.dispatch();
+
+        assertThat(sent).isEmpty();
+        assertThat(aggregator.deduplicated()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(31));
+        aggregator.dispatch();
+
+        assertThat(sent).hasSize(1);
+        NotificationDigest digest = sent.get(0);
+        assertThat(digest.getLowBalance()).isEqualByComparingTo("300");
+        assertThat(digest.getTripCount()).isEqualTo(1);
+        assertThat(digest.getTripTotal()).isEqualByComparingTo("500");
+    }
+
+    @Test
+    @DisplayName("La file d'entrée est bornée")
+    void rejectsWhenQueueFull() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(aggregator.submit(event(UUID.randomUUID(), NotificationType.LOW_BALANCE, null, "1"))).isTrue();
+        }
+        assertThat(aggregator.submit(event(UUID.randomUUID(), NotificationType.LOW_BALANCE, null, "1"))).isFalse();
+        assertThat(aggregator.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un même avis est renvoyé une fois la fenêtre de déduplication écoulée")
+    void renotifiesAfterWindow() {
+        UUID userId = UUID.randomUUID();
+
+        aggregator.submit(event(userId, NotificationType.SUBSCRIPTION_EXPIRED, null, null));
+        aggregator.dispatch();
+        clock.advance(Duration.ofMinutes(1));
+        aggregator.dispatch();
+
+        clock.advance(Duration.ofHours(1));
+        aggregator.submit(event(userId, NotificationType.SUBSCRIPTION_EXPIRED, null, null));
+        aggregator.dispatch();
+        clock.advance(Duration.ofMinutes(1));
+        aggregator.dispatch();
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent).allMatch(NotificationDigest::isSubscriptionExpired);
+    }
+
+    private NotificationEvent event(UUID userId, NotificationType type, UUID tripId, String amount) {
+        return NotificationEvent.builder()
+                .userId(userId)
+                .type(type)
+                .tripId(tripId)
+                .amount(amount != null ? new BigDecimal(amount) : null)
+                .occurredAt(clock.instant())
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
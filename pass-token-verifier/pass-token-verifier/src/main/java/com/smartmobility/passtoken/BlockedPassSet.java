@@ -0,0 +1,159 @@
+package com.smartmobility.passtoken;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Copie embarquée de la liste des pass bloqués, tenue à jour par les messages de
+ * {@code GET /api/mobility-passes/blocked?feedId=&after=} (format décrit dans {@code BlockedPassList}
+ * côté user-mobility-pass-service). Consultation par recherche dichotomique dans un tableau trié.
+ * <p>
+ * Non thread-safe pour l'application des messages ; {@link #contains(String)} peut être appelé
+ * pendant une mise à jour, le tableau étant remplacé d'un bloc.
+ */
+public final class BlockedPassSet {
+
+    private static final int MAGIC = 0x534D5042;
+    private static final int VERSION = 1;
+    private static final int TYPE_SNAPSHOT = 0;
+    private static final int TYPE_DELTA = 1;
+
+    private static final String PREFIX = "SMP-";
+    private static final int CURRENT_LENGTH = PREFIX.length() + 20;
+
+    private volatile long[] keys = new long[0];
+    private UUID feedId;
+    private long sequence;
+
+    /** Paramètre {@code feedId} de la prochaine requête ; null tant qu'aucun instantané n'a été appliqué. */
+    public UUID feedId() {
+        return feedId;
+    }
+
+    /** Paramètre {@code after} de la prochaine requête. */
+    public long sequence() {
+        return sequence;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean contains(String passNumber) {
+        Long key = keyOf(passNumber);
+        return key != null && Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    /**
+     * Applique un instantané ou un delta. Renvoie false pour un delta qui ne part pas de la position
+     * courante : il faut alors redemander sans position pour recevoir un instantané.
+     */
+    public boolean apply(byte[] message) {
+        Reader in = new Reader(message);
+        if (in.fixed(4) != MAGIC || in.u8() != VERSION) {
+            throw new IllegalArgumentException("Message de liste bloquée inconnu");
+        }
+        int type = in.u8();
+        UUID messageFeedId = new UUID(in.fixed(8), in.fixed(8));
+        long from = in.fixed(8);
+        long to = in.fixed(8);
+        long[] added = in.keys();
+        long[] removed = in.keys();
+
+        if (type == TYPE_SNAPSHOT) {
+            keys = added;
+        } else if (type == TYPE_DELTA) {
+            if (!messageFeedId.equals(feedId) || from != sequence) {
+                return false;
+            }
+            keys = merge(keys, added, removed);
+        } else {
+            throw new IllegalArgumentException("Type de message inconnu: " + type);
+        }
+        feedId = messageFeedId;
+        sequence = to;
+        return true;
+    }
+
+    /**
+     * Même clé que côté serveur : Snowflake du format courant {@code SMP-<19 chiffres><clé>},
+     * {@code -(millis * 1000 + suffixe)} pour l'ancien format {@code SMP-<millis>-<suffixe>}.
+     */
+    static Long keyOf(String passNumber) {
+        if (passNumber == null || !passNumber.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            int dash = passNumber.indexOf('-', PREFIX.length());
+            if (dash < 0) {
+                return passNumber.length() == CURRENT_LENGTH
+                        ? Long.parseLong(passNumber, PREFIX.length(), CURRENT_LENGTH - 1, 10) : null;
+            }
+            long millis = Long.parseLong(passNumber, PREFIX.length(), dash, 10);
+            return -(millis * 1000 + Long.parseLong(passNumber, dash + 1, passNumber.length(), 10));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long[] merge(long[] current, long[] added, long[] removed) {
+        long[] result = new long[current.length + added.length];
+        int n = 0;
+        int a = 0;
+        for (long key : current) {
+            while (a < added.length && added[a] < key) {
+                result[n++] = added[a++];
+            }
+            if (a < added.length && added[a] == key) {
+                a++;
+            }
+            if (Arrays.binarySearch(removed, key) < 0) {
+                result[n++] = key;
+            }
+        }
+        while (a < added.length) {
+            result[n++] = added[a++];
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int u8() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long fixed(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = value << 8 | u8();
+            }
+            return length == 4 ? (int) value : value;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = u8();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        long[] keys() {
+            long[] keys = new long[(int) varint()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i == 0 ? fixed(8) : keys[i - 1] + varint();
+            }
+            return keys;
+        }
+    }
+}
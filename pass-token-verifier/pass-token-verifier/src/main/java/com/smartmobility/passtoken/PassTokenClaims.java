@@ -0,0 +1,52 @@
+package com.smartmobility.passtoken;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Contenu d'un jeton vérifié. Les dates restent en valeurs epoch pour ne rien allouer à la vérification ;
+ * {@link #subscriptionEndDate()}, {@link #balanceAtIssue()}, etc. les convertissent à la demande.
+ *
+ * @param subscriptionEndEpochDay dernier jour d'abonnement inclus, {@link #NO_SUBSCRIPTION} sans abonnement
+ * @param balanceAtIssueCents     solde du pass à l'émission, en centimes, à titre d'information : le pass
+ *                                a pu être débité depuis, ce n'est qu'un majorant du solde réel
+ */
+public record PassTokenClaims(
+        int keyId,
+        String passNumber,
+        PassTokenStatus status,
+        int subscriptionEndEpochDay,
+        long balanceAtIssueCents,
+        long issuedAtEpochSecond,
+        long expiresAtEpochSecond) {
+
+    public static final int NO_SUBSCRIPTION = -1;
+
+    /**
+     * Décision hors ligne : pass actif et abonnement couvrant {@code day}. Le solde signé ne suffit pas
+     * (un même jeton resterait accepté pendant tout son ttl, quels que soient les débits) : un pass sans
+     * abonnement valide se contrôle en ligne.
+     */
+    public boolean allows(LocalDate day) {
+        return status == PassTokenStatus.ACTIVE
+                && subscriptionEndEpochDay != NO_SUBSCRIPTION
+                && day.toEpochDay() <= subscriptionEndEpochDay;
+    }
+
+    public LocalDate subscriptionEndDate() {
+        return subscriptionEndEpochDay == NO_SUBSCRIPTION ? null : LocalDate.ofEpochDay(subscriptionEndEpochDay);
+    }
+
+    public BigDecimal balanceAtIssue() {
+        return BigDecimal.valueOf(balanceAtIssueCents, 2);
+    }
+
+    public Instant issuedAt() {
+        return Instant.ofEpochSecond(issuedAtEpochSecond);
+    }
+
+    public Instant expiresAt() {
+        return Instant.ofEpochSecond(expiresAtEpochSecond);
+    }
+}
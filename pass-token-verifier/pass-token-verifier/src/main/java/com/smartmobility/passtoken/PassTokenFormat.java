@@ -0,0 +1,37 @@
+package com.smartmobility.passtoken;
+
+/**
+ * Format binaire v1 du jeton, encodé en base64url sans remplissage (big-endian) :
+ * <pre>
+ *  0  version                     1 octet  (1)
+ *  1  keyId                       1 octet
+ *  2  issuedAt, secondes epoch    4 octets non signés
+ *  6  expiresAt, secondes epoch   4 octets non signés
+ * 10  statut                      1 octet  ({@link PassTokenStatus#ordinal()})
+ * 11  fin d'abonnement, jour epoch 4 octets (-1 sans abonnement)
+ * 15  solde à l'émission, centimes 8 octets (information, n'autorise rien)
+ * 23  longueur du numéro de pass  1 octet
+ * 24  numéro de pass ASCII        n octets
+ * 24+n HMAC-SHA256 des octets précédents, tronqué à 16 octets
+ * </pre>
+ * L'émetteur (user-mobility-pass-service) reproduit ce format ; tout changement passe par une nouvelle version.
+ */
+public final class PassTokenFormat {
+
+    public static final int VERSION = 1;
+    public static final String MAC_ALGORITHM = "HmacSHA256";
+    public static final int MAC_LENGTH = 16;
+    public static final int HEADER_LENGTH = 24;
+    public static final int MAX_PASS_NUMBER_LENGTH = 64;
+
+    static final int OFFSET_KEY_ID = 1;
+    static final int OFFSET_ISSUED_AT = 2;
+    static final int OFFSET_EXPIRES_AT = 6;
+    static final int OFFSET_STATUS = 10;
+    static final int OFFSET_SUBSCRIPTION_END = 11;
+    static final int OFFSET_BALANCE_AT_ISSUE = 15;
+    static final int OFFSET_PASS_NUMBER_LENGTH = 23;
+
+    private PassTokenFormat() {
+    }
+}
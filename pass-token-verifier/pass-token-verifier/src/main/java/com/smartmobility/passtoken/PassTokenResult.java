@@ -0,0 +1,27 @@
+package com.smartmobility.passtoken;
+
+/**
+ * Résultat d'une vérification ; {@code claims} n'est renseigné que pour {@link Outcome#VALID}.
+ */
+public record PassTokenResult(Outcome outcome, PassTokenClaims claims) {
+
+    public enum Outcome {
+        VALID,
+        /** Encodage, version ou longueur incorrects. */
+        MALFORMED,
+        /** Clé inconnue de ce vérificateur (rotation non encore distribuée). */
+        UNKNOWN_KEY,
+        BAD_SIGNATURE,
+        EXPIRED,
+        /** Émis dans le futur au-delà de la tolérance d'horloge. */
+        NOT_YET_VALID
+    }
+
+    static PassTokenResult rejected(Outcome outcome) {
+        return new PassTokenResult(outcome, null);
+    }
+
+    public boolean isValid() {
+        return outcome == Outcome.VALID;
+    }
+}
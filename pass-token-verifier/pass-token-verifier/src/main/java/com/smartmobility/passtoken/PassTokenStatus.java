@@ -0,0 +1,16 @@
+package com.smartmobility.passtoken;
+
+/**
+ * Statut du pass porté par le jeton. L'ordre des constantes est le code transmis : ne pas le modifier.
+ */
+public enum PassTokenStatus {
+    ACTIVE,
+    SUSPENDED,
+    EXPIRED;
+
+    private static final PassTokenStatus[] CODES = values();
+
+    static PassTokenStatus fromCode(int code) {
+        return code >= 0 && code < CODES.length ? CODES[code] : null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.smartmobility.passtoken;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+import static com.smartmobility.passtoken.PassTokenFormat.*;
+
+/**
+ * Vérifie les jetons de pass sans appel réseau, à partir des clés distribuées au terminal.
+ * <p>
+ * Une instance est partagée entre threads : chaque thread garde ses propres {@link Mac} déjà
+ * initialisés, une vérification ne coûte qu'un décodage base64 et un HMAC sur une soixantaine d'octets.
+ * Les refus ne sont pas des exceptions et n'allouent rien.
+ */
+public final class PassTokenVerifier {
+
+    private static final PassTokenResult MALFORMED = PassTokenResult.rejected(PassTokenResult.Outcome.MALFORMED);
+    private static final PassTokenResult UNKNOWN_KEY = PassTokenResult.rejected(PassTokenResult.Outcome.UNKNOWN_KEY);
+    private static final PassTokenResult BAD_SIGNATURE = PassTokenResult.rejected(PassTokenResult.Outcome.BAD_SIGNATURE);
+    private static final PassTokenResult EXPIRED = PassTokenResult.rejected(PassTokenResult.Outcome.EXPIRED);
+    private static final PassTokenResult NOT_YET_VALID = PassTokenResult.rejected(PassTokenResult.Outcome.NOT_YET_VALID);
+
+    private static final Base64.Decoder BASE64 = Base64.getUrlDecoder();
+    private static final int MAX_TOKEN_BYTES = HEADER_LENGTH + MAX_PASS_NUMBER_LENGTH + MAC_LENGTH;
+
+    private final SecretKeySpec[] keys = new SecretKeySpec[256];
+    private final Clock clock;
+    private final long clockSkewSeconds;
+    private final ThreadLocal<Mac[]> macs = ThreadLocal.withInitial(() -> new Mac[256]);
+    private final ThreadLocal<byte[]> digests = ThreadLocal.withInitial(() -> new byte[32]);
+
+    /**
+     * @param keys      secrets par identifiant de clé (0-255) ; garder l'ancienne clé le temps d'une rotation
+     * @param clockSkew écart d'horloge toléré avec l'émetteur, dans les deux sens
+     */
+    public PassTokenVerifier(Map<Integer, byte[]> keys, Clock clock, Duration clockSkew) {
+        keys.forEach((keyId, secret) -> {
+            if (keyId < 0 || keyId > 255) {
+                throw new IllegalArgumentException("Identifiant de clé hors de 0-255: " + keyId);
+            }
+            this.keys[keyId] = new SecretKeySpec(secret.clone(), MAC_ALGORITHM);
+        });
+        this.clock = clock;
+        this.clockSkewSeconds = clockSkew.toSeconds();
+    }
+
+    public PassTokenResult verify(String token) {
+        if (token == null || token.length() > (MAX_TOKEN_BYTES * 4 + 2) / 3) {
+            return MALFORMED;
+        }
+        byte[] bytes;
+        try {
+            bytes = BASE64.decode(token);
+        } catch (IllegalArgumentException e) {
+            return MALFORMED;
+        }
+        if (bytes.length < HEADER_LENGTH + MAC_LENGTH || bytes[0] != VERSION) {
+            return MALFORMED;
+        }
+        int passNumberLength = bytes[OFFSET_PASS_NUMBER_LENGTH] & 0xFF;
+        int signedLength = HEADER_LENGTH + passNumberLength;
+        if (bytes.length != signedLength + MAC_LENGTH) {
+            return MALFORMED;
+        }
+
+        int keyId = bytes[OFFSET_KEY_ID] & 0xFF;
+        Mac mac = mac(keyId);
+        if (mac == null) {
+            return UNKNOWN_KEY;
+        }
+        byte[] digest = digests.get();
+        try {
+            mac.update(bytes, 0, signedLength);
+            mac.doFinal(digest, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            diff |= digest[i] ^ bytes[signedLength + i];
+        }
+        if (diff != 0) {
+            return BAD_SIGNATURE;
+        }
+
+        long now = clock.millis() / 1000;
+        long issuedAt = readInt(bytes, OFFSET_ISSUED_AT) & 0xFFFFFFFFL;
+        long expiresAt = readInt(bytes, OFFSET_EXPIRES_AT) & 0xFFFFFFFFL;
+        if (now > expiresAt + clockSkewSeconds) {
+            return EXPIRED;
+        }
+        if (issuedAt > now + clockSkewSeconds) {
+            return NOT_YET_VALID;
+        }
+        PassTokenStatus status = PassTokenStatus.fromCode(bytes[OFFSET_STATUS]);
+        if (status == null) {
+            return MALFORMED;
+        }
+        return new PassTokenResult(PassTokenResult.Outcome.VALID, new PassTokenClaims(
+                keyId,
+                new String(bytes, HEADER_LENGTH, passNumberLength, StandardCharsets.US_ASCII),
+                status,
+                readInt(bytes, OFFSET_SUBSCRIPTION_END),
+                readLong(bytes, OFFSET_BALANCE_AT_ISSUE),
+                issuedAt,
+                expiresAt));
+    }
+
+    private Mac mac(int keyId) {
+        SecretKeySpec key = keys[keyId];
+        if (key == null) {
+            return null;
+        }
+        Mac[] threadMacs = macs.get();
+        Mac mac = threadMacs[keyId];
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC indisponible", e);
+            }
+            threadMacs[keyId] = mac;
+        }
+        return mac;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return (long) readInt(bytes, offset) << 32 | readInt(bytes, offset + 4) & 0xFFFFFFFFL;
+    }
+}
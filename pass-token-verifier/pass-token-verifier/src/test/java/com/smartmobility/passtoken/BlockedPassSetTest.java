@@ -0,0 +1,52 @@
+package com.smartmobility.passtoken;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockedPassSetTest {
+
+    /** Messages produits par BlockedPassList (user-mobility-pass-service, BlockedPassListTest). */
+    private static final byte[] SNAPSHOT = Base64.getDecoder()
+            .decode("U01QQgEAAAAAAAAAAAEAAAAAAAAAAgAAAAAAAAAAAAAAAAAAAAAC//nVZkXxv4GTtZ3F59aKAwA=");
+    private static final byte[] DELTA = Base64.getDecoder()
+            .decode("U01QQgEBAAAAAAAAAAEAAAAAAAAAAgAAAAAAAAAAAAAAAAAAAAIBAAAA5fTI88oB//nVZkXxv4E=");
+
+    private static final String LEGACY = "SMP-1735689600123-7";
+    private static final String SUSPENDED = "SMP-00000001234567890128";
+    private static final String REACTIVATED_LATER = "SMP-00000009876543210987";
+
+    @Test
+    void appliesASnapshotThenADeltaFromItsPosition() {
+        BlockedPassSet set = new BlockedPassSet();
+        assertFalse(set.apply(DELTA));
+
+        assertTrue(set.apply(SNAPSHOT));
+        assertEquals(new UUID(1, 2), set.feedId());
+        assertEquals(0, set.sequence());
+        assertTrue(set.contains(LEGACY));
+        assertTrue(set.contains(SUSPENDED));
+        assertFalse(set.contains(REACTIVATED_LATER));
+
+        assertTrue(set.apply(DELTA));
+        assertEquals(2, set.sequence());
+        assertEquals(2, set.size());
+        assertFalse(set.contains(LEGACY));
+        assertTrue(set.contains(SUSPENDED));
+        assertTrue(set.contains(REACTIVATED_LATER));
+        assertFalse(set.apply(DELTA));
+    }
+
+    @Test
+    void ignoresNumbersOutsideBothFormats() {
+        assertNull(BlockedPassSet.keyOf("SMP-A"));
+        assertNull(BlockedPassSet.keyOf("XYZ-00000001234567890124"));
+        assertEquals(-1_735_689_600_123_007L, BlockedPassSet.keyOf(LEGACY));
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartmobility.passtoken;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PassTokenVerifierTest {
+
+    /** Vecteur produit par PassTokenSigner (user-mobility-pass-service, PassTokenSignerTest). */
+    private static final byte[] SECRET = Base64.getDecoder().decode("AQIDBAUGBwgJCgsMDQ4PEBESExQVFhcYGRobHB0eHyA=");
+    private static final String TOKEN = "AQFqsTuAarE_BAAAAFFSAAAAAAACSfANU01QLTAwMDEtVEVTVJ8GswSfyvgvdBzegtBBeXQ";
+    private static final long ISSUED_AT = 1_790_000_000L;
+
+    private static PassTokenVerifier verifierAt(long epochSecond) {
+        return new PassTokenVerifier(Map.of(1, SECRET),
+                Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void decodesTheClaimsOfAValidToken() {
+        PassTokenResult result = verifierAt(ISSUED_AT + 60).verify(TOKEN);
+
+        assertTrue(result.isValid());
+        PassTokenClaims claims = result.claims();
+        assertEquals("SMP-0001-TEST", claims.passNumber());
+        assertEquals(PassTokenStatus.ACTIVE, claims.status());
+        assertEquals(LocalDate.of(2026, 12, 31), claims.subscriptionEndDate());
+        assertEquals(150_000L, claims.balanceAtIssueCents());
+        assertEquals(Instant.ofEpochSecond(ISSUED_AT + 900), claims.expiresAt());
+        assertTrue(claims.allows(LocalDate.of(2026, 12, 31)));
+        assertFalse(claims.allows(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    void rejectsExpiredTamperedAndUnknownTokens() {
+        assertEquals(PassTokenResult.Outcome.EXPIRED, verifierAt(ISSUED_AT + 900 + 31).verify(TOKEN).outcome());
+        assertEquals(PassTokenResult.Outcome.NOT_YET_VALID, verifierAt(ISSUED_AT - 31).verify(TOKEN).outcome());
+
+        byte[] bytes = Base64.getUrlDecoder().decode(TOKEN);
+        bytes[22] ^= 0x01;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        assertEquals(PassTokenResult.Outcome.BAD_SIGNATURE, verifierAt(ISSUED_AT).verify(tampered).outcome());
+
+        PassTokenVerifier otherKeys = new PassTokenVerifier(Map.of(2, SECRET), Clock.systemUTC(), Duration.ZERO);
+        assertEquals(PassTokenResult.Outcome.UNKNOWN_KEY, otherKeys.verify(TOKEN).outcome());
+        assertEquals(PassTokenResult.Outcome.MALFORMED, verifierAt(ISSUED_AT).verify("not a token!").outcome());
+        assertEquals(PassTokenResult.Outcome.MALFORMED, verifierAt(ISSUED_AT).verify(TOKEN.substring(0, 40)).outcome());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSingleThreadThroughput() {
+        PassTokenVerifier verifier = verifierAt(ISSUED_AT + 60);
+        int warmup = 500_000;
+        int iterations = 3_000_000;
+        long valid = 0;
+        for (int i = 0; i < warmup; i++) {
+            valid += verifier.verify(TOKEN).isValid() ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            valid += verifier.verify(TOKEN).isValid() ? 1 : 0;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("[BENCH] pass token verify: %,.0f/s on one thread (%d valid)%n", iterations / seconds, valid);
+        assertEquals(warmup + iterations, valid);
+    }
+}
@@ -14,6 +14,7 @@ public class PricingProperties {
     private BigDecimal baseRatePerKm = BigDecimal.valueOf(100);
     private OffPeak offPeak = new OffPeak();
     private Loyalty loyalty = new Loyalty();
+    private Subscription subscription = new Subscription();
     private BigDecimal dailyCap = BigDecimal.valueOf(3000);
 
     @Data
@@ -30,4 +31,20 @@ public class PricingProperties {
         private BigDecimal discountRate = BigDecimal.valueOf(0.05);
         private int minTrips = 10;
     }
+
+    /** Réduction des abonnés (1 = trajet gratuit), par type d'abonnement. */
+    @Data
+    public static class Subscription {
+        private boolean enabled = true;
+        private BigDecimal monthlyDiscountRate = BigDecimal.valueOf(0.50);
+        private BigDecimal annualDiscountRate = BigDecimal.ONE;
+
+        public BigDecimal discountRate(String subscriptionType) {
+            return switch (subscriptionType) {
+                case "MONTHLY" -> monthlyDiscountRate;
+                case "ANNUAL" -> annualDiscountRate;
+                default -> BigDecimal.ZERO;
+            };
+        }
+    }
 }
@@ -9,7 +9,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class PricingDto {
@@ -42,6 +44,32 @@ public class PricingDto {
         private boolean offPeakApplied;
         private boolean loyaltyApplied;
         private boolean capApplied;
+        private boolean subscriptionApplied;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PassStatusChange {
+        private long sequence;
+        private UUID userId;
+        private String passNumber;
+        private String status;
+        private String subscriptionType;
+        private LocalDate subscriptionEndDate;
+        private boolean removed;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PassStatusFeed {
+        private String feedId;
+        private long sequence;
+        private boolean reset;
+        private List<PassStatusChange> changes;
     }
 
     @Data
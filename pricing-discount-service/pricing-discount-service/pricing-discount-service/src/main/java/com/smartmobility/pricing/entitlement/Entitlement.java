@@ -0,0 +1,13 @@
+package com.smartmobility.pricing.entitlement;
+
+import java.time.LocalDate;
+
+/**
+ * Droit d'abonnement d'un utilisateur, valable jusqu'au {@code validUntil} inclus.
+ */
+public record Entitlement(String subscriptionType, LocalDate validUntil) {
+
+    public boolean isValidOn(LocalDate day) {
+        return !day.isAfter(validUntil);
+    }
+}
@@ -0,0 +1,120 @@
+package com.smartmobility.pricing.entitlement;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmobility.pricing.dto.PricingDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Suivi du flux de statuts de user-mobility-pass-service pour une table locale : instantané
+ * {@code /status-snapshot}, puis pages de {@code /status-feed} à partir de la séquence renvoyée avec
+ * l'instantané. Un {@code reset} du flux recharge l'instantané (au plus une fois par
+ * {@code minReloadIntervalMs}), de même que la resynchronisation périodique.
+ * <p>
+ * Le flux ({@code PassChangeFeed}) est propre à chaque instance de user-mobility : derrière un
+ * répartiteur de charge, une page servie par une autre instance que l'instantané répond {@code reset},
+ * et les changements de l'intervalle ne sont rattrapés qu'au rechargement suivant.
+ */
+@Slf4j
+final class PassStatusFeedClient {
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int feedLimit;
+    private final long resyncIntervalMs;
+    private final long minReloadIntervalMs;
+    private final ToIntFunction<Iterable<PricingDto.PassStatusChange>> replace;
+    private final Consumer<List<PricingDto.PassStatusChange>> apply;
+
+    private String feedId;
+    private long sequence;
+    private long loadedAt;
+
+    /**
+     * @param replace reçoit l'instantané complet à substituer d'un bloc et rend le nombre de lignes retenues
+     * @param apply   reçoit les changements d'une page, états complets dans l'ordre de séquence
+     */
+    PassStatusFeedClient(RestClient restClient, ObjectMapper objectMapper, String baseUrl, int feedLimit,
+                         long resyncIntervalMs, long minReloadIntervalMs,
+                         ToIntFunction<Iterable<PricingDto.PassStatusChange>> replace,
+                         Consumer<List<PricingDto.PassStatusChange>> apply) {
+        this.restClient = restClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.feedLimit = feedLimit;
+        this.resyncIntervalMs = resyncIntervalMs;
+        this.minReloadIntervalMs = minReloadIntervalMs;
+        this.replace = replace;
+        this.apply = apply;
+    }
+
+    /** Un cycle de suivi ; une indisponibilité de user-mobility remonte en exception. */
+    void sync() {
+        long now = System.currentTimeMillis();
+        if (feedId == null || now - loadedAt >= resyncIntervalMs) {
+            reload();
+            return;
+        }
+        PricingDto.PassStatusFeed page;
+        do {
+            page = restClient.get()
+                    .uri(baseUrl + "/api/mobility-passes/status-feed?feedId={feedId}&after={after}&limit={limit}",
+                            feedId, sequence, feedLimit)
+                    .retrieve()
+                    .body(PricingDto.PassStatusFeed.class);
+            if (page == null) {
+                return;
+            }
+            if (page.isReset()) {
+                if (now - loadedAt >= minReloadIntervalMs) {
+                    log.info("[ENTITLEMENT] Feed reset requested (feedId={}, sequence={}), reloading snapshot",
+                            page.getFeedId(), page.getSequence());
+                    reload();
+                }
+                return;
+            }
+            apply(page);
+        } while (page.getChanges().size() >= feedLimit);
+    }
+
+    void reload() {
+        String[] position = restClient.get()
+                .uri(baseUrl + "/api/mobility-passes/status-snapshot")
+                .exchange((request, response) -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw new IllegalStateException("Instantané des statuts indisponible: " + response.getStatusCode());
+                    }
+                    try (MappingIterator<PricingDto.PassStatusChange> passes = objectMapper
+                            .readerFor(PricingDto.PassStatusChange.class)
+                            .readValues(response.getBody())) {
+                        int loaded = replace.applyAsInt(() -> passes);
+                        return new String[]{response.getHeaders().getFirst("X-Feed-Id"),
+                                response.getHeaders().getFirst("X-Feed-Sequence"), String.valueOf(loaded)};
+                    }
+                });
+        position(position[0], position[1] != null ? Long.parseLong(position[1]) : 0);
+        log.info("[ENTITLEMENT] Snapshot loaded - {} entitlements, feedId={}, sequence={}", position[2], feedId, sequence);
+    }
+
+    /** Applique une page du flux ; les changements portent l'état complet du pass, rejouer une page est sans effet. */
+    void apply(PricingDto.PassStatusFeed page) {
+        apply.accept(page.getChanges());
+        sequence = page.getSequence();
+        if (!page.getChanges().isEmpty()) {
+            log.debug("[ENTITLEMENT] {} pass changes applied, sequence={}", page.getChanges().size(), sequence);
+        }
+    }
+
+    /** Position dans le flux de la table qui vient d'être chargée. */
+    void position(String feedId, long sequence) {
+        this.feedId = feedId;
+        this.sequence = sequence;
+        this.loadedAt = System.currentTimeMillis();
+    }
+}
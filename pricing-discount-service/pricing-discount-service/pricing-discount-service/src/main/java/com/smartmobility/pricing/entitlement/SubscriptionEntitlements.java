@@ -0,0 +1,109 @@
+package com.smartmobility.pricing.entitlement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmobility.pricing.dto.PricingDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table locale des abonnements en cours (userId -> type et date de fin), consultée à chaque calcul de tarif.
+ * <p>
+ * Tenue à jour depuis l'instantané et le flux de statuts de user-mobility-pass-service par
+ * {@link PassStatusFeedClient} ; chaque instantané est chargé dans une nouvelle table substituée d'un bloc.
+ * Seuls les pass ACTIVE avec un abonnement daté sont retenus ; l'échéance est contrôlée à la lecture sur
+ * {@code subscriptionEndDate} et les lignes échues sont purgées chaque nuit.
+ */
+@Component
+@Slf4j
+public class SubscriptionEntitlements {
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final String NONE = "NONE";
+
+    private final boolean enabled;
+    private final PassStatusFeedClient feed;
+
+    private volatile Map<UUID, Entitlement> entitlements = new ConcurrentHashMap<>();
+
+    public SubscriptionEntitlements(RestClient.Builder restClientBuilder,
+                                    ObjectMapper objectMapper,
+                                    @Value("${user-mobility.service.url:http://user-mobility-pass-service}") String userMobilityServiceUrl,
+                                    @Value("${user-mobility.entitlements.enabled:true}") boolean enabled,
+                                    @Value("${user-mobility.entitlements.feed-limit:1000}") int feedLimit,
+                                    @Value("${user-mobility.entitlements.resync-interval-ms:300000}") long resyncIntervalMs,
+                                    @Value("${user-mobility.entitlements.min-reload-interval-ms:30000}") long minReloadIntervalMs) {
+        this.enabled = enabled;
+        this.feed = new PassStatusFeedClient(restClientBuilder.build(), objectMapper, userMobilityServiceUrl, feedLimit,
+                resyncIntervalMs, minReloadIntervalMs, this::replace, this::applyChanges);
+    }
+
+    /** Abonnement valide le jour donné, ou {@code null}. */
+    public Entitlement find(UUID userId, LocalDate day) {
+        Entitlement entitlement = entitlements.get(userId);
+        return entitlement != null && entitlement.isValidOn(day) ? entitlement : null;
+    }
+
+    public int size() {
+        return entitlements.size();
+    }
+
+    @Scheduled(fixedDelayString = "${user-mobility.entitlements.poll-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            feed.sync();
+        } catch (Exception e) {
+            log.warn("[ENTITLEMENT] user-mobility-pass-service unavailable, entitlements may be stale: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${user-mobility.entitlements.purge-cron:0 10 0 * * *}")
+    public void purgeExpired() {
+        LocalDate today = LocalDate.now();
+        int before = entitlements.size();
+        entitlements.values().removeIf(entitlement -> !entitlement.isValidOn(today));
+        log.info("[ENTITLEMENT] {} expired entitlements purged", before - entitlements.size());
+    }
+
+    void apply(PricingDto.PassStatusFeed page) {
+        feed.apply(page);
+    }
+
+    /** Remplace la table (tests, amorçage manuel). */
+    void load(String feedId, long sequence, Map<UUID, Entitlement> loaded) {
+        this.entitlements = loaded;
+        feed.position(feedId, sequence);
+    }
+
+    private int replace(Iterable<PricingDto.PassStatusChange> passes) {
+        Map<UUID, Entitlement> loaded = new ConcurrentHashMap<>();
+        passes.forEach(change -> accept(loaded, change));
+        entitlements = loaded;
+        return loaded.size();
+    }
+
+    private void applyChanges(List<PricingDto.PassStatusChange> changes) {
+        Map<UUID, Entitlement> current = entitlements;
+        changes.forEach(change -> accept(current, change));
+    }
+
+    private static void accept(Map<UUID, Entitlement> table, PricingDto.PassStatusChange change) {
+        if (change.isRemoved() || !ACTIVE.equals(change.getStatus()) || change.getSubscriptionType() == null
+                || NONE.equals(change.getSubscriptionType()) || change.getSubscriptionEndDate() == null) {
+            table.remove(change.getUserId());
+        } else {
+            table.put(change.getUserId(), new Entitlement(change.getSubscriptionType(), change.getSubscriptionEndDate()));
+        }
+    }
+}
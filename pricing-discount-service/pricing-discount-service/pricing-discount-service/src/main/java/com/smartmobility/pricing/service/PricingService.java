@@ -2,6 +2,8 @@ package com.smartmobility.pricing.service;
 
 import com.smartmobility.pricing.config.PricingProperties;
 import com.smartmobility.pricing.dto.PricingDto;
+import com.smartmobility.pricing.entitlement.Entitlement;
+import com.smartmobility.pricing.entitlement.SubscriptionEntitlements;
 import com.smartmobility.pricing.exception.PricingServiceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Service
@@ -17,13 +20,15 @@ import java.time.LocalTime;
 public class PricingService {
 
     private final PricingProperties props;
+    private final SubscriptionEntitlements entitlements;
 
     /**
      * Calcule le tarif final d'un trajet selon les règles métier :
      *   1. baseFare = distanceKm * baseRatePerKm
-     *   2. Réduction heures creuses (20h-6h) : -10%
-     *   3. Réduction fidélité (>10 trajets)  : -5%
-     *   4. Plafonnement journalier max 3000 FCFA
+     *   2. Réduction abonné (MONTHLY -50%, ANNUAL gratuit), table locale des abonnements
+     *   3. Réduction heures creuses (20h-6h) : -10%
+     *   4. Réduction fidélité (>10 trajets)  : -5%
+     *   5. Plafonnement journalier max 3000 FCFA
      */
     public PricingDto.PricingResponse calculatePrice(PricingDto.PricingRequest request) {
         log.info("[PRICING] Calculating price - userId={}, transport={}, distance={}km",
@@ -31,6 +36,7 @@ public class PricingService {
 
         validateTransportType(request.getTransportType());
 
+        // 1. Base fare
         BigDecimal baseFare = props.getBaseRatePerKm()
                 .multiply(request.getDistanceKm())
                 .setScale(2, RoundingMode.HALF_UP);
@@ -42,8 +48,22 @@ public class PricingService {
         boolean offPeakApplied  = false;
         boolean loyaltyApplied  = false;
         boolean capApplied      = false;
+        boolean subscriptionApplied = false;
 
-        // 1. Off-peak discount
+        // 2. Subscription entitlement — lookup in the local table, no remote call
+        if (props.getSubscription().isEnabled()) {
+            Entitlement entitlement = entitlements.find(request.getUserId(), LocalDate.now());
+            if (entitlement != null) {
+                BigDecimal d = baseFare.multiply(props.getSubscription().discountRate(entitlement.subscriptionType()))
+                        .setScale(2, RoundingMode.HALF_UP);
+                totalDiscount = totalDiscount.add(d);
+                subscriptionApplied = true;
+                log.debug("[PRICING] Subscription discount applied: -{}FCFA ({} until {})",
+                        d, entitlement.subscriptionType(), entitlement.validUntil());
+            }
+        }
+
+        // 3. Off-peak discount
         if (props.getOffPeak().isEnabled() && isOffPeak()) {
             BigDecimal d = baseFare.multiply(props.getOffPeak().getDiscountRate())
                     .setScale(2, RoundingMode.HALF_UP);
@@ -52,7 +72,7 @@ public class PricingService {
             log.debug("[PRICING] Off-peak discount applied: -{}FCFA", d);
         }
 
-        // 2. Loyalty discount — tripCount is passed via request context (stateless)
+        // 4. Loyalty discount — tripCount is passed via request context (stateless)
         // tripCount est transmis par trip-management-service dans le header ou simulé ici
         // Pour un service stateless, on se base sur une valeur passée ou on ignore
         // Ici on simule : si userId hashCode > 0 → >10 trips (à remplacer par header réel)
@@ -68,17 +88,18 @@ public class PricingService {
             }
         }
 
-        BigDecimal finalFare = baseFare.subtract(totalDiscount).max(BigDecimal.ZERO);
+        totalDiscount = totalDiscount.min(baseFare);
+        BigDecimal finalFare = baseFare.subtract(totalDiscount);
 
-        // 3. Daily cap
+        // 5. Daily cap
         if (finalFare.compareTo(props.getDailyCap()) > 0) {
             finalFare = props.getDailyCap();
             capApplied = true;
             log.debug("[PRICING] Daily cap applied: fare capped at {}FCFA", props.getDailyCap());
         }
 
-        log.info("[PRICING] Result - base={}, discount={}, final={}, offPeak={}, loyalty={}, cap={}",
-                baseFare, totalDiscount, finalFare, offPeakApplied, loyaltyApplied, capApplied);
+        log.info("[PRICING] Result - base={}, discount={}, final={}, subscription={}, offPeak={}, loyalty={}, cap={}",
+                baseFare, totalDiscount, finalFare, subscriptionApplied, offPeakApplied, loyaltyApplied, capApplied);
 
         return PricingDto.PricingResponse.builder()
                 .baseFare(baseFare)
@@ -87,6 +108,7 @@ public class PricingService {
                 .offPeakApplied(offPeakApplied)
                 .loyaltyApplied(loyaltyApplied)
                 .capApplied(capApplied)
+                .subscriptionApplied(subscriptionApplied)
                 .build();
     }
 
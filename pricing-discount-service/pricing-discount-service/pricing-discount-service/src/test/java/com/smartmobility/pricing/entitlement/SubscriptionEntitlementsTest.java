@@ -0,0 +1,58 @@
+package com.smartmobility.pricing.entitlement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmobility.pricing.dto.PricingDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SubscriptionEntitlementsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    private final SubscriptionEntitlements entitlements = new SubscriptionEntitlements(
+            RestClient.builder(), new ObjectMapper(), "http://user-mobility", false, 1000, 300000, 30000);
+
+    private static PricingDto.PassStatusChange change(UUID userId, String status, String type, LocalDate endDate) {
+        return PricingDto.PassStatusChange.builder()
+                .userId(userId).status(status).subscriptionType(type).subscriptionEndDate(endDate)
+                .build();
+    }
+
+    @Test
+    void keepsOnlyActiveSubscriptionsAndExpiresThemOnTheirEndDate() {
+        UUID monthly = UUID.randomUUID();
+        UUID annual = UUID.randomUUID();
+        UUID suspended = UUID.randomUUID();
+        UUID payAsYouGo = UUID.randomUUID();
+        entitlements.load("feed-1", 0, new ConcurrentHashMap<>(Map.of(
+                annual, new Entitlement("ANNUAL", TODAY.plusMonths(6)))));
+
+        entitlements.apply(PricingDto.PassStatusFeed.builder().feedId("feed-1").sequence(4).changes(List.of(
+                change(monthly, "ACTIVE", "MONTHLY", TODAY),
+                change(suspended, "SUSPENDED", "MONTHLY", TODAY.plusDays(10)),
+                change(payAsYouGo, "ACTIVE", "NONE", null),
+                change(annual, "ACTIVE", "ANNUAL", TODAY.plusYears(1)))).build());
+
+        assertEquals("MONTHLY", entitlements.find(monthly, TODAY).subscriptionType());
+        assertNull(entitlements.find(monthly, TODAY.plusDays(1)));
+        assertEquals(TODAY.plusYears(1), entitlements.find(annual, TODAY).validUntil());
+        assertNull(entitlements.find(suspended, TODAY));
+        assertNull(entitlements.find(payAsYouGo, TODAY));
+        assertEquals(2, entitlements.size());
+
+        entitlements.apply(PricingDto.PassStatusFeed.builder().feedId("feed-1").sequence(5).changes(List.of(
+                change(annual, "SUSPENDED", "ANNUAL", TODAY.plusYears(1)))).build());
+        assertNull(entitlements.find(annual, TODAY));
+        assertNotNull(entitlements.find(monthly, TODAY));
+    }
+}
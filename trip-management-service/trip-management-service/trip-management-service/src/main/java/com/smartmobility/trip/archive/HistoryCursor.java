@@ -0,0 +1,58 @@
+package com.smartmobility.trip.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position dans l'historique d'un utilisateur (keyset sur createdAt desc, id desc).
+ * {@code archived} indique que les données vivantes sont épuisées : la page suivante
+ * est lue directement dans les segments d'archive, sans requête SQL.
+ * <p>
+ * Une position vivante garde la précision de la colonne (microsecondes) : tronquée, la requête
+ * keyset sauterait les trajets de la même milliseconde. Les segments d'archive ne stockent que
+ * des millisecondes, une position archivée est donc encodée en millisecondes.
+ */
+public record HistoryCursor(LocalDateTime createdAt, UUID id, boolean archived) {
+
+    public String encode() {
+        long time = archived ? TripSegmentFormat.toEpochMillis(createdAt) : toEpochMicros(createdAt);
+        String raw = (archived ? "A" : "L") + ":" + time + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            boolean archived = "A".equals(parts[0]);
+            long time = Long.parseLong(parts[1]);
+            return new HistoryCursor(
+                    archived ? TripSegmentFormat.fromEpochMillis(time) : fromEpochMicros(time),
+                    UUID.fromString(parts[2]),
+                    archived);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + token, e);
+        }
+    }
+
+    /** Vrai si le trajet se situe strictement après ce curseur dans l'ordre de l'historique. */
+    boolean isBefore(long createdAtMillis, UUID tripId) {
+        long cursorMillis = TripSegmentFormat.toEpochMillis(createdAt);
+        return createdAtMillis < cursorMillis
+                || (createdAtMillis == cursorMillis && TripSegmentFormat.compareUuid(tripId, id) < 0);
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+    }
+}
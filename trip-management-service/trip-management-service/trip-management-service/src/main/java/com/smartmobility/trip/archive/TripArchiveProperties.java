@@ -0,0 +1,25 @@
+package com.smartmobility.trip.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "trip.archive")
+@Data
+public class TripArchiveProperties {
+
+    private boolean enabled = true;
+
+    /** Les trajets plus anciens que cette durée quittent la table trips. */
+    private int retentionDays = 180;
+
+    /** Répertoire local des segments (un fichier immuable par mois et par exécution). */
+    private String directory = "data/trip-archive";
+
+    /** Nombre de trajets lus, écrits puis supprimés par itération. */
+    private int batchSize = 20000;
+
+    /** Nombre de lignes par bloc compressé d'une colonne. */
+    private int blockRows = 1024;
+}
@@ -0,0 +1,75 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Déplace les trajets plus anciens que la rétention vers les segments d'archive.
+ * Chaque lot est d'abord écrit et synchronisé sur disque, puis supprimé de la base :
+ * une interruption entre les deux produit au pire un doublon, jamais une perte.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripArchiveService {
+
+    private final TripRepository tripRepository;
+    private final TripArchiveStore archiveStore;
+    private final TripArchiveProperties props;
+
+    @Scheduled(cron = "${trip.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (props.isEnabled()) {
+            archiveOlderThan(LocalDateTime.now().minusDays(props.getRetentionDays()));
+        }
+    }
+
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        int total = 0;
+
+        while (true) {
+            List<Trip> batch = tripRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(
+                    cutoff, PageRequest.of(0, props.getBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<YearMonth, List<Trip>> byMonth = batch.stream()
+                    .collect(Collectors.groupingBy(t -> YearMonth.from(t.getCreatedAt()), TreeMap::new,
+                            Collectors.toList()));
+            try {
+                for (Map.Entry<YearMonth, List<Trip>> month : byMonth.entrySet()) {
+                    archiveStore.append(month.getKey(), month.getValue());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Archivage interrompu, aucun trajet supprimé pour ce lot", e);
+            }
+
+            tripRepository.deleteAllByIdInBatch(batch.stream().map(Trip::getId).toList());
+            total += batch.size();
+
+            if (batch.size() < props.getBatchSize()) {
+                break;
+            }
+        }
+
+        log.info("[ARCHIVE] {} trips archived (cutoff={}) in {} ms",
+                total, cutoff, System.currentTimeMillis() - start);
+        return total;
+    }
+}
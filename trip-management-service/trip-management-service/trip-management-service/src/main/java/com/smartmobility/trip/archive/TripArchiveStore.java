@@ -0,0 +1,103 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.Trip;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Ensemble des segments d'archive présents sur disque.
+ * Les segments sont immuables : un nouvel archivage ajoute toujours de nouveaux fichiers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripArchiveStore {
+
+    private static final String SUFFIX = ".seg";
+
+    private final TripArchiveProperties props;
+
+    /** Triés par date du trajet le plus récent, décroissante. Remplacée atomiquement à chaque ajout. */
+    private volatile List<TripSegmentReader> segments = List.of();
+
+    @PostConstruct
+    public void load() throws IOException {
+        Path dir = Path.of(props.getDirectory());
+        Files.createDirectories(dir);
+        List<TripSegmentReader> readers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(SUFFIX))::iterator) {
+                readers.add(new TripSegmentReader(file));
+            }
+        }
+        readers.sort(Comparator.comparingLong(TripSegmentReader::maxCreatedAtMillis).reversed());
+        segments = List.copyOf(readers);
+        log.info("[ARCHIVE] {} segments loaded from {}", readers.size(), dir.toAbsolutePath());
+    }
+
+    public synchronized void append(YearMonth month, List<Trip> trips) throws IOException {
+        long seq = System.currentTimeMillis();
+        Path file;
+        do {
+            file = Path.of(props.getDirectory(), "trips-" + month + "-" + seq++ + SUFFIX);
+        } while (Files.exists(file));
+        TripSegmentWriter.write(file, trips, props.getBlockRows());
+
+        List<TripSegmentReader> readers = new ArrayList<>(segments);
+        readers.add(new TripSegmentReader(file));
+        readers.sort(Comparator.comparingLong(TripSegmentReader::maxCreatedAtMillis).reversed());
+        segments = List.copyOf(readers);
+        log.info("[ARCHIVE] Segment written - file={}, rows={}", file.getFileName(), trips.size());
+    }
+
+    /**
+     * Trajets archivés d'un utilisateur situés après {@code cursor} (null = depuis le plus récent).
+     * Les segments sont parcourus du plus récent au plus ancien et la lecture s'arrête dès
+     * qu'aucun segment restant ne peut contenir de trajet plus récent que le dernier retenu.
+     */
+    public List<Trip> findByUser(UUID userId, HistoryCursor cursor, int limit) {
+        List<Trip> result = new ArrayList<>();
+        long cursorMillis = cursor != null ? TripSegmentFormat.toEpochMillis(cursor.createdAt()) : Long.MAX_VALUE;
+
+        for (TripSegmentReader segment : segments) {
+            if (segment.minCreatedAtMillis() > cursorMillis) {
+                continue;
+            }
+            if (result.size() >= limit && segment.maxCreatedAtMillis()
+                    < TripSegmentFormat.toEpochMillis(result.get(limit - 1).getCreatedAt())) {
+                break;
+            }
+            for (Trip trip : segment.findByUser(userId)) {
+                if (cursor == null
+                        || cursor.isBefore(TripSegmentFormat.toEpochMillis(trip.getCreatedAt()), trip.getId())) {
+                    result.add(trip);
+                }
+            }
+            result.sort(TripSegmentFormat.NEWEST_FIRST);
+        }
+
+        // Un trajet peut figurer dans deux segments si un archivage a été interrompu avant la suppression.
+        Map<UUID, Trip> unique = new LinkedHashMap<>();
+        for (Trip trip : result) {
+            unique.putIfAbsent(trip.getId(), trip);
+            if (unique.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+}
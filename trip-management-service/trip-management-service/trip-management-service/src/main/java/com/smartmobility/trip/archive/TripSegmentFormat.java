@@ -0,0 +1,100 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.TransportType;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.entity.TripStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Constantes et encodage des colonnes d'un segment d'archive de trajets.
+ * Toutes les colonnes sont à largeur fixe ; les montants sont stockés en centimes.
+ */
+final class TripSegmentFormat {
+
+    static final int MAGIC = 0x54534547; // "TSEG"
+    static final short VERSION = 1;
+
+    static final int HEADER_BYTES = 36;
+    static final int USER_ENTRY_BYTES = 24;
+    static final int BLOCK_ENTRY_BYTES = 12;
+
+    static final int COL_ID = 0;
+    static final int COL_CREATED_AT = 1;
+    static final int COL_TRANSPORT = 2;
+    static final int COL_STATUS = 3;
+    static final int COL_DISTANCE = 4;
+    static final int COL_BASE_FARE = 5;
+    static final int COL_FINAL_FARE = 6;
+
+    static final int[] COLUMN_WIDTHS = {16, 8, 1, 1, 8, 8, 8};
+
+    private static final long NULL_AMOUNT = Long.MIN_VALUE;
+    private static final TransportType[] TRANSPORTS = TransportType.values();
+    private static final TripStatus[] STATUSES = TripStatus.values();
+
+    /** Ordre de l'historique : plus récent d'abord, puis id décroissant (ordre octet, comme PostgreSQL). */
+    static final Comparator<Trip> NEWEST_FIRST = (a, b) -> {
+        int cmp = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return cmp != 0 ? -cmp : -compareUuid(a.getId(), b.getId());
+    };
+
+    private TripSegmentFormat() {
+    }
+
+    static int compareUuid(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    static void writeCell(ByteBuffer buf, int column, Trip trip) {
+        switch (column) {
+            case COL_ID -> buf.putLong(trip.getId().getMostSignificantBits())
+                    .putLong(trip.getId().getLeastSignificantBits());
+            case COL_CREATED_AT -> buf.putLong(toEpochMillis(trip.getCreatedAt()));
+            case COL_TRANSPORT -> buf.put((byte) trip.getTransportType().ordinal());
+            case COL_STATUS -> buf.put((byte) trip.getStatus().ordinal());
+            case COL_DISTANCE -> buf.putLong(toCents(trip.getDistanceKm()));
+            case COL_BASE_FARE -> buf.putLong(toCents(trip.getBaseFare()));
+            case COL_FINAL_FARE -> buf.putLong(toCents(trip.getFinalFare()));
+            default -> throw new IllegalArgumentException("Colonne inconnue: " + column);
+        }
+    }
+
+    static void readCell(ByteBuffer buf, int column, Trip trip) {
+        switch (column) {
+            case COL_ID -> trip.setId(new UUID(buf.getLong(), buf.getLong()));
+            case COL_CREATED_AT -> trip.setCreatedAt(fromEpochMillis(buf.getLong()));
+            case COL_TRANSPORT -> trip.setTransportType(TRANSPORTS[buf.get()]);
+            case COL_STATUS -> trip.setStatus(STATUSES[buf.get()]);
+            case COL_DISTANCE -> trip.setDistanceKm(fromCents(buf.getLong()));
+            case COL_BASE_FARE -> trip.setBaseFare(fromCents(buf.getLong()));
+            case COL_FINAL_FARE -> trip.setFinalFare(fromCents(buf.getLong()));
+            default -> throw new IllegalArgumentException("Colonne inconnue: " + column);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? NULL_AMOUNT
+                : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return cents == NULL_AMOUNT ? null : BigDecimal.valueOf(cents, 2);
+    }
+}
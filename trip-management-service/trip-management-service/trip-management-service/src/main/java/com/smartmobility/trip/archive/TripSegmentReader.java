@@ -0,0 +1,156 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.Trip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lecture d'un segment via un fichier mappé en mémoire.
+ * Seuls l'en-tête, l'index utilisateur et les blocs couvrant les lignes demandées
+ * sont touchés ; le reste du fichier n'est jamais chargé par le noyau.
+ * Thread-safe : chaque lecture travaille sur une vue dupliquée du buffer.
+ */
+public class TripSegmentReader {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int columns;
+    private final int blockRows;
+    private final int rowCount;
+    private final int userCount;
+    private final long minCreatedAt;
+    private final long maxCreatedAt;
+    private final int userIndexStart;
+    private final int blockDirStart;
+    private final int blockCount;
+
+    public TripSegmentReader(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != TripSegmentFormat.MAGIC || buffer.getShort(4) != TripSegmentFormat.VERSION) {
+            throw new IOException("Segment d'archive invalide: " + path);
+        }
+        this.columns = buffer.getShort(6);
+        this.blockRows = buffer.getInt(8);
+        this.rowCount = buffer.getInt(12);
+        this.userCount = buffer.getInt(16);
+        this.minCreatedAt = buffer.getLong(20);
+        this.maxCreatedAt = buffer.getLong(28);
+        this.userIndexStart = TripSegmentFormat.HEADER_BYTES;
+        this.blockDirStart = userIndexStart + userCount * TripSegmentFormat.USER_ENTRY_BYTES;
+        this.blockCount = (rowCount + blockRows - 1) / blockRows;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public long minCreatedAtMillis() {
+        return minCreatedAt;
+    }
+
+    public long maxCreatedAtMillis() {
+        return maxCreatedAt;
+    }
+
+    /**
+     * @return les trajets de l'utilisateur, du plus récent au plus ancien
+     */
+    public List<Trip> findByUser(UUID userId) {
+        int entry = findUser(userId);
+        if (entry < 0) {
+            return Collections.emptyList();
+        }
+        int offset = userIndexStart + entry * TripSegmentFormat.USER_ENTRY_BYTES;
+        int firstRow = buffer.getInt(offset + 16);
+        int count = buffer.getInt(offset + 20);
+
+        List<Trip> trips = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Trip trip = new Trip();
+            trip.setUserId(userId);
+            trips.add(trip);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            for (int c = 0; c < columns; c++) {
+                int width = TripSegmentFormat.COLUMN_WIDTHS[c];
+                int row = firstRow;
+                while (row < firstRow + count) {
+                    int block = row / blockRows;
+                    int blockStart = block * blockRows;
+                    int blockEnd = Math.min(rowCount, blockStart + blockRows);
+                    ByteBuffer raw = inflate(inflater, c, block, (blockEnd - blockStart) * width);
+
+                    int last = Math.min(blockEnd, firstRow + count);
+                    raw.position((row - blockStart) * width);
+                    for (; row < last; row++) {
+                        TripSegmentFormat.readCell(raw, c, trips.get(row - firstRow));
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return trips;
+    }
+
+    private int findUser(UUID userId) {
+        int lo = 0;
+        int hi = userCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = userIndexStart + mid * TripSegmentFormat.USER_ENTRY_BYTES;
+            UUID candidate = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+            int cmp = TripSegmentFormat.compareUuid(candidate, userId);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer inflate(Inflater inflater, int column, int block, int rawLength) {
+        int dirOffset = blockDirStart + (column * blockCount + block) * TripSegmentFormat.BLOCK_ENTRY_BYTES;
+        long dataOffset = buffer.getLong(dirOffset);
+        int length = buffer.getInt(dirOffset + 8);
+
+        ByteBuffer compressed = buffer.duplicate();
+        compressed.position((int) dataOffset).limit((int) dataOffset + length);
+
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                n += inflater.inflate(raw, n, rawLength - n);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloc corrompu dans " + path, e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+}
@@ -0,0 +1,131 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.Trip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+/**
+ * Écrit un segment d'archive colonnaire immuable.
+ *
+ * <pre>
+ * header     magic(4) version(2) columns(2) blockRows(4) rowCount(4) userCount(4) minCreatedAt(8) maxCreatedAt(8)
+ * user index userCount × [userId msb(8) lsb(8) firstRow(4) rowCount(4)]   trié par userId
+ * block dir  columns × blocks × [offset(8) compressedLength(4)]
+ * data       blocs DEFLATE, une colonne à largeur fixe par bloc
+ * </pre>
+ *
+ * Les lignes sont triées par (userId, createdAt desc, id desc) : l'historique d'un
+ * utilisateur occupe une plage contiguë, donc généralement un seul bloc par colonne.
+ */
+public final class TripSegmentWriter {
+
+    private TripSegmentWriter() {
+    }
+
+    public static void write(Path target, List<Trip> trips, int blockRows) throws IOException {
+        List<Trip> rows = new ArrayList<>(trips);
+        rows.sort(Comparator.comparing(Trip::getUserId, TripSegmentFormat::compareUuid)
+                .thenComparing(TripSegmentFormat.NEWEST_FIRST));
+
+        int rowCount = rows.size();
+        int blockCount = (rowCount + blockRows - 1) / blockRows;
+
+        List<long[]> userIndex = new ArrayList<>();
+        long minCreatedAt = Long.MAX_VALUE;
+        long maxCreatedAt = Long.MIN_VALUE;
+        UUID currentUser = null;
+        for (int i = 0; i < rowCount; i++) {
+            Trip trip = rows.get(i);
+            long createdAt = TripSegmentFormat.toEpochMillis(trip.getCreatedAt());
+            minCreatedAt = Math.min(minCreatedAt, createdAt);
+            maxCreatedAt = Math.max(maxCreatedAt, createdAt);
+            if (!trip.getUserId().equals(currentUser)) {
+                currentUser = trip.getUserId();
+                userIndex.add(new long[]{currentUser.getMostSignificantBits(),
+                        currentUser.getLeastSignificantBits(), i, 0});
+            }
+            userIndex.get(userIndex.size() - 1)[3]++;
+        }
+
+        int columns = TripSegmentFormat.COLUMN_WIDTHS.length;
+        long dataStart = TripSegmentFormat.HEADER_BYTES
+                + (long) userIndex.size() * TripSegmentFormat.USER_ENTRY_BYTES
+                + (long) columns * blockCount * TripSegmentFormat.BLOCK_ENTRY_BYTES;
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteBuffer directory = ByteBuffer.allocate(columns * blockCount * TripSegmentFormat.BLOCK_ENTRY_BYTES);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] out = new byte[64 * 1024];
+        try {
+            for (int c = 0; c < columns; c++) {
+                for (int b = 0; b < blockCount; b++) {
+                    int from = b * blockRows;
+                    int to = Math.min(rowCount, from + blockRows);
+                    ByteBuffer raw = ByteBuffer.allocate((to - from) * TripSegmentFormat.COLUMN_WIDTHS[c]);
+                    for (int r = from; r < to; r++) {
+                        TripSegmentFormat.writeCell(raw, c, rows.get(r));
+                    }
+
+                    deflater.reset();
+                    deflater.setInput(raw.array());
+                    deflater.finish();
+                    int start = data.size();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(out);
+                        data.write(out, 0, n);
+                    }
+                    directory.putLong(dataStart + start).putInt(data.size() - start);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(TripSegmentFormat.HEADER_BYTES
+                + userIndex.size() * TripSegmentFormat.USER_ENTRY_BYTES);
+        head.putInt(TripSegmentFormat.MAGIC)
+                .putShort(TripSegmentFormat.VERSION)
+                .putShort((short) columns)
+                .putInt(blockRows)
+                .putInt(rowCount)
+                .putInt(userIndex.size())
+                .putLong(minCreatedAt)
+                .putLong(maxCreatedAt);
+        for (long[] entry : userIndex) {
+            head.putLong(entry[0]).putLong(entry[1]).putInt((int) entry[2]).putInt((int) entry[3]);
+        }
+        head.flip();
+        directory.flip();
+
+        // Écriture dans un fichier temporaire puis renommage atomique : un lecteur
+        // ne voit jamais un segment partiel.
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (head.hasRemaining()) {
+                channel.write(head);
+            }
+            while (directory.hasRemaining()) {
+                channel.write(directory);
+            }
+            ByteBuffer body = ByteBuffer.wrap(data.toByteArray());
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,140 @@
+package com.smartmobility.trip.client;
+
+import com.smartmobility.trip.dto.TripDto;
+import com.smartmobility.trip.entity.Trip;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Envoie les événements "trajet terminé" à notification-service par lots.
+ * La création d'un trajet ne fait qu'un {@code offer} non bloquant ; si la file
+ * est pleine ou le service indisponible, l'événement est perdu (notification best-effort).
+ * <p>
+ * Les mêmes lots partent vers user-mobility-pass-service ({@code /loyalty/trips}) pour les points
+ * de fidélité. Ce service ignore les trajets déjà reçus : un lot refusé est gardé (dans la limite
+ * de {@code queue-capacity}) et renvoyé au cycle suivant.
+ */
+@Component
+@Slf4j
+public class NotificationPublisher {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient.Builder webClientBuilder;
+    private final BlockingQueue<TripDto.NotificationEvent> queue;
+    private final boolean enabled;
+    private final boolean loyaltyEnabled;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final List<TripDto.NotificationEvent> loyaltyBacklog = new ArrayList<>();
+
+    @Value("${notification.service.url:http://notification-service}")
+    private String notificationServiceUrl;
+
+    @Value("${user-mobility.service.url:http://user-mobility-pass-service}")
+    private String userMobilityServiceUrl;
+
+    public NotificationPublisher(WebClient.Builder webClientBuilder,
+                                 @Value("${notification.publisher.enabled:true}") boolean enabled,
+                                 @Value("${notification.publisher.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${notification.publisher.batch-size:500}") int batchSize,
+                                 @Value("${notification.publisher.loyalty-enabled:true}") boolean loyaltyEnabled) {
+        this.webClientBuilder = webClientBuilder;
+        this.enabled = enabled;
+        this.loyaltyEnabled = loyaltyEnabled;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public void publishTripCompleted(Trip trip) {
+        if (!enabled) {
+            return;
+        }
+        TripDto.NotificationEvent event = TripDto.NotificationEvent.builder()
+                .userId(trip.getUserId())
+                .type("TRIP_COMPLETED")
+                .tripId(trip.getId())
+                .amount(trip.getFinalFare())
+                .occurredAt(Instant.now())
+                .build();
+        if (!queue.offer(event)) {
+            log.warn("[NOTIFY] Queue full, trip event dropped - tripId={}", trip.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.publisher.flush-interval-ms:1000}")
+    public void flush() {
+        boolean loyaltyUp = !loyaltyEnabled || sendLoyaltyBacklog();
+        boolean notificationsUp = true;
+        List<TripDto.NotificationEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (notificationsUp) {
+                notificationsUp = post(notificationServiceUrl + "/notifications/events/batch", batch);
+                if (!notificationsUp) {
+                    log.warn("[NOTIFY] notification-service unavailable, trip events of this cycle dropped");
+                }
+            }
+            if (loyaltyEnabled) {
+                if (loyaltyUp) {
+                    loyaltyUp = post(userMobilityServiceUrl + "/api/mobility-passes/loyalty/trips", batch);
+                }
+                if (!loyaltyUp) {
+                    keepForLoyalty(batch);
+                }
+            }
+            if (!notificationsUp && !loyaltyEnabled) {
+                queue.clear();
+                return;
+            }
+            log.debug("[NOTIFY] {} trip events sent", batch.size());
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /** Renvoie les lots refusés par user-mobility-pass-service ; faux s'il est toujours indisponible. */
+    private boolean sendLoyaltyBacklog() {
+        while (!loyaltyBacklog.isEmpty()) {
+            List<TripDto.NotificationEvent> batch = loyaltyBacklog.subList(0, Math.min(batchSize, loyaltyBacklog.size()));
+            if (!post(userMobilityServiceUrl + "/api/mobility-passes/loyalty/trips", batch)) {
+                return false;
+            }
+            batch.clear();
+        }
+        return true;
+    }
+
+    private void keepForLoyalty(List<TripDto.NotificationEvent> batch) {
+        int room = queueCapacity - loyaltyBacklog.size();
+        if (room < batch.size()) {
+            log.warn("[NOTIFY] Loyalty backlog full, {} trip events dropped", batch.size() - Math.max(0, room));
+        }
+        loyaltyBacklog.addAll(batch.subList(0, Math.max(0, Math.min(room, batch.size()))));
+    }
+
+    private boolean post(String url, List<TripDto.NotificationEvent> events) {
+        try {
+            webClientBuilder.build()
+                    .post()
+                    .uri(url)
+                    .bodyValue(TripDto.NotificationBatch.builder().events(events).build())
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(TIMEOUT);
+            return true;
+        } catch (Exception e) {
+            log.warn("[NOTIFY] POST {} failed for {} trip events: {}", url, events.size(), e.getMessage());
+            return false;
+        }
+    }
+}
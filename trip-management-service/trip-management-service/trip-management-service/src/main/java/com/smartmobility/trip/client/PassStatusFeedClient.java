@@ -0,0 +1,123 @@
+package com.smartmobility.trip.client;
+
+import com.smartmobility.trip.dto.TripDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Suivi du flux de statuts de user-mobility-pass-service pour une copie locale : instantané
+ * {@code /status-snapshot}, puis pages de {@code /status-feed} à partir de la séquence renvoyée avec
+ * l'instantané. Un {@code reset} du flux recharge l'instantané (au plus une fois par
+ * {@code minReloadIntervalMs}), de même que la resynchronisation périodique.
+ * <p>
+ * Le flux ({@code PassChangeFeed}) est propre à chaque instance de user-mobility : derrière un
+ * répartiteur de charge, une page servie par une autre instance que l'instantané répond {@code reset},
+ * et les changements de l'intervalle ne sont rattrapés qu'au rechargement suivant.
+ */
+@Slf4j
+final class PassStatusFeedClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebClient.Builder webClientBuilder;
+    private final String baseUrl;
+    private final int feedLimit;
+    private final long resyncIntervalMs;
+    private final long minReloadIntervalMs;
+    private final ToIntFunction<Iterable<TripDto.PassStatusChange>> replace;
+    private final Consumer<List<TripDto.PassStatusChange>> apply;
+
+    private String feedId;
+    private long sequence;
+    private long loadedAt;
+
+    /**
+     * @param replace reçoit l'instantané complet à substituer d'un bloc et rend le nombre de pass retenus
+     * @param apply   reçoit les changements d'une page, états complets dans l'ordre de séquence
+     */
+    PassStatusFeedClient(WebClient.Builder webClientBuilder, String baseUrl, int feedLimit,
+                         long resyncIntervalMs, long minReloadIntervalMs,
+                         ToIntFunction<Iterable<TripDto.PassStatusChange>> replace,
+                         Consumer<List<TripDto.PassStatusChange>> apply) {
+        this.webClientBuilder = webClientBuilder;
+        this.baseUrl = baseUrl;
+        this.feedLimit = feedLimit;
+        this.resyncIntervalMs = resyncIntervalMs;
+        this.minReloadIntervalMs = minReloadIntervalMs;
+        this.replace = replace;
+        this.apply = apply;
+    }
+
+    /** Un cycle de suivi ; une indisponibilité de user-mobility remonte en exception. */
+    void sync() {
+        long now = System.currentTimeMillis();
+        if (feedId == null || now - loadedAt >= resyncIntervalMs) {
+            reload();
+            return;
+        }
+        TripDto.PassStatusFeed page;
+        do {
+            page = fetchFeed();
+            if (page.isReset()) {
+                if (now - loadedAt >= minReloadIntervalMs) {
+                    log.info("[REPLICA] Feed reset requested (feedId={}, sequence={}), reloading snapshot",
+                            page.getFeedId(), page.getSequence());
+                    reload();
+                }
+                return;
+            }
+            apply(page);
+        } while (page.getChanges().size() >= feedLimit);
+    }
+
+    void reload() {
+        ResponseEntity<Flux<TripDto.PassStatusChange>> response = webClientBuilder.build()
+                .get()
+                .uri(baseUrl + "/api/mobility-passes/status-snapshot")
+                .retrieve()
+                .toEntityFlux(TripDto.PassStatusChange.class)
+                .block(TIMEOUT);
+        if (response == null || response.getBody() == null) {
+            throw new IllegalStateException("Instantané des statuts vide");
+        }
+        String snapshotFeedId = response.getHeaders().getFirst("X-Feed-Id");
+        String snapshotSequence = response.getHeaders().getFirst("X-Feed-Sequence");
+        int loaded = replace.applyAsInt(response.getBody().timeout(TIMEOUT).toIterable());
+
+        position(snapshotFeedId, snapshotSequence != null ? Long.parseLong(snapshotSequence) : 0);
+        log.info("[REPLICA] Snapshot loaded - {} passes, feedId={}, sequence={}", loaded, feedId, sequence);
+    }
+
+    /** Applique une page du flux ; les changements sont des états complets, rejouer une page est sans effet. */
+    void apply(TripDto.PassStatusFeed page) {
+        apply.accept(page.getChanges());
+        sequence = page.getSequence();
+        if (!page.getChanges().isEmpty()) {
+            log.debug("[REPLICA] {} pass changes applied, sequence={}", page.getChanges().size(), sequence);
+        }
+    }
+
+    /** Position dans le flux de la copie qui vient d'être chargée. */
+    void position(String feedId, long sequence) {
+        this.feedId = feedId;
+        this.sequence = sequence;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    private TripDto.PassStatusFeed fetchFeed() {
+        return webClientBuilder.build()
+                .get()
+                .uri(baseUrl + "/api/mobility-passes/status-feed?feedId={feedId}&after={after}&limit={limit}",
+                        feedId, sequence, feedLimit)
+                .retrieve()
+                .bodyToMono(TripDto.PassStatusFeed.class)
+                .block(TIMEOUT);
+    }
+}
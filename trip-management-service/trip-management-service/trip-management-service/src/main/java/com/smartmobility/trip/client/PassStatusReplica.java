@@ -0,0 +1,126 @@
+package com.smartmobility.trip.client;
+
+import com.smartmobility.trip.dto.TripDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copie locale userId -> statut du pass, tenue à jour depuis user-mobility-pass-service.
+ * <p>
+ * Le suivi de l'instantané et du flux est délégué à {@link PassStatusFeedClient} ; chaque instantané
+ * est chargé dans une nouvelle map, substituée d'un bloc. Tant qu'aucun instantané n'a été chargé,
+ * la copie n'est pas prête et la création de trajet ne vérifie rien.
+ */
+@Component
+@Slf4j
+public class PassStatusReplica {
+
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient.Builder webClientBuilder;
+    private final String userMobilityServiceUrl;
+    private final boolean enabled;
+    private final PassStatusFeedClient feed;
+
+    private volatile Map<UUID, TripDto.PassStatusChange> passesByUser;
+
+    public PassStatusReplica(WebClient.Builder webClientBuilder,
+                             @Value("${user-mobility.service.url:http://user-mobility-pass-service}") String userMobilityServiceUrl,
+                             @Value("${user-mobility.replica.enabled:true}") boolean enabled,
+                             @Value("${user-mobility.replica.feed-limit:1000}") int feedLimit,
+                             @Value("${user-mobility.replica.resync-interval-ms:300000}") long resyncIntervalMs,
+                             @Value("${user-mobility.replica.min-reload-interval-ms:30000}") long minReloadIntervalMs) {
+        this.webClientBuilder = webClientBuilder;
+        this.userMobilityServiceUrl = userMobilityServiceUrl;
+        this.enabled = enabled;
+        this.feed = new PassStatusFeedClient(webClientBuilder, userMobilityServiceUrl, feedLimit,
+                resyncIntervalMs, minReloadIntervalMs, this::replace, this::applyChanges);
+    }
+
+    public boolean isReady() {
+        return passesByUser != null;
+    }
+
+    /** Pass connu de l'utilisateur ; vide si l'utilisateur est inconnu ou si la copie n'est pas prête. */
+    public Optional<TripDto.PassStatusChange> find(UUID userId) {
+        Map<UUID, TripDto.PassStatusChange> current = passesByUser;
+        return current == null ? Optional.empty() : Optional.ofNullable(current.get(userId));
+    }
+
+    /**
+     * Pass absent de la copie, demandé directement à user-mobility-pass-service puis ajouté à la copie :
+     * un utilisateur créé sur une autre instance n'arrive qu'au rechargement suivant de l'instantané.
+     * Vide si l'utilisateur n'a pas de pass ; une indisponibilité du service remonte en exception.
+     */
+    public Optional<TripDto.PassStatusChange> fetch(UUID userId) {
+        TripDto.PassStatusChange pass = webClientBuilder.build()
+                .get()
+                .uri(userMobilityServiceUrl + "/api/mobility-passes/user/{userId}", userId)
+                .retrieve()
+                .bodyToMono(TripDto.PassStatusChange.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .block(LOOKUP_TIMEOUT);
+        if (pass == null) {
+            return Optional.empty();
+        }
+        pass.setUserId(userId);
+        Map<UUID, TripDto.PassStatusChange> current = passesByUser;
+        if (current != null) {
+            current.putIfAbsent(userId, pass);
+        }
+        log.debug("[REPLICA] Pass {} fetched on miss for userId={}", pass.getPassNumber(), userId);
+        return Optional.of(pass);
+    }
+
+    @Scheduled(fixedDelayString = "${user-mobility.replica.poll-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            feed.sync();
+        } catch (Exception e) {
+            log.warn("[REPLICA] user-mobility-pass-service unavailable, pass statuses may be stale: {}", e.getMessage());
+        }
+    }
+
+    void apply(TripDto.PassStatusFeed page) {
+        feed.apply(page);
+    }
+
+    /** Remplace la copie (tests, amorçage manuel). */
+    void load(String feedId, long sequence, Iterable<TripDto.PassStatusChange> passes) {
+        replace(passes);
+        feed.position(feedId, sequence);
+    }
+
+    private int replace(Iterable<TripDto.PassStatusChange> passes) {
+        Map<UUID, TripDto.PassStatusChange> loaded = new ConcurrentHashMap<>();
+        passes.forEach(pass -> loaded.put(pass.getUserId(), pass));
+        passesByUser = loaded;
+        return loaded.size();
+    }
+
+    private void applyChanges(List<TripDto.PassStatusChange> changes) {
+        Map<UUID, TripDto.PassStatusChange> current = passesByUser;
+        for (TripDto.PassStatusChange change : changes) {
+            if (change.isRemoved()) {
+                current.remove(change.getUserId());
+            } else {
+                current.put(change.getUserId(), change);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartmobility.trip.controller;
 
 import com.smartmobility.trip.dto.TripDto;
 import com.smartmobility.trip.service.TripService;
+import com.smartmobility.trip.submission.TripSubmissionQueue;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +21,7 @@ import java.util.UUID;
 public class TripController {
 
     private final TripService tripService;
+    private final TripSubmissionQueue submissionQueue;
 
     /**
      * Crée un nouveau trajet.
@@ -32,6 +35,34 @@ public class TripController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Variante asynchrone (en-tête {@code Prefer: respond-async}) : le trajet est vérifié, journalisé
+     * puis accepté en 202 ; tarification et débit suivent par lots. 429 quand la file est pleine.
+     */
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<?> submitTrip(
+            @Valid @RequestBody TripDto.TripRequest request) {
+        if (!submissionQueue.isEnabled()) {
+            return createTrip(request);
+        }
+        log.info("[CONTROLLER] POST /trips (async) - userId={}", request.getUserId());
+        tripService.checkPass(request.getUserId());
+        TripDto.TripSubmission submission = submissionQueue.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/trips/submissions/" + submission.getId()))
+                .header("Preference-Applied", "respond-async")
+                .body(submission);
+    }
+
+    /**
+     * État d'une soumission asynchrone ; une fois réglée, le trajet enregistré est renvoyé.
+     */
+    @GetMapping("/submissions/{id}")
+    public ResponseEntity<TripDto.TripSubmission> getSubmission(@PathVariable UUID id) {
+        log.info("[CONTROLLER] GET /trips/submissions/{}", id);
+        return ResponseEntity.ok(submissionQueue.status(id));
+    }
+
     /**
      * Retourne l'historique des trajets d'un utilisateur, triés par date décroissante.
      */
@@ -42,4 +73,16 @@ public class TripController {
         List<TripDto.TripResponse> trips = tripService.getTripsByUserId(userId);
         return ResponseEntity.ok(trips);
     }
+
+    /**
+     * Historique paginé par curseur : trajets récents en base, puis trajets archivés.
+     */
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<TripDto.TripPage> getTripHistory(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("[CONTROLLER] GET /trips/user/{}/history - size={}", userId, size);
+        return ResponseEntity.ok(tripService.getTripHistory(userId, cursor, size));
+    }
 }
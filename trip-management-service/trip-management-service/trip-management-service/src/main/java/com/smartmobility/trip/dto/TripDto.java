@@ -9,7 +9,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class TripDto {
@@ -46,6 +49,26 @@ public class TripDto {
         private LocalDateTime createdAt;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TripSubmission {
+        private UUID id;
+        private String status;
+        private String message;
+        private TripResponse trip;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TripPage {
+        private List<TripResponse> items;
+        private String nextCursor;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -66,6 +89,51 @@ public class TripDto {
         private BigDecimal finalFare;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class NotificationEvent {
+        private UUID userId;
+        private String type;
+        private UUID tripId;
+        private BigDecimal amount;
+        private Instant occurredAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class NotificationBatch {
+        private List<NotificationEvent> events;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PassStatusChange {
+        private long sequence;
+        private UUID userId;
+        private String passNumber;
+        private String status;
+        private String subscriptionType;
+        private LocalDate subscriptionEndDate;
+        private boolean removed;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PassStatusFeed {
+        private String feedId;
+        private long sequence;
+        private boolean reset;
+        private List<PassStatusChange> changes;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
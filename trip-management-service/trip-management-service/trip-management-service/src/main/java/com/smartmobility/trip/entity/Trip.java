@@ -1,5 +1,6 @@
 package com.smartmobility.trip.entity;
 
+import com.smartmobility.trip.id.GeneratedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "trips")
+@Table(name = "trips", indexes = {
+        @Index(name = "idx_trips_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_trips_created", columnList = "created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +22,7 @@ import java.util.UUID;
 public class Trip {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuid
     @Column(updatable = false, nullable = false)
     private UUID id;
 
@@ -2,6 +2,7 @@ package com.smartmobility.trip.exception;
 
 import com.smartmobility.trip.dto.TripDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -29,6 +30,42 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PassNotFoundException.class)
+    public ResponseEntity<TripDto.ApiError> handlePassNotFound(PassNotFoundException ex) {
+        log.warn("[EXCEPTION] PassNotFoundException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                TripDto.ApiError.builder()
+                        .status(404)
+                        .message(ex.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(PassNotActiveException.class)
+    public ResponseEntity<TripDto.ApiError> handlePassNotActive(PassNotActiveException ex) {
+        log.warn("[EXCEPTION] PassNotActiveException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                TripDto.ApiError.builder()
+                        .status(403)
+                        .message(ex.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(TripQueueFullException.class)
+    public ResponseEntity<TripDto.ApiError> handleQueueFull(TripQueueFullException ex) {
+        log.warn("[EXCEPTION] TripQueueFullException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(TripDto.ApiError.builder()
+                        .status(429)
+                        .message(ex.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<TripDto.ApiError> handleValidation(MethodArgumentNotValidException ex) {
         Map<String, String> fieldErrors = new HashMap<>();
@@ -47,6 +84,18 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<TripDto.ApiError> handleBadArgument(IllegalArgumentException ex) {
+        log.warn("[EXCEPTION] Bad request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(
+                TripDto.ApiError.builder()
+                        .status(400)
+                        .message(ex.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<TripDto.ApiError> handleGeneral(Exception ex) {
         log.error("[EXCEPTION] Unhandled: {}", ex.getMessage(), ex);
@@ -0,0 +1,7 @@
+package com.smartmobility.trip.exception;
+
+public class PassNotActiveException extends RuntimeException {
+    public PassNotActiveException(String message) {
+        super(message);
+    }
+}
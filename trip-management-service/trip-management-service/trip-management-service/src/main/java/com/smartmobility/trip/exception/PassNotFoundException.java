@@ -0,0 +1,7 @@
+package com.smartmobility.trip.exception;
+
+public class PassNotFoundException extends RuntimeException {
+    public PassNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.smartmobility.trip.exception;
+
+public class TripQueueFullException extends RuntimeException {
+    public TripQueueFullException(String message) {
+        super(message);
+    }
+}
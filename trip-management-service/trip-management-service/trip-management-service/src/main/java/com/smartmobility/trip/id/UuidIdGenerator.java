@@ -0,0 +1,33 @@
+package com.smartmobility.trip.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Générateur Hibernate associé à {@link GeneratedUuid}. Un identifiant déjà renseigné est conservé :
+ * les trajets acceptés en asynchrone reçoivent le leur avant l'insertion, pour le renvoyer au client.
+ */
+public class UuidIdGenerator implements BeforeExecutionGenerator {
+
+    private final UuidStyle style;
+
+    public UuidIdGenerator(GeneratedUuid config) {
+        this.style = config.style();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        Object assigned = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : style.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartmobility.trip.repository;
+
+import com.smartmobility.trip.entity.Trip;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Insertion d'un lot de trajets complets dans une seule transaction, par une session sans état :
+ * ni contexte de persistance ni contrôle d'entité détachée, les identifiants déjà attribués sont conservés.
+ */
+@Component
+@Slf4j
+public class TripBatchWriter {
+
+    private final SessionFactory sessionFactory;
+
+    public TripBatchWriter(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void insertAll(List<Trip> trips) {
+        inTransaction(session -> trips.forEach(session::insert));
+        log.debug("[TRIP] {} trips inserted in one transaction", trips.size());
+    }
+
+    /** Réécrit les trajets du lot (statut après facturation) dans une seule transaction. */
+    public void updateAll(List<Trip> trips) {
+        inTransaction(session -> trips.forEach(session::update));
+        log.debug("[TRIP] {} trips updated in one transaction", trips.size());
+    }
+
+    private void inTransaction(Consumer<StatelessSession> work) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                work.accept(session);
+                tx.commit();
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+}
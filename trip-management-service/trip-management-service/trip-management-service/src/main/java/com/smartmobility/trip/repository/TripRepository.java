@@ -1,9 +1,13 @@
 package com.smartmobility.trip.repository;
 
 import com.smartmobility.trip.entity.Trip;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +17,16 @@ public interface TripRepository extends JpaRepository<Trip, UUID> {
     List<Trip> findByUserIdOrderByCreatedAtDesc(UUID userId);
 
     long countByUserId(UUID userId);
+
+    List<Trip> findByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Pageable pageable);
+
+    @Query("SELECT t FROM Trip t WHERE t.userId = :userId " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findHistoryPage(@Param("userId") UUID userId,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") UUID id,
+                               Pageable pageable);
+
+    List<Trip> findByCreatedAtBeforeOrderByCreatedAtAsc(LocalDateTime cutoff, Pageable pageable);
 }
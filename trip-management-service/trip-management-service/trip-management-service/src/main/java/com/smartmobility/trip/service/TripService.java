@@ -1,21 +1,32 @@
 package com.smartmobility.trip.service;
 
+import com.smartmobility.trip.archive.HistoryCursor;
+import com.smartmobility.trip.archive.TripArchiveStore;
+import com.smartmobility.trip.client.NotificationPublisher;
+import com.smartmobility.trip.client.PassStatusReplica;
 import com.smartmobility.trip.dto.TripDto;
 import com.smartmobility.trip.entity.Trip;
 import com.smartmobility.trip.entity.TripStatus;
+import com.smartmobility.trip.exception.PassNotActiveException;
+import com.smartmobility.trip.exception.PassNotFoundException;
 import com.smartmobility.trip.exception.TripNotFoundException;
 import com.smartmobility.trip.mapper.TripMapper;
+import com.smartmobility.trip.repository.TripBatchWriter;
 import com.smartmobility.trip.repository.TripRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -24,19 +35,29 @@ import java.util.UUID;
 public class TripService {
 
     private static final BigDecimal FALLBACK_RATE_PER_KM = BigDecimal.valueOf(125);
+    private static final int MAX_HISTORY_PAGE = 100;
 
     private final TripRepository  tripRepository;
     private final TripMapper      tripMapper;
     private final WebClient.Builder webClientBuilder;
+    private final NotificationPublisher notificationPublisher;
+    private final TripArchiveStore archiveStore;
+    private final PassStatusReplica passStatusReplica;
+    private final TripBatchWriter tripBatchWriter;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${pricing.service.url:http://pricing-discount-service}")
     private String pricingServiceUrl;
 
-    @Transactional
+    /**
+     * Vérification du pass et tarification (appels distants) ont lieu avant la transaction :
+     * aucune connexion n'est retenue pendant ces appels, seules l'insertion et la facturation y sont.
+     */
     public TripDto.TripResponse createTrip(TripDto.TripRequest request) {
         log.info("[TRIP] Creating trip - userId={}, transport={}, distance={}km",
                 request.getUserId(), request.getTransportType(), request.getDistanceKm());
 
+        checkPass(request.getUserId());
         Trip trip = tripMapper.toEntity(request);
 
         // Call pricing service with circuit breaker
@@ -46,18 +67,70 @@ public class TripService {
         trip.setFinalFare(pricing.getFinalFare());
         trip.setStatus(TripStatus.CREATED);
 
-        Trip saved = tripRepository.save(trip);
-        log.info("[TRIP] Trip saved - id={}, baseFare={}, finalFare={}", saved.getId(), saved.getBaseFare(), saved.getFinalFare());
+        Trip finalTrip = transactionTemplate.execute(status -> {
+            Trip saved = tripRepository.save(trip);
+            log.info("[TRIP] Trip saved - id={}, baseFare={}, finalFare={}", saved.getId(), saved.getBaseFare(), saved.getFinalFare());
 
-        // Simulate billing stub
-        boolean billed = simulateBilling(saved);
-        saved.setStatus(billed ? TripStatus.PAID : TripStatus.FAILED);
-        Trip finalTrip = tripRepository.save(saved);
+            // Simulate billing stub
+            boolean billed = simulateBilling(saved);
+            saved.setStatus(billed ? TripStatus.PAID : TripStatus.FAILED);
+            return tripRepository.save(saved);
+        });
 
         log.info("[TRIP] Trip finalized - id={}, status={}", finalTrip.getId(), finalTrip.getStatus());
+
+        if (finalTrip.getStatus() == TripStatus.PAID) {
+            notificationPublisher.publishTripCompleted(finalTrip);
+        }
         return tripMapper.toResponse(finalTrip);
     }
 
+    /**
+     * Vérifie l'utilisateur et son pass sur la copie locale tenue par {@link PassStatusReplica}.
+     * Un utilisateur absent de la copie (créé depuis le dernier instantané) est recherché directement ;
+     * tant que la copie n'est pas chargée, ou si user-mobility-pass-service ne répond pas, le trajet
+     * est accepté sans vérification.
+     */
+    public void checkPass(UUID userId) {
+        if (!passStatusReplica.isReady()) {
+            log.debug("[TRIP] Pass replica not ready, skipping pass check for userId={}", userId);
+            return;
+        }
+        TripDto.PassStatusChange pass = passStatusReplica.find(userId).orElse(null);
+        if (pass == null) {
+            Optional<TripDto.PassStatusChange> fetched;
+            try {
+                fetched = passStatusReplica.fetch(userId);
+            } catch (RuntimeException e) {
+                log.warn("[TRIP] Pass lookup failed for userId={}, skipping pass check: {}", userId, e.getMessage());
+                return;
+            }
+            pass = fetched.orElseThrow(() -> new PassNotFoundException("Aucun Mobility Pass trouvé pour userId: " + userId));
+        }
+        if (!"ACTIVE".equals(pass.getStatus())) {
+            log.warn("[TRIP] Trip rejected - userId={}, pass={} is {}", userId, pass.getPassNumber(), pass.getStatus());
+            throw new PassNotActiveException("Le Mobility Pass " + pass.getPassNumber() + " n'est pas actif (" + pass.getStatus() + ")");
+        }
+    }
+
+    /**
+     * Règlement d'un lot de trajets déjà tarifés (soumissions asynchrones) : insertion du lot en une
+     * transaction avec les identifiants attribués à l'acceptation, puis facturation, statuts et notifications.
+     * La facturation n'a lieu qu'une fois l'insertion validée : un lot rejeté et rejoué n'est jamais facturé deux fois.
+     */
+    public void settleBatch(List<Trip> trips) {
+        trips.forEach(trip -> trip.setStatus(TripStatus.CREATED));
+        tripBatchWriter.insertAll(trips);
+        for (Trip trip : trips) {
+            trip.setStatus(simulateBilling(trip) ? TripStatus.PAID : TripStatus.FAILED);
+        }
+        tripBatchWriter.updateAll(trips);
+        log.info("[TRIP] Batch settled - {} trips saved", trips.size());
+        trips.stream()
+                .filter(trip -> trip.getStatus() == TripStatus.PAID)
+                .forEach(notificationPublisher::publishTripCompleted);
+    }
+
     @CircuitBreaker(name = "pricingService", fallbackMethod = "pricingFallback")
     public TripDto.PricingResponse fetchPricing(TripDto.TripRequest request) {
         log.info("[TRIP] Calling pricing-discount-service for userId={}", request.getUserId());
@@ -105,6 +178,53 @@ public class TripService {
         return tripMapper.toResponseList(trips);
     }
 
+    /**
+     * Historique keyset (createdAt desc, id desc). La base est lue en premier ; quand elle
+     * ne suffit plus à remplir la page, la suite est prise dans les segments d'archive
+     * et le curseur retourné le signale pour que les pages suivantes évitent la base.
+     */
+    @Transactional(readOnly = true)
+    public TripDto.TripPage getTripHistory(UUID userId, String cursorToken, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE));
+        HistoryCursor cursor = cursorToken != null && !cursorToken.isBlank()
+                ? HistoryCursor.decode(cursorToken) : null;
+
+        List<Trip> page = new ArrayList<>(limit);
+        if (cursor == null || !cursor.archived()) {
+            page.addAll(cursor == null
+                    ? tripRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, limit))
+                    : tripRepository.findHistoryPage(userId, cursor.createdAt(), cursor.id(), PageRequest.of(0, limit)));
+            if (page.size() == limit) {
+                Trip last = page.get(limit - 1);
+                return toPage(page, new HistoryCursor(last.getCreatedAt(), last.getId(), false));
+            }
+        }
+
+        HistoryCursor archiveFrom = page.isEmpty() ? cursor : positionOf(page.get(page.size() - 1));
+        int remaining = limit - page.size();
+        List<Trip> archived = archiveStore.findByUser(userId, archiveFrom, remaining);
+        page.addAll(archived);
+
+        HistoryCursor next = null;
+        if (archived.size() == remaining) {
+            Trip last = page.get(page.size() - 1);
+            next = new HistoryCursor(last.getCreatedAt(), last.getId(), true);
+        }
+        log.info("[TRIP] History page for userId={} - {} trips ({} archived)", userId, page.size(), archived.size());
+        return toPage(page, next);
+    }
+
+    private static HistoryCursor positionOf(Trip trip) {
+        return new HistoryCursor(trip.getCreatedAt(), trip.getId(), false);
+    }
+
+    private TripDto.TripPage toPage(List<Trip> trips, HistoryCursor next) {
+        return TripDto.TripPage.builder()
+                .items(tripMapper.toResponseList(trips))
+                .nextCursor(next != null ? next.encode() : null)
+                .build();
+    }
+
     private boolean simulateBilling(Trip trip) {
         // Billing service stub — remplacer par un vrai appel REST
         log.info("[BILLING-STUB] Debiting {}FCFA for tripId={}, userId={}",
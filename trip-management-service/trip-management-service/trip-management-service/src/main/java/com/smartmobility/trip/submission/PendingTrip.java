@@ -0,0 +1,27 @@
+package com.smartmobility.trip.submission;
+
+import com.smartmobility.trip.entity.TransportType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Trajet accepté en asynchrone, en attente de règlement ; {@code id} devient l'identifiant du trajet.
+ */
+record PendingTrip(UUID id, UUID userId, TransportType transportType, BigDecimal distanceKm,
+                   long submittedAtMillis, int attempts) {
+
+    PendingTrip retried() {
+        return new PendingTrip(id, userId, transportType, distanceKm, submittedAtMillis, attempts + 1);
+    }
+
+    String toLine() {
+        return id + "\t" + userId + "\t" + transportType + "\t" + distanceKm.toPlainString() + "\t" + submittedAtMillis + "\n";
+    }
+
+    static PendingTrip parse(String line) {
+        String[] fields = line.split("\t");
+        return new PendingTrip(UUID.fromString(fields[0]), UUID.fromString(fields[1]),
+                TransportType.valueOf(fields[2]), new BigDecimal(fields[3]), Long.parseLong(fields[4]), 0);
+    }
+}
@@ -0,0 +1,218 @@
+package com.smartmobility.trip.submission;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Journal local des trajets acceptés, découpé en segments {@code submissions-<n>.log} (une ligne par trajet).
+ * <p>
+ * L'ajout rend la main une fois la ligne sur disque. Les {@code force} sont groupés : le premier thread
+ * en attente force le fichier pour toutes les lignes écrites avant lui, les suivants n'ont plus rien à faire.
+ * Chaque segment compte ses trajets non réglés ; un segment fermé (taille atteinte) est supprimé dès
+ * que ce compte tombe à zéro. Au redémarrage, {@link #recover()} relit tous les segments.
+ * <p>
+ * Un trajet abandonné reçoit une ligne {@code ABANDONED} dans le segment de sa soumission : tant que ce
+ * segment existe, le trajet est restitué en échec au lieu d'être rejoué.
+ */
+@Slf4j
+class SubmissionJournal implements Closeable {
+
+    private static final String PREFIX = "submissions-";
+    private static final String SUFFIX = ".log";
+    private static final String ABANDONED = "ABANDONED\t";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Segment> recovered = new ArrayList<>();
+    private Segment active;
+    private long nextSegment;
+
+    SubmissionJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(SubmissionJournal::segmentNumber))
+                    .toList();
+        }
+        for (Path file : files) {
+            recovered.add(new Segment(file));
+            nextSegment = segmentNumber(file) + 1;
+        }
+        active = new Segment(directory.resolve(PREFIX + nextSegment++ + SUFFIX));
+    }
+
+    /**
+     * Trajets présents dans les segments hérités du processus précédent, dernière ligne incomplète
+     * écartée. Le segment de chaque trajet est fourni pour le {@link #done(Segment)} qui suivra son règlement ;
+     * un trajet abandonné est rendu avec son motif d'échec et ne compte plus dans son segment.
+     */
+    List<Recovered> recover() throws IOException {
+        List<Recovered> trips = new ArrayList<>();
+        Map<UUID, String> abandoned = new HashMap<>();
+        for (Segment segment : recovered) {
+            byte[] bytes = Files.readAllBytes(segment.file);
+            int start = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+                    if (line.startsWith(ABANDONED)) {
+                        String[] fields = line.substring(ABANDONED.length()).split("\t", 2);
+                        abandoned.put(UUID.fromString(fields[0]), fields.length > 1 ? fields[1] : "");
+                    } else {
+                        trips.add(new Recovered(PendingTrip.parse(line), segment, null));
+                    }
+                    start = i + 1;
+                }
+            }
+            if (start < bytes.length) {
+                log.warn("[SUBMISSION] Incomplete last line ignored in {}", segment.file.getFileName());
+            }
+        }
+        List<Recovered> result = new ArrayList<>(trips.size());
+        for (Recovered r : trips) {
+            String failure = abandoned.get(r.trip().id());
+            if (failure == null) {
+                r.segment().pending.incrementAndGet();
+            }
+            result.add(new Recovered(r.trip(), r.segment(), failure));
+        }
+        return result;
+    }
+
+    /** Ferme les segments hérités : chacun est supprimé dès que ses trajets rejoués sont réglés. */
+    void sealRecovered() {
+        recovered.forEach(this::seal);
+        recovered.clear();
+    }
+
+    Segment append(PendingTrip trip) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(trip.toLine().getBytes(StandardCharsets.UTF_8));
+        Segment segment;
+        long end;
+        synchronized (this) {
+            if (active.written >= segmentBytes) {
+                Segment full = active;
+                active = new Segment(directory.resolve(PREFIX + nextSegment++ + SUFFIX));
+                seal(full);
+            }
+            segment = active;
+            segment.pending.incrementAndGet();
+            while (line.hasRemaining()) {
+                segment.channel.write(line);
+            }
+            segment.written += line.capacity();
+            end = segment.written;
+        }
+        segment.forceUpTo(end);
+        return segment;
+    }
+
+    /**
+     * Trajet définitivement refusé : la ligne d'abandon est écrite dans le segment de sa soumission,
+     * toujours présent puisque le trajet y compte encore, puis le segment est libéré.
+     */
+    void abandon(Segment segment, UUID id, String failure) throws IOException {
+        String line = ABANDONED + id + "\t" + failure.replaceAll("[\t\r\n]", " ") + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        long end;
+        synchronized (this) {
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer);
+            }
+            segment.written += buffer.capacity();
+            end = segment.written;
+        }
+        segment.forceUpTo(end);
+        done(segment);
+    }
+
+    /** Le trajet est en base (ou définitivement refusé) : sa ligne n'a plus à être rejouée. */
+    void done(Segment segment) {
+        if (segment.pending.decrementAndGet() == 0 && segment.sealed) {
+            segment.delete();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.channel.close();
+    }
+
+    private void seal(Segment segment) {
+        segment.sealed = true;
+        if (segment.pending.get() == 0) {
+            segment.delete();
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** Trajet relu ; {@code failure} est renseigné s'il avait été abandonné. */
+    record Recovered(PendingTrip trip, Segment segment, String failure) {
+    }
+
+    static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean sealed;
+        private volatile long written;
+        private long forced;
+
+        private Segment(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.written = channel.size();
+            this.forced = written;
+        }
+
+        private synchronized void forceUpTo(long end) throws IOException {
+            if (forced >= end) {
+                return;
+            }
+            long target = written;
+            channel.force(false);
+            forced = target;
+        }
+
+        private void delete() {
+            if (!deleted.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("[SUBMISSION] Could not delete settled segment {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+
+        Path file() {
+            return file;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartmobility.trip.submission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "trip.submission")
+@Data
+public class TripSubmissionProperties {
+
+    /** Mode asynchrone (202) de POST /trips ; désactivé, l'en-tête Prefer est ignoré. */
+    private boolean enabled = true;
+
+    /** Répertoire du journal local des trajets acceptés. */
+    private String directory = "data/trip-submissions";
+
+    /** Taille au-delà de laquelle un nouveau segment de journal est ouvert. */
+    private long segmentBytes = 16 * 1024 * 1024;
+
+    /** Trajets acceptés non réglés au-delà desquels les soumissions reçoivent 429. */
+    private int maxPending = 10000;
+
+    /** Threads de règlement (tarification, facturation, insertion). */
+    private int workers = 4;
+
+    /** Trajets réglés et insérés par transaction. */
+    private int batchSize = 100;
+
+    /** Tentatives d'insertion d'un trajet avant abandon. */
+    private int maxAttempts = 5;
+
+    /** Échecs gardés en mémoire pour la consultation du statut. */
+    private int recentFailures = 10000;
+}
@@ -0,0 +1,319 @@
+package com.smartmobility.trip.submission;
+
+import com.smartmobility.trip.dto.TripDto;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.id.UuidV7;
+import com.smartmobility.trip.exception.TripNotFoundException;
+import com.smartmobility.trip.exception.TripQueueFullException;
+import com.smartmobility.trip.mapper.TripMapper;
+import com.smartmobility.trip.repository.TripRepository;
+import com.smartmobility.trip.service.TripService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mode asynchrone de POST /trips : le trajet validé est écrit dans le journal local puis accepté (202),
+ * des workers le règlent ensuite par lots (tarification, insertion en une transaction, puis facturation).
+ * <p>
+ * Le nombre de trajets non réglés borne l'acceptation : au-delà de {@code trip.submission.max-pending}
+ * les soumissions reçoivent 429. Au démarrage, les trajets du journal absents de la base sont rejoués ;
+ * l'identifiant renvoyé au client devient celui du trajet, ce qui rend la reprise idempotente.
+ */
+@Component
+@Slf4j
+public class TripSubmissionQueue {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String PROCESSING = "PROCESSING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final TripSubmissionProperties props;
+    private final TripService tripService;
+    private final TripRepository tripRepository;
+    private final TripMapper tripMapper;
+
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<UUID, String> inFlight = new ConcurrentHashMap<>();
+    private final Map<UUID, String> failures;
+    private SubmissionJournal journal;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public TripSubmissionQueue(TripSubmissionProperties props, TripService tripService, TripRepository tripRepository,
+                               TripMapper tripMapper, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.tripService = tripService;
+        this.tripRepository = tripRepository;
+        this.tripMapper = tripMapper;
+        this.failures = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                return size() > props.getRecentFailures();
+            }
+        });
+        meterRegistry.gauge("trip.submission.pending", pending);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!props.isEnabled()) {
+            return;
+        }
+        journal = new SubmissionJournal(Path.of(props.getDirectory()), props.getSegmentBytes());
+        recover();
+        running = true;
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(props.getWorkers(), r -> {
+            Thread thread = new Thread(r, "trip-submission-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < props.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+        log.info("[SUBMISSION] Async trip submission ready - {} workers, batch={}, maxPending={}",
+                props.getWorkers(), props.getBatchSize(), props.getMaxPending());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+            try {
+                workers.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    /**
+     * Accepte un trajet déjà validé : rend la main une fois la soumission sur disque, 429 si la file est pleine.
+     */
+    public TripDto.TripSubmission submit(TripDto.TripRequest request) {
+        if (pending.incrementAndGet() > props.getMaxPending()) {
+            pending.decrementAndGet();
+            throw new TripQueueFullException("File des trajets pleine (" + props.getMaxPending() + " en attente), réessayer plus tard");
+        }
+        PendingTrip trip = new PendingTrip(UuidV7.next(), request.getUserId(), request.getTransportType(),
+                request.getDistanceKm(), System.currentTimeMillis(), 0);
+        SubmissionJournal.Segment segment;
+        try {
+            segment = journal.append(trip);
+        } catch (IOException e) {
+            pending.decrementAndGet();
+            throw new UncheckedIOException("Journal des trajets indisponible", e);
+        }
+        inFlight.put(trip.id(), QUEUED);
+        queue.add(new Entry(trip, segment));
+        log.debug("[SUBMISSION] Trip accepted - id={}, userId={}, pending={}", trip.id(), trip.userId(), pending.get());
+        return TripDto.TripSubmission.builder().id(trip.id()).status(QUEUED).build();
+    }
+
+    /** État d'une soumission : en file, en cours, refusée, ou réglée (trajet en base). */
+    public TripDto.TripSubmission status(UUID id) {
+        String state = inFlight.get(id);
+        if (state != null) {
+            return TripDto.TripSubmission.builder().id(id).status(state).build();
+        }
+        String failure = failures.get(id);
+        if (failure != null) {
+            return TripDto.TripSubmission.builder().id(id).status(FAILED).message(failure).build();
+        }
+        return tripRepository.findById(id)
+                .map(trip -> TripDto.TripSubmission.builder().id(id).status(COMPLETED).trip(tripMapper.toResponse(trip)).build())
+                .orElseThrow(() -> new TripNotFoundException("Aucune soumission de trajet trouvée pour id: " + id));
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    private void recover() throws IOException {
+        List<SubmissionJournal.Recovered> recovered = journal.recover();
+        Set<UUID> settled = new HashSet<>();
+        for (int from = 0; from < recovered.size(); from += props.getBatchSize()) {
+            List<UUID> ids = recovered.subList(from, Math.min(recovered.size(), from + props.getBatchSize())).stream()
+                    .map(r -> r.trip().id()).toList();
+            tripRepository.findAllById(ids).forEach(trip -> settled.add(trip.getId()));
+        }
+        int replayed = 0;
+        int abandoned = 0;
+        for (SubmissionJournal.Recovered r : recovered) {
+            if (r.failure() != null) {
+                failures.put(r.trip().id(), r.failure());
+                abandoned++;
+            } else if (settled.contains(r.trip().id())) {
+                journal.done(r.segment());
+            } else {
+                pending.incrementAndGet();
+                inFlight.put(r.trip().id(), QUEUED);
+                queue.add(new Entry(r.trip(), r.segment()));
+                replayed++;
+            }
+        }
+        journal.sealRecovered();
+        if (!recovered.isEmpty()) {
+            log.info("[SUBMISSION] Journal recovered - {} trips found, {} already settled, {} abandoned, {} replayed",
+                    recovered.size(), recovered.size() - abandoned - replayed, abandoned, replayed);
+        }
+    }
+
+    private void work() {
+        List<Entry> batch = new ArrayList<>(props.getBatchSize());
+        while (running) {
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, props.getBatchSize() - 1);
+                settle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("[SUBMISSION] Unexpected error while settling {} trips: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Tarifie chaque trajet (disjoncteur pricingService, tarif de repli compris), puis insère et facture
+     * le lot. Si le lot échoue, ses trajets déjà en base sont considérés réglés et les autres sont réglés
+     * un par un : seul le trajet fautif retourne en file, jusqu'à {@code max-attempts}, puis est marqué
+     * en échec ; dans les deux cas son segment est libéré.
+     */
+    private void settle(List<Entry> batch) throws InterruptedException {
+        List<Entry> priced = new ArrayList<>(batch.size());
+        List<Trip> trips = new ArrayList<>(batch.size());
+        boolean requeued = false;
+        for (Entry entry : batch) {
+            inFlight.put(entry.trip().id(), PROCESSING);
+            try {
+                trips.add(price(entry.trip()));
+                priced.add(entry);
+            } catch (RuntimeException e) {
+                requeued |= retry(entry, e);
+            }
+        }
+        if (!priced.isEmpty()) {
+            try {
+                tripService.settleBatch(trips);
+                priced.forEach(entry -> finish(entry, null));
+            } catch (RuntimeException e) {
+                log.warn("[SUBMISSION] Batch of {} trips not settled, settling one by one: {}", priced.size(), e.getMessage());
+                requeued |= settleEach(priced, trips, e);
+            }
+        }
+        if (requeued) {
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+    }
+
+    private boolean settleEach(List<Entry> entries, List<Trip> trips, RuntimeException batchFailure) {
+        Set<UUID> saved = new HashSet<>();
+        tripRepository.findAllById(trips.stream().map(Trip::getId).toList()).forEach(trip -> saved.add(trip.getId()));
+        boolean requeued = false;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (saved.contains(entry.trip().id())) {
+                finish(entry, null);
+                continue;
+            }
+            if (entries.size() == 1) {
+                requeued |= retry(entry, batchFailure);
+                continue;
+            }
+            try {
+                tripService.settleBatch(List.of(trips.get(i)));
+                finish(entry, null);
+            } catch (RuntimeException e) {
+                requeued |= retry(entry, e);
+            }
+        }
+        return requeued;
+    }
+
+    /** Remet le trajet en file, ou le marque en échec une fois {@code max-attempts} atteint ; vrai s'il est remis en file. */
+    private boolean retry(Entry entry, RuntimeException e) {
+        PendingTrip retried = entry.trip().retried();
+        if (retried.attempts() >= props.getMaxAttempts()) {
+            finish(entry, "Trajet non enregistré après " + retried.attempts() + " tentatives: " + e.getMessage());
+            return false;
+        }
+        log.debug("[SUBMISSION] Trip {} not settled (attempt {}), will retry: {}", retried.id(), retried.attempts(), e.getMessage());
+        inFlight.put(retried.id(), QUEUED);
+        queue.add(new Entry(retried, entry.segment()));
+        return true;
+    }
+
+    private Trip price(PendingTrip pendingTrip) {
+        TripDto.TripRequest request = TripDto.TripRequest.builder()
+                .userId(pendingTrip.userId())
+                .transportType(pendingTrip.transportType())
+                .distanceKm(pendingTrip.distanceKm())
+                .build();
+        TripDto.PricingResponse pricing = tripService.fetchPricing(request);
+        Trip trip = tripMapper.toEntity(request);
+        trip.setId(pendingTrip.id());
+        trip.setBaseFare(pricing.getBaseFare());
+        trip.setFinalFare(pricing.getFinalFare());
+        return trip;
+    }
+
+    private void finish(Entry entry, String failure) {
+        if (failure != null) {
+            failures.put(entry.trip().id(), failure);
+            log.error("[SUBMISSION] Trip abandoned - id={}: {}", entry.trip().id(), failure);
+            try {
+                journal.abandon(entry.segment(), entry.trip().id(), failure);
+            } catch (IOException e) {
+                log.warn("[SUBMISSION] Could not journal abandoned trip {}, it will be replayed on restart: {}",
+                        entry.trip().id(), e.getMessage());
+                journal.done(entry.segment());
+            }
+        } else {
+            journal.done(entry.segment());
+        }
+        inFlight.remove(entry.trip().id());
+        pending.decrementAndGet();
+    }
+
+    private record Entry(PendingTrip trip, SubmissionJournal.Segment segment) {
+    }
+}
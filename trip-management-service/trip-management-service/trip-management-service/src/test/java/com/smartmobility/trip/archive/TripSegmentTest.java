@@ -0,0 +1,106 @@
+package com.smartmobility.trip.archive;
+
+import com.smartmobility.trip.entity.TransportType;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.entity.TripStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 10, 8, 0);
+
+    private static Trip trip(UUID userId, int minutes, BigDecimal finalFare) {
+        return Trip.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .transportType(TransportType.BUS)
+                .distanceKm(new BigDecimal("4.25"))
+                .baseFare(new BigDecimal("531.25"))
+                .finalFare(finalFare)
+                .status(TripStatus.PAID)
+                .createdAt(BASE.plusMinutes(minutes))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Segment - relecture par utilisateur, plus récent d'abord, sur plusieurs blocs")
+    void roundTripAcrossBlocks() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            trips.add(trip(i % 2 == 0 ? alice : bob, i, i == 4 ? null : new BigDecimal("500.00")));
+        }
+
+        Path file = dir.resolve("trips.seg");
+        TripSegmentWriter.write(file, trips, 8);
+        TripSegmentReader reader = new TripSegmentReader(file);
+
+        assertThat(reader.rowCount()).isEqualTo(50);
+        assertThat(reader.minCreatedAtMillis()).isEqualTo(TripSegmentFormat.toEpochMillis(BASE));
+
+        List<Trip> aliceTrips = reader.findByUser(alice);
+        assertThat(aliceTrips).hasSize(25);
+        assertThat(aliceTrips.get(0).getCreatedAt()).isEqualTo(BASE.plusMinutes(48));
+        assertThat(aliceTrips.get(24).getCreatedAt()).isEqualTo(BASE);
+        assertThat(aliceTrips).allMatch(t -> t.getUserId().equals(alice));
+
+        Trip nullFare = aliceTrips.stream()
+                .filter(t -> t.getCreatedAt().equals(BASE.plusMinutes(4))).findFirst().orElseThrow();
+        assertThat(nullFare.getFinalFare()).isNull();
+        assertThat(nullFare.getBaseFare()).isEqualByComparingTo("531.25");
+        assertThat(nullFare.getDistanceKm()).isEqualByComparingTo("4.25");
+        assertThat(nullFare.getTransportType()).isEqualTo(TransportType.BUS);
+
+        assertThat(reader.findByUser(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Archive - pagination par curseur à travers plusieurs segments")
+    void storePaginatesAcrossSegments() throws Exception {
+        TripArchiveProperties props = new TripArchiveProperties();
+        props.setDirectory(dir.toString());
+        props.setBlockRows(4);
+        TripArchiveStore store = new TripArchiveStore(props);
+        store.load();
+
+        UUID userId = UUID.randomUUID();
+        List<Trip> january = new ArrayList<>();
+        List<Trip> february = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            january.add(trip(userId, i, new BigDecimal("100.00")));
+            february.add(trip(userId, 60 * 24 * 31 + i, new BigDecimal("100.00")));
+        }
+        store.append(YearMonth.of(2025, 1), january);
+        store.append(YearMonth.of(2025, 2), february);
+
+        List<Trip> first = store.findByUser(userId, null, 8);
+        assertThat(first).hasSize(8);
+        assertThat(first.get(0).getCreatedAt()).isEqualTo(BASE.plusMinutes(60 * 24 * 31 + 5));
+
+        Trip last = first.get(7);
+        List<Trip> second = store.findByUser(userId,
+                new HistoryCursor(last.getCreatedAt(), last.getId(), true), 8);
+        assertThat(second).hasSize(4);
+        assertThat(second.get(3).getCreatedAt()).isEqualTo(BASE);
+
+        TripArchiveStore reopened = new TripArchiveStore(props);
+        reopened.load();
+        assertThat(reopened.findByUser(userId, null, 20)).hasSize(12);
+    }
+}
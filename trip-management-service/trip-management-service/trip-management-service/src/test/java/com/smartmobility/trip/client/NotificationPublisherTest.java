@@ -0,0 +1,55 @@
+package com.smartmobility.trip.client;
+
+import com.smartmobility.trip.entity.Trip;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificationPublisherTest {
+
+    private final List<String> posted = new ArrayList<>();
+    private final AtomicBoolean userMobilityUp = new AtomicBoolean(false);
+
+    private final NotificationPublisher publisher = new NotificationPublisher(
+            WebClient.builder().exchangeFunction(request -> {
+                String path = request.url().getPath();
+                if (path.endsWith("/loyalty/trips") && !userMobilityUp.get()) {
+                    return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+                }
+                posted.add(path);
+                return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            }), true, 100, 10, true);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "notificationServiceUrl", "http://notification-service");
+        ReflectionTestUtils.setField(publisher, "userMobilityServiceUrl", "http://user-mobility-pass-service");
+    }
+
+    private static Trip trip() {
+        return Trip.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).finalFare(BigDecimal.valueOf(500)).build();
+    }
+
+    @Test
+    void loyaltyBatchesRefusedAreSentOnTheNextCycle() {
+        publisher.publishTripCompleted(trip());
+        publisher.flush();
+        assertEquals(List.of("/notifications/events/batch"), posted);
+
+        userMobilityUp.set(true);
+        publisher.flush();
+        assertEquals(List.of("/notifications/events/batch", "/api/mobility-passes/loyalty/trips"), posted);
+    }
+}
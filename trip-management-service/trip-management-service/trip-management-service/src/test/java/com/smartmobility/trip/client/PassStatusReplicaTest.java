@@ -0,0 +1,65 @@
+package com.smartmobility.trip.client;
+
+import com.smartmobility.trip.dto.TripDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PassStatusReplicaTest {
+
+    private final PassStatusReplica replica = new PassStatusReplica(WebClient.builder(), "http://user-mobility", false, 1000, 300000, 30000);
+
+    private static TripDto.PassStatusChange pass(long sequence, UUID userId, String status, boolean removed) {
+        return TripDto.PassStatusChange.builder()
+                .sequence(sequence).userId(userId).passNumber("SMP-" + userId.toString().substring(0, 4))
+                .status(status).subscriptionType("MONTHLY").removed(removed)
+                .build();
+    }
+
+    @Test
+    void appliesFeedChangesOnTopOfTheSnapshot() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        assertFalse(replica.isReady());
+
+        replica.load("feed-1", 10, List.of(pass(10, alice, "ACTIVE", false), pass(10, bob, "ACTIVE", false)));
+        replica.apply(TripDto.PassStatusFeed.builder()
+                .feedId("feed-1").sequence(12)
+                .changes(List.of(pass(11, alice, "SUSPENDED", false), pass(12, bob, "ACTIVE", true)))
+                .build());
+
+        assertTrue(replica.isReady());
+        assertEquals("SUSPENDED", replica.find(alice).orElseThrow().getStatus());
+        assertTrue(replica.find(bob).isEmpty());
+    }
+
+    @Test
+    void fetchesPassesMissingFromTheReplica() {
+        UUID known = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        WebClient.Builder userMobility = WebClient.builder().exchangeFunction(request ->
+                Mono.just(request.url().getPath().endsWith(known.toString())
+                        ? ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"passNumber\":\"SMP-NEW\",\"status\":\"ACTIVE\",\"balance\":0}")
+                                .build()
+                        : ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+        PassStatusReplica fresh = new PassStatusReplica(userMobility, "http://user-mobility", false, 1000, 300000, 30000);
+        fresh.load("feed-1", 0, List.of());
+
+        assertEquals("SMP-NEW", fresh.fetch(known).orElseThrow().getPassNumber());
+        assertEquals("ACTIVE", fresh.find(known).orElseThrow().getStatus());
+        assertTrue(fresh.fetch(missing).isEmpty());
+    }
+}
@@ -5,7 +5,9 @@ import com.smartmobility.trip.dto.TripDto;
 import com.smartmobility.trip.entity.TransportType;
 import com.smartmobility.trip.exception.GlobalExceptionHandler;
 import com.smartmobility.trip.exception.TripNotFoundException;
+import com.smartmobility.trip.exception.TripQueueFullException;
 import com.smartmobility.trip.service.TripService;
+import com.smartmobility.trip.submission.TripSubmissionQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +39,9 @@ class TripControllerTest {
     @Mock
     private TripService tripService;
 
+    @Mock
+    private TripSubmissionQueue submissionQueue;
+
     @InjectMocks
     private TripController tripController;
 
@@ -99,6 +104,47 @@ class TripControllerTest {
                 .andExpect(jsonPath("$.errors").isMap());
     }
 
+    @Test
+    @DisplayName("POST /trips avec Prefer: respond-async → 202 ACCEPTED et Location de la soumission")
+    void submitTrip_accepted() throws Exception {
+        UUID submissionId = UUID.randomUUID();
+        when(submissionQueue.isEnabled()).thenReturn(true);
+        when(submissionQueue.submit(any())).thenReturn(
+                TripDto.TripSubmission.builder().id(submissionId).status("QUEUED").build());
+
+        mockMvc.perform(post("/trips")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/trips/submissions/" + submissionId))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("POST /trips avec Prefer: respond-async → 429 et Retry-After quand la file est pleine")
+    void submitTrip_queueFull() throws Exception {
+        when(submissionQueue.isEnabled()).thenReturn(true);
+        when(submissionQueue.submit(any())).thenThrow(new TripQueueFullException("File des trajets pleine"));
+
+        mockMvc.perform(post("/trips")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    private TripDto.TripRequest sampleRequest() {
+        return TripDto.TripRequest.builder()
+                .userId(userId)
+                .transportType(TransportType.BRT)
+                .distanceKm(BigDecimal.valueOf(12))
+                .build();
+    }
+
     @Test
     @DisplayName("GET /trips/user/{userId} → 200 avec liste de trajets")
     void getUserTrips_success() throws Exception {
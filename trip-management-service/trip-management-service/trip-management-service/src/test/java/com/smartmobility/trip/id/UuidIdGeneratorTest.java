@@ -0,0 +1,45 @@
+package com.smartmobility.trip.id;
+
+import com.smartmobility.trip.entity.Trip;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UuidIdGeneratorTest {
+
+    private final SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+    private final EntityPersister persister = mock(EntityPersister.class);
+
+    private UuidIdGenerator generator() throws NoSuchFieldException {
+        return new UuidIdGenerator(Trip.class.getDeclaredField("id").getAnnotation(GeneratedUuid.class));
+    }
+
+    private Object generateFor(Trip trip) throws NoSuchFieldException {
+        when(session.getEntityPersister(null, trip)).thenReturn(persister);
+        when(persister.getIdentifier(trip, session)).thenReturn(trip.getId());
+        return generator().generate(session, trip, null, EventType.INSERT);
+    }
+
+    @Test
+    void keepsAnAssignedId() throws Exception {
+        UUID assigned = UUID.randomUUID();
+
+        assertEquals(assigned, generateFor(Trip.builder().id(assigned).build()));
+    }
+
+    @Test
+    void generatesATimeOrderedIdWhenMissing() throws Exception {
+        Object generated = generateFor(Trip.builder().build());
+
+        assertNotNull(generated);
+        assertEquals(7, ((UUID) generated).version());
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartmobility.trip.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void layoutFollowsRfc9562() {
+        long now = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.timestampOf(id) >= now);
+    }
+
+    @Test
+    void strictlyIncreasingEvenWhenClockGoesBack() {
+        UUID a = UuidV7.next(2_000_000_000_000L);
+        UUID b = UuidV7.next(1_000_000_000_000L);
+        UUID c = UuidV7.next(2_000_000_000_000L);
+
+        assertTrue(compareUnsigned(a, b) < 0);
+        assertTrue(compareUnsigned(b, c) < 0);
+    }
+
+    @Test
+    void uniqueAndOrderedPerThreadUnderContention() throws Exception {
+        int threads = 4;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<UUID> all = new ConcurrentLinkedQueue<>();
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                UUID prev = null;
+                boolean ordered = true;
+                for (int i = 0; i < perThread; i++) {
+                    UUID id = UuidV7.next();
+                    ordered &= prev == null || compareUnsigned(prev, id) < 0;
+                    all.add(id);
+                    prev = id;
+                }
+                return ordered;
+            }));
+        }
+        start.countDown();
+        for (var result : results) {
+            assertTrue(result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, all.stream().distinct().count());
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
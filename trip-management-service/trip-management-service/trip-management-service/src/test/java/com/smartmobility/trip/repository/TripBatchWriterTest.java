@@ -0,0 +1,59 @@
+package com.smartmobility.trip.repository;
+
+import com.smartmobility.trip.entity.TransportType;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.entity.TripStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TripBatchWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TripBatchWriterTest {
+
+    @Autowired
+    private TripBatchWriter writer;
+
+    @Autowired
+    private TripRepository repository;
+
+    private static Trip trip(UUID id) {
+        return Trip.builder()
+                .id(id)
+                .userId(UUID.randomUUID())
+                .transportType(TransportType.BRT)
+                .distanceKm(BigDecimal.valueOf(12))
+                .baseFare(BigDecimal.valueOf(1200))
+                .finalFare(BigDecimal.valueOf(1200))
+                .status(TripStatus.PAID)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void keepsAssignedIdsAndGeneratesMissingOnes() {
+        repository.deleteAll();
+        UUID assigned = UUID.randomUUID();
+        Trip generated = trip(null);
+
+        writer.insertAll(List.of(trip(assigned), generated));
+
+        assertEquals(TripStatus.PAID, repository.findById(assigned).orElseThrow().getStatus());
+        assertNotNull(generated.getId());
+        assertEquals(2, repository.count());
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartmobility.trip.repository;
+
+import com.smartmobility.trip.archive.HistoryCursor;
+import com.smartmobility.trip.entity.TransportType;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.entity.TripStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TripBatchWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TripHistoryPageTest {
+
+    private static final LocalDateTime SAME_MILLI = LocalDateTime.of(2025, 3, 4, 8, 15, 30, 123_000_000);
+
+    @Autowired
+    private TripBatchWriter writer;
+
+    @Autowired
+    private TripRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Trip trip(UUID userId, LocalDateTime createdAt) {
+        Trip trip = Trip.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .transportType(TransportType.BUS)
+                .distanceKm(BigDecimal.valueOf(4))
+                .baseFare(BigDecimal.valueOf(500))
+                .finalFare(BigDecimal.valueOf(500))
+                .status(TripStatus.PAID)
+                .build();
+        writer.insertAll(List.of(trip));
+        // created_at est fixé par @CreationTimestamp à l'insertion
+        jdbcTemplate.update("UPDATE trips SET created_at = ? WHERE id = ?", createdAt, trip.getId());
+        return trip;
+    }
+
+    @Test
+    void nextPageKeepsTripsOfTheSameMillisecond() {
+        repository.deleteAll();
+        UUID userId = UUID.randomUUID();
+        Trip earlier = trip(userId, SAME_MILLI.plusNanos(250_000));
+        Trip later = trip(userId, SAME_MILLI.plusNanos(750_000));
+
+        List<Trip> first = repository.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, 1));
+        assertEquals(later.getId(), first.get(0).getId());
+
+        HistoryCursor cursor = HistoryCursor.decode(
+                new HistoryCursor(first.get(0).getCreatedAt(), first.get(0).getId(), false).encode());
+        List<Trip> second = repository.findHistoryPage(userId, cursor.createdAt(), cursor.id(), PageRequest.of(0, 1));
+
+        assertEquals(1, second.size());
+        assertEquals(earlier.getId(), second.get(0).getId());
+    }
+}
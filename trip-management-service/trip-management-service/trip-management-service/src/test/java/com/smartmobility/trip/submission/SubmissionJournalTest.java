@@ -0,0 +1,101 @@
+package com.smartmobility.trip.submission;
+
+import com.smartmobility.trip.entity.TransportType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static PendingTrip trip(int i) {
+        return new PendingTrip(UUID.randomUUID(), UUID.randomUUID(), TransportType.BUS,
+                new BigDecimal("3.50"), 1_700_000_000_000L + i, 0);
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Les trajets non réglés sont relus au redémarrage, ligne incomplète écartée")
+    void recover_replaysUnsettledTrips() throws IOException {
+        List<PendingTrip> trips = List.of(trip(1), trip(2), trip(3));
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 1 << 20)) {
+            for (PendingTrip trip : trips) {
+                journal.append(trip);
+            }
+        }
+        Files.writeString(dir.resolve("submissions-0.log"), "truncated\t", StandardOpenOption.APPEND);
+
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 1 << 20)) {
+            List<SubmissionJournal.Recovered> recovered = journal.recover();
+
+            assertThat(recovered).extracting(SubmissionJournal.Recovered::trip).containsExactlyElementsOf(trips);
+            recovered.forEach(r -> journal.done(r.segment()));
+            journal.sealRecovered();
+        }
+        assertThat(Files.exists(dir.resolve("submissions-0.log"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un trajet abandonné est restitué en échec au redémarrage, pas rejoué")
+    void recover_keepsAbandonedTripsFailed() throws IOException {
+        PendingTrip settled = trip(1);
+        PendingTrip abandoned = trip(2);
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 1 << 20)) {
+            journal.append(settled);
+            SubmissionJournal.Segment segment = journal.append(abandoned);
+            journal.abandon(segment, abandoned.id(), "Trajet non enregistré\tmotif");
+        }
+
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 1 << 20)) {
+            List<SubmissionJournal.Recovered> recovered = journal.recover();
+
+            assertThat(recovered).extracting(SubmissionJournal.Recovered::trip).containsExactly(settled, abandoned);
+            assertThat(recovered.get(0).failure()).isNull();
+            assertThat(recovered.get(1).failure()).isEqualTo("Trajet non enregistré motif");
+            journal.done(recovered.get(0).segment());
+            journal.sealRecovered();
+        }
+        assertThat(Files.exists(dir.resolve("submissions-0.log"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un segment plein est supprimé une fois tous ses trajets réglés")
+    void done_deletesSealedSegment() throws IOException {
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 200)) {
+            List<SubmissionJournal.Segment> segments = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                segments.add(journal.append(trip(i)));
+            }
+            assertThat(segments.get(0)).isNotSameAs(segments.get(3));
+            assertThat(segments()).isEqualTo(2);
+
+            SubmissionJournal.Segment first = segments.get(0);
+            for (SubmissionJournal.Segment segment : segments) {
+                if (segment == first) {
+                    journal.done(segment);
+                }
+            }
+
+            assertThat(segments()).isEqualTo(1);
+        }
+    }
+}
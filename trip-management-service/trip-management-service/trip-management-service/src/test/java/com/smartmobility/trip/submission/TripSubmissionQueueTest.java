@@ -0,0 +1,116 @@
+package com.smartmobility.trip.submission;
+
+import com.smartmobility.trip.dto.TripDto;
+import com.smartmobility.trip.entity.TransportType;
+import com.smartmobility.trip.entity.Trip;
+import com.smartmobility.trip.mapper.TripMapper;
+import com.smartmobility.trip.mapper.TripMapperImpl;
+import com.smartmobility.trip.repository.TripRepository;
+import com.smartmobility.trip.service.TripService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripSubmissionQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private final TripService tripService = mock(TripService.class);
+    private TripSubmissionQueue queue;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        queue.stop();
+    }
+
+    @Test
+    @DisplayName("Une erreur de tarification remet le lot en file puis le marque en échec, sans fuite")
+    void pricingFailure_isRetriedThenFailed() throws Exception {
+        TripSubmissionProperties props = new TripSubmissionProperties();
+        props.setDirectory(dir.toString());
+        props.setWorkers(1);
+        props.setMaxAttempts(2);
+        when(tripService.fetchPricing(any())).thenThrow(new IllegalStateException("pricing down"));
+        queue = new TripSubmissionQueue(props, tripService, mock(TripRepository.class), mock(TripMapper.class),
+                new SimpleMeterRegistry());
+        queue.start();
+
+        UUID id = queue.submit(TripDto.TripRequest.builder()
+                .userId(UUID.randomUUID())
+                .transportType(TransportType.BUS)
+                .distanceKm(BigDecimal.valueOf(3))
+                .build()).getId();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (queue.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(queue.pending()).isZero();
+        assertThat(queue.status(id).getStatus()).isEqualTo("FAILED");
+        verify(tripService, times(2)).fetchPricing(any());
+        verify(tripService, never()).settleBatch(any());
+    }
+
+    @Test
+    @DisplayName("Un trajet fautif n'entraîne pas son lot : les autres sont réglés un par un")
+    void batchFailure_isolatesFaultyTrip() throws Exception {
+        TripSubmissionProperties props = new TripSubmissionProperties();
+        props.setDirectory(dir.toString());
+        props.setWorkers(1);
+        props.setMaxAttempts(2);
+        List<PendingTrip> submitted = new ArrayList<>();
+        try (SubmissionJournal journal = new SubmissionJournal(dir, 1 << 20)) {
+            for (int i = 0; i < 3; i++) {
+                PendingTrip trip = new PendingTrip(UUID.randomUUID(), UUID.randomUUID(), TransportType.BUS,
+                        BigDecimal.valueOf(3), System.currentTimeMillis(), 0);
+                journal.append(trip);
+                submitted.add(trip);
+            }
+        }
+        UUID faulty = submitted.get(1).id();
+        List<List<UUID>> settled = Collections.synchronizedList(new ArrayList<>());
+        when(tripService.fetchPricing(any())).thenReturn(TripDto.PricingResponse.builder()
+                .baseFare(BigDecimal.valueOf(300)).finalFare(BigDecimal.valueOf(300)).build());
+        doAnswer(invocation -> {
+            List<Trip> trips = invocation.getArgument(0);
+            List<UUID> ids = trips.stream().map(Trip::getId).toList();
+            if (ids.contains(faulty)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            settled.add(ids);
+            return null;
+        }).when(tripService).settleBatch(anyList());
+        queue = new TripSubmissionQueue(props, tripService, mock(TripRepository.class), new TripMapperImpl(),
+                new SimpleMeterRegistry());
+        queue.start();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (queue.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(queue.pending()).isZero();
+        assertThat(queue.status(faulty).getStatus()).isEqualTo("FAILED");
+        assertThat(settled).containsExactlyInAnyOrder(List.of(submitted.get(0).id()), List.of(submitted.get(2).id()));
+    }
+}
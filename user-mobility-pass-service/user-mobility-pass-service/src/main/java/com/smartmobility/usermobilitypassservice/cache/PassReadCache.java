@@ -0,0 +1,88 @@
+package com.smartmobility.usermobilitypassservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmobility.usermobilitypassservice.config.ReplicaRoutingDataSource;
+import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache de lecture des pass, par numéro et par utilisateur, borné en taille (éviction par fréquence).
+ * <p>
+ * Chaque écriture publie un {@link PassChangedEvent} ; les deux entrées concernées sont invalidées
+ * après commit. Les écritures faites sur une autre instance ne passent pas par ce canal local :
+ * la durée de vie des entrées borne l'écart.
+ */
+@Component
+@Slf4j
+public class PassReadCache {
+
+    private final MobilityPassRepository mobilityPassRepository;
+    private final Cache<String, MobilityPassDTO> byPassNumber;
+    private final Cache<UUID, MobilityPassDTO> byUserId;
+
+    public PassReadCache(MobilityPassRepository mobilityPassRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${pass.cache.maximum-size:100000}") long maximumSize,
+                         @Value("${pass.cache.expire-after-write-ms:30000}") long expireAfterWriteMs) {
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.byPassNumber = newCache(maximumSize, expireAfterWriteMs);
+        this.byUserId = newCache(maximumSize, expireAfterWriteMs);
+        CaffeineCacheMetrics.monitor(meterRegistry, byPassNumber, "pass.by-number");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserId, "pass.by-user");
+    }
+
+    private static <K> Cache<K, MobilityPassDTO> newCache(long maximumSize, long expireAfterWriteMs) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Les pass inconnus ne sont pas mis en cache : un pass créé juste après reste visible.
+     * Les chargements lisent le primaire, pour ne pas remettre en cache l'état d'un réplica en retard.
+     */
+    public Optional<MobilityPassDTO> getByPassNumber(String passNumber) {
+        return Optional.ofNullable(byPassNumber.get(passNumber, key -> ReplicaRoutingDataSource.readFromPrimary(
+                () -> mobilityPassRepository.findDtoByPassNumber(key).orElse(null))));
+    }
+
+    public Optional<MobilityPassDTO> getByUserId(UUID userId) {
+        return Optional.ofNullable(byUserId.get(userId, key -> ReplicaRoutingDataSource.readFromPrimary(
+                () -> mobilityPassRepository.findDtoByUserId(key).orElse(null))));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPassChanged(PassChangedEvent event) {
+        invalidate(event.passNumber(), event.userId());
+    }
+
+    public void invalidate(String passNumber, UUID userId) {
+        if (passNumber != null) {
+            byPassNumber.invalidate(passNumber);
+        }
+        if (userId != null) {
+            byUserId.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        byPassNumber.invalidateAll();
+        byUserId.invalidateAll();
+        log.info("[CACHE] Cache des pass vidé");
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartmobility.usermobilitypassservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmobility.usermobilitypassservice.config.ReplicaRoutingDataSource;
+import com.smartmobility.usermobilitypassservice.dto.UserDTO;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache proche des utilisateurs : un même {@link UserDTO} est joignable par id, email et téléphone.
+ * <p>
+ * Le DTO n'est stocké qu'une fois, par id ; l'email et le téléphone sont des alias vers l'id, et
+ * une lecture par alias vérifie que le DTO porte toujours cette valeur, si bien qu'un alias périmé
+ * (ancien email après modification) ne renvoie jamais un autre utilisateur. Chaque invalidation
+ * tamponne l'utilisateur (par tranche d'id) avec un numéro de séquence : un chargement commencé avant
+ * le tampon de son utilisateur n'est pas remis en cache, ce qui évite de réinstaller l'état d'avant la
+ * mise à jour sans écarter les chargements des autres utilisateurs. Les DTO incluent le pass : ses
+ * changements invalident aussi l'utilisateur. Les écritures d'autres instances sont bornées par la durée de vie des entrées.
+ */
+@Component
+@Slf4j
+public class UserReadCache {
+
+    private final Cache<UUID, UserDTO> byId;
+    private final Cache<String, UUID> idByEmail;
+    private final Cache<String, UUID> idByPhone;
+    private static final int STAMP_STRIPES = 4096;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private volatile long clearedAt;
+
+    public UserReadCache(MeterRegistry meterRegistry,
+                         @Value("${user.cache.maximum-size:100000}") long maximumSize,
+                         @Value("${user.cache.expire-after-write-ms:30000}") long expireAfterWriteMs) {
+        this.byId = newCache(maximumSize, expireAfterWriteMs);
+        this.idByEmail = newCache(maximumSize, expireAfterWriteMs);
+        this.idByPhone = newCache(maximumSize, expireAfterWriteMs);
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "user.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "user.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByPhone, "user.by-phone");
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, long expireAfterWriteMs) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserDTO> getById(UUID id, Supplier<Optional<UserDTO>> loader) {
+        UserDTO cached = byId.getIfPresent(id);
+        return cached != null ? Optional.of(cached) : load(loader);
+    }
+
+    public Optional<UserDTO> getByEmail(String email, Supplier<Optional<UserDTO>> loader) {
+        String key = email.toLowerCase(Locale.ROOT);
+        return getByAlias(idByEmail, key, dto -> dto.getEmail() != null ? dto.getEmail().toLowerCase(Locale.ROOT) : null, loader);
+    }
+
+    public Optional<UserDTO> getByPhoneNumber(String phoneNumber, Supplier<Optional<UserDTO>> loader) {
+        return getByAlias(idByPhone, phoneNumber, UserDTO::getPhoneNumber, loader);
+    }
+
+    private Optional<UserDTO> getByAlias(Cache<String, UUID> aliases, String key,
+                                         Function<UserDTO, String> aliasOf, Supplier<Optional<UserDTO>> loader) {
+        UUID id = aliases.getIfPresent(key);
+        if (id != null) {
+            UserDTO cached = byId.getIfPresent(id);
+            if (cached != null && key.equals(aliasOf.apply(cached))) {
+                return Optional.of(cached);
+            }
+        }
+        return load(loader);
+    }
+
+    /**
+     * Les utilisateurs inconnus ne sont pas mis en cache : un compte créé juste après reste visible.
+     * Le chargement lit le primaire : un réplica en retard réinstallerait l'état d'avant l'invalidation.
+     */
+    private Optional<UserDTO> load(Supplier<Optional<UserDTO>> loader) {
+        long start = sequence.get();
+        Optional<UserDTO> loaded = ReplicaRoutingDataSource.readFromPrimary(loader);
+        loaded.ifPresent(dto -> {
+            if (clearedAt <= start && stamps.get(stripe(dto.getId())) <= start) {
+                byId.put(dto.getId(), dto);
+                if (dto.getEmail() != null) {
+                    idByEmail.put(dto.getEmail().toLowerCase(Locale.ROOT), dto.getId());
+                }
+                if (dto.getPhoneNumber() != null) {
+                    idByPhone.put(dto.getPhoneNumber(), dto.getId());
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Retire l'utilisateur et tous ses alias, anciens (ceux du DTO en cache) comme nouveaux.
+     */
+    public void invalidate(UUID id, String email, String phoneNumber) {
+        if (id != null) {
+            stamps.set(stripe(id), sequence.incrementAndGet());
+        }
+        UserDTO cached = id != null ? byId.getIfPresent(id) : null;
+        if (cached != null) {
+            invalidateAliases(cached.getEmail(), cached.getPhoneNumber());
+        }
+        invalidateAliases(email, phoneNumber);
+        if (id != null) {
+            byId.invalidate(id);
+        }
+    }
+
+    private static int stripe(UUID id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % STAMP_STRIPES;
+    }
+
+    private void invalidateAliases(String email, String phoneNumber) {
+        if (email != null) {
+            idByEmail.invalidate(email.toLowerCase(Locale.ROOT));
+        }
+        if (phoneNumber != null) {
+            idByPhone.invalidate(phoneNumber);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId(), event.email(), event.phoneNumber());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPassChanged(PassChangedEvent event) {
+        if (event.userId() != null) {
+            invalidate(event.userId(), null, null);
+        }
+    }
+
+    public void invalidateAll() {
+        clearedAt = sequence.incrementAndGet();
+        byId.invalidateAll();
+        idByEmail.invalidateAll();
+        idByPhone.invalidateAll();
+        log.info("[CACHE] Cache des utilisateurs vidé");
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartmobility.usermobilitypassservice.client;
+
+import com.smartmobility.usermobilitypassservice.event.SubscriptionExpiredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Envoie les expirations d'abonnement à notification-service par lots.
+ * Le traitement d'expiration ne fait qu'un {@code offer} non bloquant ; si la file est pleine
+ * ou le service indisponible, l'événement est perdu (notification best-effort).
+ */
+@Component
+@Slf4j
+public class NotificationPublisher {
+
+    private final RestClient restClient;
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public NotificationPublisher(@Value("${notification.service.url:http://localhost:8083}") String notificationServiceUrl,
+                                 @Value("${notification.publisher.enabled:true}") boolean enabled,
+                                 @Value("${notification.publisher.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${notification.publisher.batch-size:500}") int batchSize) {
+        this.restClient = RestClient.builder().baseUrl(notificationServiceUrl).build();
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSubscriptionExpired(SubscriptionExpiredEvent event) {
+        if (!enabled || event.userId() == null) {
+            return;
+        }
+        Map<String, Object> notification = Map.of(
+                "userId", event.userId(),
+                "type", "SUBSCRIPTION_EXPIRED",
+                "passNumber", event.passNumber(),
+                "occurredAt", event.expiredAt().atZone(ZoneId.systemDefault()).toInstant());
+        if (!queue.offer(notification)) {
+            log.warn("[NOTIFY] File pleine, expiration non notifiée - pass={}", event.passNumber());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.publisher.flush-interval-ms:1000}")
+    public void flush() {
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                restClient.post()
+                        .uri("/notifications/events/batch")
+                        .body(Map.of("events", batch))
+                        .retrieve()
+                        .toBodilessEntity();
+                log.debug("[NOTIFY] {} expirations envoyées", batch.size());
+            } catch (Exception e) {
+                log.warn("[NOTIFY] notification-service indisponible, {} expirations perdues: {}",
+                        batch.size(), e.getMessage());
+                queue.clear();
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartmobility.usermobilitypassservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ouvre la portée du {@link ReadYourWritesGuard} pour chaque requête, à partir du jeton éventuel du client.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesGuard guard;
+
+    public ReadYourWritesFilter(ReadYourWritesGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        guard.enter(parseToken(request.getHeader(ReadYourWritesGuard.TOKEN_HEADER)), response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            guard.exit();
+        }
+    }
+
+    private static Long parseToken(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartmobility.usermobilitypassservice.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Clock;
+
+/**
+ * Garde de fraîcheur pour la lecture de ses propres écritures.
+ * <p>
+ * Pendant une requête HTTP, une écriture validée renvoie au client un jeton
+ * {@value #TOKEN_HEADER} (horodatage de l'écriture) et force les lectures suivantes de la
+ * même requête vers le primaire. Un client qui renvoie ce jeton est servi par le primaire tant
+ * que l'écriture date de moins de {@code datasource.replica.max-lag-ms}, le retard toléré du réplica.
+ */
+public class ReadYourWritesGuard {
+
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+
+    private final long maxLagMs;
+    private final Clock clock;
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    public ReadYourWritesGuard(long maxLagMs, Clock clock) {
+        this.maxLagMs = maxLagMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Ouvre la portée d'une requête ; {@code lastWriteMillis} est le jeton reçu du client, s'il y en a un.
+     */
+    public void enter(Long lastWriteMillis, HttpServletResponse response) {
+        current.set(new Scope(lastWriteMillis != null ? lastWriteMillis + maxLagMs : 0, response));
+    }
+
+    public void exit() {
+        current.remove();
+    }
+
+    public boolean mustReadPrimary() {
+        Scope scope = current.get();
+        return scope != null && clock.millis() < scope.primaryUntil;
+    }
+
+    void recordWrite() {
+        Scope scope = current.get();
+        if (scope == null) {
+            return;
+        }
+        long now = clock.millis();
+        scope.primaryUntil = now + maxLagMs;
+        if (scope.response != null && !scope.response.isCommitted()) {
+            scope.response.setHeader(TOKEN_HEADER, Long.toString(now));
+        }
+    }
+
+    private static final class Scope {
+        private long primaryUntil;
+        private final HttpServletResponse response;
+
+        private Scope(long primaryUntil, HttpServletResponse response) {
+            this.primaryUntil = primaryUntil;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartmobility.usermobilitypassservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Lecture sur réplica, active dès que {@code spring.datasource.replica.jdbc-url} est renseigné.
+ * <p>
+ * Le primaire reste configuré par {@code spring.datasource.*} ; le pool du réplica par
+ * {@code spring.datasource.replica.*} (propriétés Hikari). Seules les méthodes de service
+ * {@code @Transactional(readOnly = true)} sont servies par le réplica : listes paginées, exports,
+ * recherche d'utilisateurs et lectures du ledger. Les méthodes de repository appelées hors transaction
+ * et les chargements des caches ({@link ReplicaRoutingDataSource#readFromPrimary}) lisent le primaire.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(@Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        return new ReadYourWritesGuard(maxLagMs, Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesGuard guard,
+                                 MeterRegistry meterRegistry) {
+        return ReplicaRoutingDataSource.lazy(primary, replica, guard, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesGuard guard) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(guard));
+    }
+}
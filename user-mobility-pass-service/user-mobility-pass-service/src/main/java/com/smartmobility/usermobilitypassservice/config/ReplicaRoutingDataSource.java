@@ -0,0 +1,96 @@
+package com.smartmobility.usermobilitypassservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Aiguille les transactions en lecture seule vers le réplica, tout le reste vers le primaire.
+ * <p>
+ * Le choix se fait à l'obtention de la connexion physique ; {@link #lazy} enveloppe la source dans
+ * un {@link LazyConnectionDataSourceProxy} pour que cette obtention ait lieu au premier ordre SQL,
+ * une fois l'attribut {@code readOnly} de la transaction connu.
+ * <p>
+ * {@link #readFromPrimary} force le primaire pour les lectures qui alimentent un cache : une entrée
+ * chargée depuis un réplica en retard survivrait à l'invalidation pendant toute sa durée de vie,
+ * bien au-delà de {@code max-lag-ms}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final ReadYourWritesGuard guard;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    private ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard guard,
+                                     MeterRegistry meterRegistry) {
+        this.guard = guard;
+        this.primaryRoutes = Counter.builder("datasource.routing").tag("target", "primary").register(meterRegistry);
+        this.replicaRoutes = Counter.builder("datasource.routing").tag("target", "replica").register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static DataSource lazy(DataSource primary, DataSource replica, ReadYourWritesGuard guard,
+                                  MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, guard, meterRegistry));
+    }
+
+    /**
+     * Exécute {@code work} en lisant le primaire, même dans des transactions en lecture seule.
+     * Sans réplica configuré, simple appel.
+     */
+    public static <T> T readFromPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null || guard.mustReadPrimary()) {
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Signale au garde de fraîcheur la validation d'une transaction en écriture.
+     */
+    private void trackWrite() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guard.recordWrite();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartmobility.usermobilitypassservice.controller;
+
+import com.smartmobility.usermobilitypassservice.dto.LedgerRebuildReport;
+import com.smartmobility.usermobilitypassservice.service.BalanceLedgerService;
+import com.smartmobility.usermobilitypassservice.service.LedgerRebuildService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerAdminController {
+
+    private final LedgerRebuildService ledgerRebuildService;
+    private final BalanceLedgerService balanceLedgerService;
+
+    /**
+     * Recalculer les soldes depuis le journal (apply=false : rapport des écarts seulement)
+     * POST /api/admin/ledger/rebuild?parallelism=4&apply=false
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<LedgerRebuildReport> rebuild(
+            @RequestParam(defaultValue = "4") int parallelism,
+            @RequestParam(defaultValue = "false") boolean apply) {
+        log.info("REST - Reconstruction des soldes depuis le journal (apply={})", apply);
+        return ResponseEntity.ok(ledgerRebuildService.rebuild(parallelism, apply));
+    }
+
+    /**
+     * Avancer les snapshots de solde immédiatement
+     * POST /api/admin/ledger/snapshots
+     */
+    @PostMapping("/snapshots")
+    public ResponseEntity<Map<String, Integer>> takeSnapshots() {
+        log.info("REST - Avancement des snapshots de solde");
+        return ResponseEntity.ok(Map.of("snapshots", balanceLedgerService.takeSnapshots()));
+    }
+}
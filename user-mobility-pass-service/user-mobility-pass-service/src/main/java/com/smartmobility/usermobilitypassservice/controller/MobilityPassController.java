@@ -1,16 +1,38 @@
 package com.smartmobility.usermobilitypassservice.controller;
 
+import com.smartmobility.usermobilitypassservice.dto.BalanceOperationRequest;
+import com.smartmobility.usermobilitypassservice.dto.BalanceOperationResponse;
 import com.smartmobility.usermobilitypassservice.dto.BalanceResponse;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitRequest;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse;
+import com.smartmobility.usermobilitypassservice.dto.GateValidationResponse;
+import com.smartmobility.usermobilitypassservice.dto.LedgerBalanceResponse;
+import com.smartmobility.usermobilitypassservice.dto.LedgerEntryDTO;
+import com.smartmobility.usermobilitypassservice.dto.LoyaltyAccrualResponse;
 import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
+import com.smartmobility.usermobilitypassservice.dto.PageResponse;
+import com.smartmobility.usermobilitypassservice.dto.PassStatusFeed;
+import com.smartmobility.usermobilitypassservice.dto.PassTokenResponse;
+import com.smartmobility.usermobilitypassservice.dto.TripCompletedBatch;
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntryType;
 import com.smartmobility.usermobilitypassservice.entity.PassStatus;
 import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.index.BalanceAlertStream;
+import com.smartmobility.usermobilitypassservice.index.BlockedPassList;
+import com.smartmobility.usermobilitypassservice.index.PassChangeFeed;
+import com.smartmobility.usermobilitypassservice.loyalty.LoyaltyAccrualService;
+import com.smartmobility.usermobilitypassservice.service.FareSettlementService;
 import com.smartmobility.usermobilitypassservice.service.MobilityPassService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +43,11 @@ import java.util.UUID;
 public class MobilityPassController {
 
     private final MobilityPassService mobilityPassService;
+    private final FareSettlementService fareSettlementService;
+    private final BalanceAlertStream balanceAlertStream;
+    private final LoyaltyAccrualService loyaltyAccrualService;
+    private final PassChangeFeed passChangeFeed;
+    private final BlockedPassList blockedPassList;
 
     /**
      * Créer un Mobility Pass pour un utilisateur
@@ -77,15 +104,188 @@ public class MobilityPassController {
         return ResponseEntity.ok(balance);
     }
 
+    /**
+     * Débiter un pass (UPDATE conditionnel atomique, expectedVersion facultatif)
+     * POST /api/mobility-passes/{passNumber}/debit
+     */
+    @PostMapping("/{passNumber}/debit")
+    public ResponseEntity<BalanceOperationResponse> debit(
+            @PathVariable String passNumber,
+            @RequestBody BalanceOperationRequest request) {
+        log.info("REST - Débit de {} sur le pass {}", request.getAmount(), passNumber);
+        return ResponseEntity.ok(
+                mobilityPassService.debit(passNumber, request.getAmount(), request.getExpectedVersion(),
+                        request.getReference()));
+    }
+
+    /**
+     * Règlement groupé de débits de trajets, résultat par élément
+     * POST /api/mobility-passes/debits/batch
+     */
+    @PostMapping("/debits/batch")
+    public ResponseEntity<BatchDebitResponse> debitBatch(@RequestBody BatchDebitRequest request) {
+        log.info("REST - Lot de {} débits", request.getItems() != null ? request.getItems().size() : 0);
+        return ResponseEntity.ok(fareSettlementService.debitBatch(request));
+    }
+
+    /**
+     * Points de fidélité des trajets terminés (cumulés puis reportés en base par lots)
+     * POST /api/mobility-passes/loyalty/trips
+     */
+    @PostMapping("/loyalty/trips")
+    public ResponseEntity<LoyaltyAccrualResponse> accrueLoyaltyPoints(@RequestBody TripCompletedBatch batch) {
+        log.info("REST - Lot de {} trajets terminés pour la fidélité", batch.getEvents() != null ? batch.getEvents().size() : 0);
+        return ResponseEntity.accepted().body(loyaltyAccrualService.accrue(batch));
+    }
+
+    /**
+     * Recharger un pass
+     * POST /api/mobility-passes/{passNumber}/credit
+     */
+    @PostMapping("/{passNumber}/credit")
+    public ResponseEntity<BalanceOperationResponse> credit(
+            @PathVariable String passNumber,
+            @RequestBody BalanceOperationRequest request) {
+        log.info("REST - Recharge de {} sur le pass {}", request.getAmount(), passNumber);
+        return ResponseEntity.ok(mobilityPassService.credit(
+                passNumber, request.getAmount(), LedgerEntryType.TOP_UP, request.getReference()));
+    }
+
+    /**
+     * Rembourser un trajet (référence obligatoire)
+     * POST /api/mobility-passes/{passNumber}/refund
+     */
+    @PostMapping("/{passNumber}/refund")
+    public ResponseEntity<BalanceOperationResponse> refund(
+            @PathVariable String passNumber,
+            @RequestBody BalanceOperationRequest request) {
+        log.info("REST - Remboursement de {} sur le pass {} (réf. {})", request.getAmount(), passNumber, request.getReference());
+        return ResponseEntity.ok(mobilityPassService.credit(
+                passNumber, request.getAmount(), LedgerEntryType.REFUND, request.getReference()));
+    }
+
+    /**
+     * Ajustement manuel signé du solde
+     * POST /api/mobility-passes/{passNumber}/adjustment
+     */
+    @PostMapping("/{passNumber}/adjustment")
+    public ResponseEntity<BalanceOperationResponse> adjust(
+            @PathVariable String passNumber,
+            @RequestBody BalanceOperationRequest request) {
+        log.info("REST - Ajustement de {} sur le pass {}", request.getAmount(), passNumber);
+        return ResponseEntity.ok(mobilityPassService.adjust(passNumber, request.getAmount(), request.getReference()));
+    }
+
+    /**
+     * Historique des mouvements de solde (plus récents d'abord)
+     * GET /api/mobility-passes/{passNumber}/ledger?limit=50
+     */
+    @GetMapping("/{passNumber}/ledger")
+    public ResponseEntity<List<LedgerEntryDTO>> getLedger(
+            @PathVariable String passNumber,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("REST - Journal des mouvements du pass {}", passNumber);
+        return ResponseEntity.ok(mobilityPassService.getLedger(passNumber, limit));
+    }
+
+    /**
+     * Solde dérivé du journal (snapshot + mouvements) comparé au solde courant
+     * GET /api/mobility-passes/{passNumber}/ledger/balance
+     */
+    @GetMapping("/{passNumber}/ledger/balance")
+    public ResponseEntity<LedgerBalanceResponse> getLedgerBalance(@PathVariable String passNumber) {
+        log.info("REST - Solde dérivé du journal pour le pass {}", passNumber);
+        return ResponseEntity.ok(mobilityPassService.getLedgerBalance(passNumber));
+    }
+
+    /**
+     * Contrôle d'accès portique (index mémoire, sans accès base)
+     * GET /api/mobility-passes/gate/{passNumber}?fare=
+     */
+    @GetMapping("/gate/{passNumber}")
+    public ResponseEntity<GateValidationResponse> validateAtGate(
+            @PathVariable String passNumber,
+            @RequestParam(required = false) BigDecimal fare) {
+        GateValidationResponse response = mobilityPassService.validateAtGate(passNumber, fare);
+        log.debug("REST - Contrôle portique {}: {}", passNumber, response.getReason());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Jeton signé du pass pour QR code, vérifiable hors ligne (expiration courte, à renouveler)
+     * GET /api/mobility-passes/{passNumber}/token
+     */
+    @GetMapping("/{passNumber}/token")
+    public ResponseEntity<PassTokenResponse> issueToken(@PathVariable String passNumber) {
+        log.debug("REST - Émission d'un jeton pour le pass {}", passNumber);
+        return ResponseEntity.ok(mobilityPassService.issueToken(passNumber));
+    }
+
     /**
      * Récupérer tous les Mobility Pass
-     * GET /api/mobility-passes
+     * GET /api/mobility-passes?after=&size=50 (curseur) ou ?page=0&size=50
      */
     @GetMapping
-    public ResponseEntity<List<MobilityPassDTO>> getAllPasses() {
-        log.info("REST - Récupération de tous les Mobility Pass");
-        List<MobilityPassDTO> passes = mobilityPassService.getAllPasses();
-        return ResponseEntity.ok(passes);
+    public ResponseEntity<PageResponse<MobilityPassDTO>> getAllPasses(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST - Récupération des Mobility Pass (page={}, after={}, size={})", page, after, size);
+        return ResponseEntity.ok(mobilityPassService.listPasses(page, after, size));
+    }
+
+    /**
+     * Exporter tous les Mobility Pass en flux JSON (lecture par curseur, mémoire constante)
+     * GET /api/mobility-passes/stream
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamPasses() {
+        log.info("REST - Export en flux des Mobility Pass");
+        StreamingResponseBody body = out -> mobilityPassService.writeAllPasses(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Instantané des statuts de tous les pass, pour amorcer une copie distante ; les en-têtes
+     * X-Feed-Id et X-Feed-Sequence donnent la position du flux à suivre ensuite
+     * GET /api/mobility-passes/status-snapshot
+     */
+    @GetMapping("/status-snapshot")
+    public ResponseEntity<StreamingResponseBody> streamStatusSnapshot() {
+        long sequence = passChangeFeed.sequence();
+        log.info("REST - Instantané des statuts (flux {} à la séquence {})", passChangeFeed.feedId(), sequence);
+        StreamingResponseBody body = out -> mobilityPassService.writeStatusSnapshot(out, sequence);
+        return ResponseEntity.ok()
+                .header("X-Feed-Id", passChangeFeed.feedId())
+                .header("X-Feed-Sequence", String.valueOf(sequence))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Changements de statut postérieurs à une séquence (reset=true : recharger l'instantané)
+     * GET /api/mobility-passes/status-feed?feedId=&after=&limit=1000
+     */
+    @GetMapping("/status-feed")
+    public ResponseEntity<PassStatusFeed> getStatusFeed(
+            @RequestParam String feedId,
+            @RequestParam long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(passChangeFeed.since(feedId, after, Math.min(Math.max(limit, 1), 10000)));
+    }
+
+    /**
+     * Liste binaire des pass bloqués pour les valideurs : delta depuis (feedId, after), ou instantané
+     * complet sans position ou si la position n'est plus exploitable
+     * GET /api/mobility-passes/blocked?feedId=&after=
+     */
+    @GetMapping(value = "/blocked", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getBlockedPasses(
+            @RequestParam(required = false) UUID feedId,
+            @RequestParam(defaultValue = "0") long after) {
+        byte[] body = blockedPassList.since(feedId, after);
+        log.debug("REST - Liste des pass bloqués depuis {}/{}: {} octets", feedId, after, body.length);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
     }
 
     /**
@@ -110,6 +310,16 @@ public class MobilityPassController {
         return ResponseEntity.ok(passes);
     }
 
+    /**
+     * Suivre en continu les franchissements du seuil de solde faible (Server-Sent Events)
+     * GET /api/mobility-passes/low-balance/events
+     */
+    @GetMapping(value = "/low-balance/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowBalanceEvents() {
+        log.info("REST - Abonnement aux alertes de solde faible");
+        return balanceAlertStream.subscribe();
+    }
+
     /**
      * Récupérer les abonnements expirés
      * GET /api/mobility-passes/expired-subscriptions
@@ -0,0 +1,29 @@
+package com.smartmobility.usermobilitypassservice.controller;
+
+import com.smartmobility.usermobilitypassservice.dto.SubscriptionExpiryReport;
+import com.smartmobility.usermobilitypassservice.service.SubscriptionExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/subscriptions")
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionAdminController {
+
+    private final SubscriptionExpiryService subscriptionExpiryService;
+
+    /**
+     * Lancer immédiatement l'expiration des abonnements échus
+     * POST /api/admin/subscriptions/expire
+     */
+    @PostMapping("/expire")
+    public ResponseEntity<SubscriptionExpiryReport> expire() {
+        log.info("REST - Expiration des abonnements échus");
+        return ResponseEntity.ok(subscriptionExpiryService.expireDueSubscriptions(LocalDate.now()));
+    }
+}
@@ -1,16 +1,25 @@
 package com.smartmobility.usermobilitypassservice.controller;
 
 import com.smartmobility.usermobilitypassservice.dto.CreateUserRequest;
+import com.smartmobility.usermobilitypassservice.dto.LoginRequest;
 import com.smartmobility.usermobilitypassservice.dto.UpdateUserRequest;
 import com.smartmobility.usermobilitypassservice.dto.UserDTO;
+import com.smartmobility.usermobilitypassservice.dto.PageResponse;
 import com.smartmobility.usermobilitypassservice.entity.UserStatus;
+import com.smartmobility.usermobilitypassservice.service.UserImportService;
 import com.smartmobility.usermobilitypassservice.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +30,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     /**
      * Créer un nouvel utilisateur
@@ -33,6 +43,32 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    /**
+     * Authentifier un utilisateur
+     * POST /api/users/login
+     */
+    @PostMapping("/login")
+    public ResponseEntity<UserDTO> login(@RequestBody LoginRequest request) {
+        log.info("REST - Connexion de l'utilisateur: {}", request.getEmail());
+        return ResponseEntity.ok(userService.authenticate(request));
+    }
+
+    /**
+     * Importer des utilisateurs en masse (CSV avec en-tête ou NDJSON de CreateUserRequest)
+     * POST /api/users/import — réponse NDJSON : erreurs par ligne, progression par lot, bilan final
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        log.info("REST - Import en masse d'utilisateurs ({})", contentType);
+        UserImportService.Format format = MediaType.valueOf("text/csv").includes(contentType)
+                ? UserImportService.Format.CSV : UserImportService.Format.NDJSON;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        userImportService.importUsers(body, format, response.getOutputStream());
+    }
+
     /**
      * Récupérer un utilisateur par ID
      * GET /api/users/{id}
@@ -68,13 +104,26 @@ public class UserController {
 
     /**
      * Récupérer tous les utilisateurs
-     * GET /api/users
+     * GET /api/users?after=&size=50 (curseur) ou ?page=0&size=50
      */
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        log.info("REST - Récupération de tous les utilisateurs");
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<PageResponse<UserDTO>> getAllUsers(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST - Récupération des utilisateurs (page={}, after={}, size={})", page, after, size);
+        return ResponseEntity.ok(userService.listUsers(page, after, size));
+    }
+
+    /**
+     * Exporter tous les utilisateurs en flux JSON (lecture par curseur, mémoire constante)
+     * GET /api/users/stream
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("REST - Export en flux des utilisateurs");
+        StreamingResponseBody body = out -> userService.writeAllUsers(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -90,12 +139,13 @@ public class UserController {
 
     /**
      * Rechercher des utilisateurs
-     * GET /api/users/search?term=xxx
+     * GET /api/users/search?term=xxx&limit=20
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String term) {
+    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String term,
+                                                     @RequestParam(defaultValue = "20") int limit) {
         log.info("REST - Recherche d'utilisateurs avec le terme: {}", term);
-        List<UserDTO> users = userService.searchUsers(term);
+        List<UserDTO> users = userService.searchUsers(term, limit);
         return ResponseEntity.ok(users);
     }
 
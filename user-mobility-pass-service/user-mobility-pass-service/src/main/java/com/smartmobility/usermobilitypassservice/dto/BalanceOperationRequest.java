@@ -0,0 +1,21 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceOperationRequest {
+
+    private BigDecimal amount;
+
+    /** Facultatif : le débit n'est appliqué que si la version du pass est encore celle-ci. */
+    private Long expectedVersion;
+
+    /** Référence idempotente du mouvement (tripId pour un débit ou un remboursement). */
+    private String reference;
+}
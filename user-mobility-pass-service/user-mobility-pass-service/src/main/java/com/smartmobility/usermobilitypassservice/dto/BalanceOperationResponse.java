@@ -0,0 +1,19 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceOperationResponse {
+
+    private String passNumber;
+    private String operation;
+    private BigDecimal amount;
+    private BigDecimal balance;
+    private long version;
+}
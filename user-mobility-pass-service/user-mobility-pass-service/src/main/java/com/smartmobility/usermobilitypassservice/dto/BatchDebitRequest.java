@@ -0,0 +1,30 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDebitRequest {
+
+    private List<Item> items;
+
+    /**
+     * Un débit de trajet : le pass est désigné par son numéro ou, à défaut, par l'utilisateur.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String passNumber;
+        private UUID userId;
+        private BigDecimal amount;
+        private UUID tripId;
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDebitResponse {
+
+    private int applied;
+    private int duplicates;
+    private int rejected;
+    private List<ItemResult> results;
+
+    public enum Outcome {
+        APPLIED,
+        DUPLICATE,
+        INSUFFICIENT_BALANCE,
+        PASS_INACTIVE,
+        PASS_NOT_FOUND,
+        INVALID,
+        // Tranche annulée sur erreur : rien n'a été débité, l'élément peut être soumis à nouveau
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private UUID tripId;
+        private String passNumber;
+        private Outcome outcome;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,20 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GateValidationResponse {
+
+    private String passNumber;
+    private boolean allowed;
+    private String reason;
+    private BigDecimal balance;
+    private LocalDate subscriptionEndDate;
+}
@@ -0,0 +1,18 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalanceResponse {
+
+    private String passNumber;
+    private BigDecimal balance;
+    private BigDecimal ledgerBalance;
+    private boolean consistent;
+}
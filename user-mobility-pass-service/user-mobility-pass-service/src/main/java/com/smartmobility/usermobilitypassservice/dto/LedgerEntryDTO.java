@@ -0,0 +1,21 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntryDTO {
+
+    private Long id;
+    private LedgerEntryType type;
+    private BigDecimal amount;
+    private String reference;
+    private LocalDateTime createdAt;
+}
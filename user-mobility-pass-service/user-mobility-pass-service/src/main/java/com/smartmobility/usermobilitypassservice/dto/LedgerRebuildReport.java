@@ -0,0 +1,30 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRebuildReport {
+
+    private int passes;
+    private int openingEntries;
+    private int mismatches;
+    private boolean applied;
+    private long elapsedMs;
+    private List<Mismatch> sample;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private String passNumber;
+        private BigDecimal balance;
+        private BigDecimal ledgerBalance;
+    }
+}
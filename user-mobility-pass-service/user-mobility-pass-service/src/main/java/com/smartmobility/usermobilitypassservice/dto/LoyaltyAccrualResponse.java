@@ -0,0 +1,16 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyAccrualResponse {
+
+    private int accepted;
+    private int duplicates;
+    private int rejected;
+    private long points;
+}
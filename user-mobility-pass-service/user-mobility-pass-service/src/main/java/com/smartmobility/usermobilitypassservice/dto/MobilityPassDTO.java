@@ -27,6 +27,7 @@ public class MobilityPassDTO {
     private Integer loyaltyPoints;
     private LocalDateTime createdAt;
     private LocalDateTime lastUsedAt;
+    private Long version;
 
     public static class UpdateSubscriptionRequest {
     }
@@ -0,0 +1,23 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats. En pagination par curseur, {@code page} et {@code totalElements} sont nuls
+ * et {@code nextCursor} (nul en fin de liste) est à repasser dans {@code after}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private List<T> items;
+    private Integer page;
+    private int size;
+    private Long totalElements;
+    private String nextCursor;
+}
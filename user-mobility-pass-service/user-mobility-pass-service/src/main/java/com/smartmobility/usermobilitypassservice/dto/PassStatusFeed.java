@@ -0,0 +1,23 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import com.smartmobility.usermobilitypassservice.index.PassStatusChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page du flux de changements de statut. {@code reset} demande au client de recharger
+ * l'instantané (flux d'une autre instance ou position sortie de la fenêtre conservée).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassStatusFeed {
+
+    private String feedId;
+    private long sequence;
+    private boolean reset;
+    private List<PassStatusChange> changes;
+}
@@ -0,0 +1,18 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassTokenResponse {
+
+    private String passNumber;
+    private String token;
+    private int keyId;
+    private Instant expiresAt;
+}
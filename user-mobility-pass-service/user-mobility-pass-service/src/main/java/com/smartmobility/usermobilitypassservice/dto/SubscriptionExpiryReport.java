@@ -0,0 +1,19 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionExpiryReport {
+
+    private LocalDate runDate;
+    private int expired;
+    private int chunks;
+    private boolean truncated;
+    private long elapsedMs;
+}
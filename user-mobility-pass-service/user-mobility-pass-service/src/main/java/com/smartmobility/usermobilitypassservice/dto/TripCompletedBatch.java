@@ -0,0 +1,32 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripCompletedBatch {
+
+    private List<Event> events;
+
+    /**
+     * Un trajet terminé : le pass est désigné par son numéro ou, à défaut, par l'utilisateur.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        private UUID tripId;
+        private String passNumber;
+        private UUID userId;
+        private BigDecimal amount;
+        private Instant occurredAt;
+    }
+}
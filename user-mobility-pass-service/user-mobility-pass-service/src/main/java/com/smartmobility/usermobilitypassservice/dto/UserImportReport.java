@@ -0,0 +1,41 @@
+package com.smartmobility.usermobilitypassservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bilan d'un import en masse ; dernière ligne du flux NDJSON renvoyé par l'import,
+ * précédée des lignes {@link Progress} (une par lot) et {@link RowError} (une par ligne rejetée).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportReport {
+
+    private final String type = "summary";
+    private int rows;
+    private int created;
+    private int failed;
+    private long elapsedMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Progress {
+        private final String type = "progress";
+        private int processed;
+        private int created;
+        private int failed;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private final String type = "error";
+        private int row;
+        private String email;
+        private String message;
+    }
+}
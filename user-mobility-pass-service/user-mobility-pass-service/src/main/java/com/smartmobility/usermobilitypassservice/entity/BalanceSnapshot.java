@@ -0,0 +1,47 @@
+package com.smartmobility.usermobilitypassservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Solde d'un pass arrêté à un mouvement du journal : solde courant = snapshot + mouvements
+ * d'identifiant supérieur à {@code lastEntryId}.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "pass_number", length = 50)
+    private String passNumber;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    public BalanceSnapshot() {
+    }
+
+    public String getPassNumber() {
+        return passNumber;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
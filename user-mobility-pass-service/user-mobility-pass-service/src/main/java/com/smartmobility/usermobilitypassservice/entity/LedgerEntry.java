@@ -0,0 +1,62 @@
+package com.smartmobility.usermobilitypassservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mouvement de solde, en ajout seul. Le montant est signé (négatif pour un débit) et la
+ * référence, unique, rend chaque mouvement idempotent (tripId pour un débit de trajet).
+ */
+@Entity
+@Table(name = "balance_ledger", indexes = @Index(name = "idx_ledger_pass_id", columnList = "pass_number, id"))
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pass_number", nullable = false, length = 50, updatable = false)
+    private String passNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private LedgerEntryType type;
+
+    @Column(nullable = false, precision = 12, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false, unique = true, length = 64, updatable = false)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public LedgerEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPassNumber() {
+        return passNumber;
+    }
+
+    public LedgerEntryType getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.smartmobility.usermobilitypassservice.entity;
+
+public enum LedgerEntryType {
+    TOP_UP,
+    FARE_DEBIT,
+    REFUND,
+    ADJUSTMENT
+}
@@ -1,5 +1,6 @@
 package com.smartmobility.usermobilitypassservice.entity;
 
+import com.smartmobility.usermobilitypassservice.id.GeneratedUuid;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,18 +11,20 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "mobility_passes")
+@Table(name = "mobility_passes", indexes = {
+        @Index(name = "idx_mobility_passes_status_sub_end", columnList = "status, subscription_end_date")
+})
 @Data
 public class MobilityPass {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuid
     private UUID id;
 
     @Column(nullable = false, unique = true, length = 50)
     private String passNumber;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -40,7 +43,8 @@ public class MobilityPass {
 
     private LocalDate subscriptionEndDate;
 
-    @Column(nullable = false)
+    // Incrémenté uniquement par LoyaltyAccrualService (UPDATE groupés) ; jamais réécrit depuis l'entité
+    @Column(nullable = false, updatable = false)
     private Integer loyaltyPoints = 0;
 
     @CreationTimestamp
@@ -49,6 +53,10 @@ public class MobilityPass {
 
     private LocalDateTime lastUsedAt;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public MobilityPass() {
     }
 
@@ -154,11 +162,19 @@ public class MobilityPass {
         this.lastUsedAt = lastUsedAt;
     }
 
-    // Méthode utilitaire pour générer un numéro de pass unique
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    // Le numéro est attribué par PassNumberGenerator dans le service
     @PrePersist
-    public void generatePassNumber() {
+    public void checkPassNumber() {
         if (this.passNumber == null || this.passNumber.isEmpty()) {
-            this.passNumber = "SMP-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+            throw new IllegalStateException("Le numéro de pass doit être attribué avant l'enregistrement");
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.smartmobility.usermobilitypassservice.entity;
 
+import com.smartmobility.usermobilitypassservice.id.GeneratedUuid;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,12 +10,18 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = User.UK_PHONE_NUMBER, columnNames = "phone_number")
+})
 @Data
 public class User {
 
+    public static final String UK_EMAIL = "uk_users_email";
+    public static final String UK_PHONE_NUMBER = "uk_users_phone_number";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuid
     private UUID id;
 
     @Column(nullable = false, length = 100)
@@ -23,10 +30,10 @@ public class User {
     @Column(nullable = false, length = 100)
     private String lastName;
 
-    @Column(nullable = false, unique = true, length = 150)
+    @Column(nullable = false, length = 150)
     private String email;
 
-    @Column(nullable = false, unique = true, length = 20)
+    @Column(nullable = false, length = 20)
     private String phoneNumber;
 
     @Column(nullable = false)
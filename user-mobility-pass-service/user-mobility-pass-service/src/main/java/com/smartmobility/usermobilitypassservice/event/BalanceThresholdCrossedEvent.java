@@ -0,0 +1,18 @@
+package com.smartmobility.usermobilitypassservice.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Publié quand le solde d'un pass actif passe sous le seuil de solde faible ({@code below = true})
+ * ou revient au-dessus ({@code below = false}).
+ */
+public record BalanceThresholdCrossedEvent(
+        String passNumber,
+        UUID userId,
+        BigDecimal balance,
+        BigDecimal threshold,
+        boolean below,
+        LocalDateTime occurredAt) {
+}
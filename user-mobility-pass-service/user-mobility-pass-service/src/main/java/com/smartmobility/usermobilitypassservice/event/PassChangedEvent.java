@@ -0,0 +1,50 @@
+package com.smartmobility.usermobilitypassservice.event;
+
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.repository.PassStatusRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Publié par chaque écriture sur un Mobility Pass ; les vues en mémoire (index de validation,
+ * caches, suivis) s'y abonnent après commit.
+ */
+public record PassChangedEvent(
+        UUID passId,
+        String passNumber,
+        UUID userId,
+        PassStatus status,
+        BigDecimal balance,
+        SubscriptionType subscriptionType,
+        LocalDate subscriptionEndDate,
+        boolean removed) {
+
+    public static PassChangedEvent of(MobilityPass pass) {
+        return from(pass, false);
+    }
+
+    public static PassChangedEvent of(PassStatusRow row) {
+        return new PassChangedEvent(row.id(), row.passNumber(), row.userId(), row.status(), row.balance(),
+                row.subscriptionType(), row.subscriptionEndDate(), false);
+    }
+
+    public static PassChangedEvent removed(MobilityPass pass) {
+        return from(pass, true);
+    }
+
+    private static PassChangedEvent from(MobilityPass pass, boolean removed) {
+        return new PassChangedEvent(
+                pass.getId(),
+                pass.getPassNumber(),
+                pass.getUser() != null ? pass.getUser().getId() : null,
+                pass.getStatus(),
+                pass.getBalance(),
+                pass.getSubscriptionType(),
+                pass.getSubscriptionEndDate(),
+                removed);
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartmobility.usermobilitypassservice.event;
+
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Publié pour chaque pass passé à EXPIRED par le traitement des abonnements échus.
+ */
+public record SubscriptionExpiredEvent(
+        String passNumber,
+        UUID userId,
+        SubscriptionType subscriptionType,
+        LocalDate subscriptionEndDate,
+        LocalDateTime expiredAt) {
+}
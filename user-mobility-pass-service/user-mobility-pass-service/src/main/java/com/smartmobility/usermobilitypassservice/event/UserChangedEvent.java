@@ -0,0 +1,27 @@
+package com.smartmobility.usermobilitypassservice.event;
+
+import com.smartmobility.usermobilitypassservice.entity.User;
+
+import java.util.UUID;
+
+/**
+ * Publié par chaque écriture sur un utilisateur ; l'index de recherche et le cache des
+ * utilisateurs s'y abonnent après commit.
+ */
+public record UserChangedEvent(
+        UUID userId,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        boolean removed) {
+
+    public static UserChangedEvent of(User user) {
+        return new UserChangedEvent(user.getId(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getPhoneNumber(), false);
+    }
+
+    public static UserChangedEvent removed(User user) {
+        return new UserChangedEvent(user.getId(), null, null, null, null, true);
+    }
+}
@@ -0,0 +1,7 @@
+package com.smartmobility.usermobilitypassservice.exception;
+
+public class InsufficientBalanceException extends RuntimeException {
+    public InsufficientBalanceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.smartmobility.usermobilitypassservice.exception;
+
+public class InvalidCredentialsException extends RuntimeException {
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+}
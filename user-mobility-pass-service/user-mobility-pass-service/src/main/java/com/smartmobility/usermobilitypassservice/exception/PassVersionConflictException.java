@@ -0,0 +1,7 @@
+package com.smartmobility.usermobilitypassservice.exception;
+
+public class PassVersionConflictException extends RuntimeException {
+    public PassVersionConflictException(String message) {
+        super(message);
+    }
+}
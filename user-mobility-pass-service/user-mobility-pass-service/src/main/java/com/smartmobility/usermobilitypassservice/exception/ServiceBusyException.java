@@ -0,0 +1,7 @@
+package com.smartmobility.usermobilitypassservice.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifiant UUID généré côté application, par défaut ordonné dans le temps (UUIDv7).
+ * Remplace {@code @GeneratedValue(strategy = GenerationType.UUID)} qui produit des v4 aléatoires.
+ */
+@IdGeneratorType(UuidIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuid {
+
+    UuidStyle style() default UuidStyle.TIME_ORDERED;
+}
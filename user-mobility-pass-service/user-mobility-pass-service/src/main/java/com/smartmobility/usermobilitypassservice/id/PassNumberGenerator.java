@@ -0,0 +1,64 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur de numéros de pass de type Snowflake, sans verrou.
+ * <p>
+ * L'état (millisecondes depuis l'époque &lt;&lt; 12 | séquence) est avancé par CAS. Quand la
+ * séquence d'une milliseconde est épuisée ou que l'horloge recule, l'horodatage est avancé
+ * virtuellement : les numéros restent uniques et croissants sur le nœud. L'unicité entre
+ * instances repose sur {@code pass.number.node-id}, distinct par instance.
+ */
+@Component
+@Slf4j
+public class PassNumberGenerator {
+
+    private final long nodeBits;
+    private final AtomicLong state = new AtomicLong();
+
+    public PassNumberGenerator(@Value("${pass.number.node-id:-1}") int nodeId) {
+        int node = nodeId >= 0 ? nodeId : deriveNodeId();
+        if (node > PassNumbers.MAX_NODE) {
+            throw new IllegalStateException("pass.number.node-id doit être compris entre 0 et " + PassNumbers.MAX_NODE);
+        }
+        this.nodeBits = (long) node << PassNumbers.SEQUENCE_BITS;
+        log.info("[PASS-NUMBER] Générateur initialisé - node={}", node);
+    }
+
+    public String next() {
+        return PassNumbers.format(nextId());
+    }
+
+    long nextId() {
+        long candidate = (System.currentTimeMillis() - PassNumbers.EPOCH_MILLIS) << PassNumbers.SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            next = candidate > prev ? candidate : prev + 1;
+        } while (!state.compareAndSet(prev, next));
+
+        long millis = next >>> PassNumbers.SEQUENCE_BITS;
+        long sequence = next & PassNumbers.MAX_SEQUENCE;
+        return (millis << (PassNumbers.NODE_BITS + PassNumbers.SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    private static int deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        int node = Math.floorMod((host + ProcessHandle.current().pid()).hashCode(), PassNumbers.MAX_NODE + 1);
+        log.warn("[PASS-NUMBER] pass.number.node-id non défini, nœud dérivé de l'hôte: {} - "
+                + "configurez un identifiant distinct par instance pour garantir l'unicité", node);
+        return node;
+    }
+}
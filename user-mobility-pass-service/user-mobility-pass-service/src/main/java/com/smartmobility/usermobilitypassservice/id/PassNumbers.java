@@ -0,0 +1,109 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+/**
+ * Format des numéros de pass : {@code SMP-} suivi de 19 chiffres (identifiant Snowflake
+ * 64 bits : 41 bits de millisecondes depuis {@link #EPOCH_MILLIS}, 10 bits de nœud,
+ * 12 bits de séquence) et d'une clé de Luhn. Le contrôle se fait sans accès base.
+ */
+public final class PassNumbers {
+
+    public static final String PREFIX = "SMP-";
+
+    /** 2025-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    private static final int DIGITS = 19;
+    private static final int LENGTH = PREFIX.length() + DIGITS + 1;
+
+    private PassNumbers() {
+    }
+
+    public static String format(long snowflake) {
+        char[] out = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), out, 0);
+        long value = snowflake;
+        for (int i = PREFIX.length() + DIGITS - 1; i >= PREFIX.length(); i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        out[LENGTH - 1] = (char) ('0' + luhnCheckDigit(out, PREFIX.length(), PREFIX.length() + DIGITS));
+        return new String(out);
+    }
+
+    /**
+     * Vrai si le numéro a le format courant et une clé de Luhn correcte.
+     */
+    public static boolean isValid(String passNumber) {
+        if (passNumber == null || passNumber.length() != LENGTH || !passNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        for (int i = PREFIX.length(); i < LENGTH; i++) {
+            char c = passNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        char[] chars = passNumber.toCharArray();
+        return luhnCheckDigit(chars, PREFIX.length(), LENGTH - 1) == chars[LENGTH - 1] - '0';
+    }
+
+    /**
+     * Ancien format {@code SMP-<millis>-<aléatoire>}, toujours accepté pour les pass existants.
+     */
+    public static boolean isLegacy(String passNumber) {
+        return passNumber != null && passNumber.matches("SMP-\\d{13}-\\d{1,3}");
+    }
+
+    public static long snowflakeOf(String passNumber) {
+        if (!isValid(passNumber)) {
+            throw new IllegalArgumentException("Numéro de pass invalide: " + passNumber);
+        }
+        return Long.parseLong(passNumber, PREFIX.length(), LENGTH - 1, 10);
+    }
+
+    /**
+     * Clé numérique du pass pour les listes embarquées : le Snowflake (positif) au format courant,
+     * {@code -(millis * 1000 + suffixe)} pour l'ancien format, les deux espaces ne se recouvrant pas.
+     */
+    public static long numericKey(String passNumber) {
+        if (isValid(passNumber)) {
+            return Long.parseLong(passNumber, PREFIX.length(), LENGTH - 1, 10);
+        }
+        if (isLegacy(passNumber)) {
+            int dash = passNumber.lastIndexOf('-');
+            long millis = Long.parseLong(passNumber, PREFIX.length(), dash, 10);
+            return -(millis * 1000 + Long.parseLong(passNumber, dash + 1, passNumber.length(), 10));
+        }
+        throw new IllegalArgumentException("Numéro de pass invalide: " + passNumber);
+    }
+
+    public static long issuedAtMillis(long snowflake) {
+        return (snowflake >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long snowflake) {
+        return (int) (snowflake >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+
+    private static int luhnCheckDigit(char[] digits, int from, int to) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = to - 1; i >= from; i--) {
+            int d = digits[i] - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
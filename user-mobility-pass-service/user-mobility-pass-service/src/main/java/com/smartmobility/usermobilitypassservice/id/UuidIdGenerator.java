@@ -0,0 +1,31 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Générateur Hibernate associé à {@link GeneratedUuid}.
+ */
+public class UuidIdGenerator implements BeforeExecutionGenerator {
+
+    private final UuidStyle style;
+
+    public UuidIdGenerator(GeneratedUuid config) {
+        this.style = config.style();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        return style.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Stratégies de génération des identifiants UUID.
+ */
+public enum UuidStyle {
+
+    /** UUIDv7 : préfixe horodaté (ms), monotone dans la JVM — insertions en fin d'index. */
+    TIME_ORDERED(UuidV7::next),
+
+    /** UUIDv4 aléatoire, comportement historique. */
+    RANDOM(UUID::randomUUID);
+
+    private final Supplier<UUID> supplier;
+
+    UuidStyle(Supplier<UUID> supplier) {
+        this.supplier = supplier;
+    }
+
+    public UUID next() {
+        return supplier.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur UUIDv7 (RFC 9562) sans verrou.
+ * <p>
+ * Les 48 bits de poids fort portent l'horodatage Unix en millisecondes, les 12 bits
+ * {@code rand_a} un compteur : l'état (horodatage &lt;&lt; 12 | compteur) est avancé par CAS,
+ * ce qui garantit des identifiants strictement croissants dans la JVM, même si l'horloge
+ * recule ou si plus de 4096 identifiants sont demandés dans la même milliseconde
+ * (l'horodatage est alors avancé virtuellement). Les 62 bits de {@code rand_b} restent aléatoires.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 2);
+
+    private static final AtomicLong STATE = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long candidate = (epochMillis << COUNTER_BITS) | random.nextInt(COUNTER_SEED_BOUND);
+        long prev;
+        long next;
+        do {
+            prev = STATE.get();
+            next = candidate > prev ? candidate : prev + 1;
+        } while (!STATE.compareAndSet(prev, next));
+        return build(next, random.nextLong());
+    }
+
+    private static UUID build(long state, long randomBits) {
+        long timestamp = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+        long msb = (timestamp << 16) | 0x7000L | counter;
+        long lsb = (randomBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** Horodatage (ms) encodé dans un UUIDv7. */
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.event.BalanceThresholdCrossedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Diffuse les franchissements du seuil de solde faible aux clients abonnés en Server-Sent Events.
+ * L'envoi se fait sur un thread dédié pour qu'un client lent ne ralentisse pas les débits.
+ */
+@Component
+@Slf4j
+public class BalanceAlertStream {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("balance-alert-sse").daemon().factory());
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    @EventListener
+    public void onCrossing(BalanceThresholdCrossedEvent event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name(event.below() ? "low-balance" : "balance-restored")
+                            .data(event));
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                    log.debug("[LOW-BALANCE] Abonné SSE déconnecté: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+}
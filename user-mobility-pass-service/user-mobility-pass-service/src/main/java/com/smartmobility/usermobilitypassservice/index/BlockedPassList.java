@@ -0,0 +1,268 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.exception.ServiceBusyException;
+import com.smartmobility.usermobilitypassservice.id.PassNumbers;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Liste des pass non actifs (suspendus, expirés) pour les valideurs embarqués, en binaire compact.
+ * <p>
+ * Les pass sont désignés par {@link PassNumbers#numericKey(String)}. Chaque blocage ou déblocage reçu
+ * par {@link PassChangedEvent} (suspension, réactivation, expiration) reçoit un numéro de séquence et
+ * est gardé dans un anneau de {@code pass.blocked.feed-capacity} entrées ; les changements de solde
+ * n'en produisent pas. Un valideur envoie son flux et sa séquence et reçoit le delta net depuis
+ * celle-ci, ou l'instantané complet si le flux n'est pas celui de cette instance ou si la séquence est
+ * sortie de l'anneau. La resynchronisation périodique de l'index portique recharge aussi cette liste
+ * et transforme les écarts (écritures d'autres instances) en changements du flux.
+ * <p>
+ * Message, big-endian : magic {@code SMPB}, version 1, type (0 instantané, 1 delta), identifiant du
+ * flux (16 octets), séquence de départ et d'arrivée (8 octets chacune), puis les clés ajoutées et les
+ * clés retirées. Chaque liste donne son nombre d'éléments en varint puis les clés triées : la première
+ * sur 8 octets, les suivantes en écart varint non signé avec la précédente.
+ */
+@Component
+@Slf4j
+public class BlockedPassList {
+
+    static final int MAGIC = 0x534D5042;
+    static final int VERSION = 1;
+    static final int TYPE_SNAPSHOT = 0;
+    static final int TYPE_DELTA = 1;
+
+    private final MobilityPassRepository mobilityPassRepository;
+    private final UUID feedId;
+    private final long[] ringKeys;
+    private final boolean[] ringBlocked;
+
+    /** État protégé par {@code this}. */
+    private Set<Long> blocked = new HashSet<>();
+    private long sequence;
+    private boolean ready;
+    private Map<Long, Boolean> changedDuringReload;
+    private byte[] snapshot;
+    private long snapshotSequence = -1;
+
+    @Autowired
+    public BlockedPassList(MobilityPassRepository mobilityPassRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${pass.blocked.feed-capacity:50000}") int capacity) {
+        this(mobilityPassRepository, meterRegistry, capacity, UUID.randomUUID());
+    }
+
+    BlockedPassList(MobilityPassRepository mobilityPassRepository, MeterRegistry meterRegistry,
+                    int capacity, UUID feedId) {
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.feedId = feedId;
+        this.ringKeys = new long[capacity];
+        this.ringBlocked = new boolean[capacity];
+        meterRegistry.gauge("pass.blocked.size", this, BlockedPassList::size);
+        meterRegistry.gauge("pass.blocked.sequence", this, BlockedPassList::sequence);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${pass.index.resync-interval-ms:300000}",
+            initialDelayString = "${pass.index.resync-interval-ms:300000}")
+    public void resync() {
+        reload();
+    }
+
+    void reload() {
+        Map<Long, Boolean> changed = new HashMap<>();
+        synchronized (this) {
+            changedDuringReload = changed;
+        }
+        Set<Long> fresh = new HashSet<>();
+        try {
+            for (String passNumber : mobilityPassRepository.findPassNumbersByStatusNot(PassStatus.ACTIVE)) {
+                Long key = keyOf(passNumber);
+                if (key != null) {
+                    fresh.add(key);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+
+        int added = 0;
+        int removed = 0;
+        synchronized (this) {
+            changedDuringReload = null;
+            changed.forEach((key, isBlocked) -> {
+                if (isBlocked) {
+                    fresh.add(key);
+                } else {
+                    fresh.remove(key);
+                }
+            });
+            if (!ready) {
+                blocked = fresh;
+                ready = true;
+            } else {
+                for (Long key : fresh) {
+                    if (!blocked.contains(key)) {
+                        record(key, true);
+                        added++;
+                    }
+                }
+                for (Long key : new ArrayList<>(blocked)) {
+                    if (!fresh.contains(key)) {
+                        record(key, false);
+                        removed++;
+                    }
+                }
+            }
+        }
+        log.info("[BLOCKED] Liste des pass bloqués chargée: {} pass, séquence {} ({} ajouts, {} retraits rattrapés)",
+                fresh.size(), sequence(), added, removed);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPassChanged(PassChangedEvent event) {
+        Long key = keyOf(event.passNumber());
+        if (key == null) {
+            return;
+        }
+        boolean isBlocked = !event.removed() && event.status() != PassStatus.ACTIVE;
+        synchronized (this) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(key, isBlocked);
+            }
+            if (ready && isBlocked != blocked.contains(key)) {
+                record(key, isBlocked);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return blocked.size();
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    public UUID feedId() {
+        return feedId;
+    }
+
+    /**
+     * Delta net depuis {@code after} pour le flux {@code clientFeedId}, ou instantané complet quand le
+     * valideur n'a pas de position exploitable sur ce flux ({@code clientFeedId} null compris).
+     */
+    public synchronized byte[] since(UUID clientFeedId, long after) {
+        if (!ready) {
+            throw new ServiceBusyException("Liste des pass bloqués en cours de chargement");
+        }
+        if (!feedId.equals(clientFeedId) || after > sequence || after < sequence - ringKeys.length) {
+            return snapshot();
+        }
+        Map<Long, Boolean> net = new HashMap<>();
+        for (long seq = after + 1; seq <= sequence; seq++) {
+            int slot = (int) (seq % ringKeys.length);
+            net.put(ringKeys[slot], ringBlocked[slot]);
+        }
+        List<Long> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        net.forEach((key, isBlocked) -> (isBlocked ? added : removed).add(key));
+        return encode(TYPE_DELTA, after, sequence, toSortedArray(added), toSortedArray(removed));
+    }
+
+    private byte[] snapshot() {
+        if (snapshotSequence != sequence) {
+            snapshot = encode(TYPE_SNAPSHOT, 0, sequence, toSortedArray(blocked), new long[0]);
+            snapshotSequence = sequence;
+        }
+        return snapshot;
+    }
+
+    private void record(long key, boolean isBlocked) {
+        if (isBlocked) {
+            blocked.add(key);
+        } else {
+            blocked.remove(key);
+        }
+        sequence++;
+        int slot = (int) (sequence % ringKeys.length);
+        ringKeys[slot] = key;
+        ringBlocked[slot] = isBlocked;
+    }
+
+    private byte[] encode(int type, long from, long to, long[] added, long[] removed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(48 + (added.length + removed.length) * 8);
+        writeFixed(out, MAGIC, 4);
+        out.write(VERSION);
+        out.write(type);
+        writeFixed(out, feedId.getMostSignificantBits(), 8);
+        writeFixed(out, feedId.getLeastSignificantBits(), 8);
+        writeFixed(out, from, 8);
+        writeFixed(out, to, 8);
+        writeKeys(out, added);
+        writeKeys(out, removed);
+        return out.toByteArray();
+    }
+
+    private static void writeKeys(ByteArrayOutputStream out, long[] keys) {
+        writeVarint(out, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0) {
+                writeFixed(out, keys[0], 8);
+            } else {
+                writeVarint(out, keys[i] - keys[i - 1]);
+            }
+        }
+    }
+
+    private static void writeFixed(ByteArrayOutputStream out, long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long[] toSortedArray(Collection<Long> keys) {
+        return keys.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static Long keyOf(String passNumber) {
+        if (passNumber == null || !(PassNumbers.isValid(passNumber) || PassNumbers.isLegacy(passNumber))) {
+            return null;
+        }
+        return PassNumbers.numericKey(passNumber);
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+/**
+ * Résultat d'un contrôle d'accès au portique.
+ */
+public enum GateDecision {
+
+    ALLOWED_SUBSCRIPTION(true),
+    ALLOWED_BALANCE(true),
+    INSUFFICIENT_BALANCE(false),
+    PASS_SUSPENDED(false),
+    PASS_EXPIRED(false),
+    UNKNOWN_PASS(false),
+    INVALID_PASS_NUMBER(false);
+
+    private final boolean allowed;
+
+    GateDecision(boolean allowed) {
+        this.allowed = allowed;
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+}
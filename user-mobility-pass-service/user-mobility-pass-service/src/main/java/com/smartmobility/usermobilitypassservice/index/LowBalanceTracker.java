@@ -0,0 +1,132 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.event.BalanceThresholdCrossedEvent;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ensemble trié des numéros de pass actifs dont le solde est sous {@link #LOW_BALANCE_THRESHOLD}.
+ * <p>
+ * Chargé au démarrage, puis maintenu à chaque {@link PassChangedEvent} : seul le pass modifié est
+ * réévalué, et un {@link BalanceThresholdCrossedEvent} est publié quand son solde franchit le seuil.
+ * La resynchronisation périodique reprend les écritures des autres instances.
+ */
+@Component
+@Slf4j
+public class LowBalanceTracker {
+
+    public static final BigDecimal LOW_BALANCE_THRESHOLD = new BigDecimal("500");
+
+    private final MobilityPassRepository mobilityPassRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile NavigableSet<String> lowBalance = new ConcurrentSkipListSet<>();
+
+    /** Pass modifiés pendant un rechargement, réévalués sur le nouvel ensemble. Protégé par {@code this}. */
+    private List<PassChangedEvent> changedDuringReload;
+
+    public LowBalanceTracker(MobilityPassRepository mobilityPassRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.eventPublisher = eventPublisher;
+        meterRegistry.gauge("pass.low-balance.size", this, tracker -> tracker.lowBalance.size());
+    }
+
+    public static boolean isLow(PassStatus status, BigDecimal balance) {
+        return status == PassStatus.ACTIVE && balance != null && balance.compareTo(LOW_BALANCE_THRESHOLD) < 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${pass.index.resync-interval-ms:300000}",
+            initialDelayString = "${pass.index.resync-interval-ms:300000}")
+    public void resync() {
+        reload();
+    }
+
+    void reload() {
+        List<PassChangedEvent> changed = new ArrayList<>();
+        synchronized (this) {
+            changedDuringReload = changed;
+        }
+        NavigableSet<String> fresh = new ConcurrentSkipListSet<>();
+        try {
+            fresh.addAll(mobilityPassRepository.findPassNumbersByBalanceLessThanAndStatus(
+                    LOW_BALANCE_THRESHOLD, PassStatus.ACTIVE));
+        } finally {
+            synchronized (this) {
+                changedDuringReload = null;
+                changed.forEach(event -> apply(fresh, event));
+                lowBalance = fresh;
+            }
+        }
+        log.info("[LOW-BALANCE] {} pass sous le seuil de {}", fresh.size(), LOW_BALANCE_THRESHOLD);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPassChanged(PassChangedEvent event) {
+        if (event.passNumber() == null) {
+            return;
+        }
+        boolean crossed;
+        synchronized (this) {
+            if (changedDuringReload != null) {
+                changedDuringReload.add(event);
+            }
+            crossed = apply(lowBalance, event);
+        }
+        // Seules les variations de solde d'un pass actif sont des franchissements ; une suspension
+        // ou une suppression fait sortir le pass de l'ensemble sans alerte.
+        if (crossed && !event.removed() && event.status() == PassStatus.ACTIVE) {
+            eventPublisher.publishEvent(new BalanceThresholdCrossedEvent(event.passNumber(), event.userId(),
+                    event.balance(), LOW_BALANCE_THRESHOLD, isLow(event.status(), event.balance()),
+                    LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * @return {@code true} si l'appartenance du pass à l'ensemble a changé
+     */
+    private static boolean apply(NavigableSet<String> target, PassChangedEvent event) {
+        if (!event.removed() && isLow(event.status(), event.balance())) {
+            return target.add(event.passNumber());
+        }
+        return target.remove(event.passNumber());
+    }
+
+    public boolean contains(String passNumber) {
+        return lowBalance.contains(passNumber);
+    }
+
+    /**
+     * Numéros de pass sous le seuil, triés ; le coût est proportionnel au résultat.
+     */
+    public List<String> passNumbers() {
+        return List.copyOf(lowBalance);
+    }
+
+    public int size() {
+        return lowBalance.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.dto.PassStatusFeed;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flux numéroté des changements de statut des pass, pour les copies tenues par d'autres services.
+ * <p>
+ * Les {@link PassChangedEvent} validés sont conservés dans un anneau de {@code pass.feed.capacity}
+ * entrées. Un client lit l'instantané, note la séquence renvoyée avec, puis demande les changements
+ * postérieurs. Le flux est propre à l'instance (identifiant tiré au démarrage) : un client qui
+ * change d'instance, ou qui a trop de retard, reçoit {@code reset} et recharge l'instantané.
+ */
+@Component
+@Slf4j
+public class PassChangeFeed {
+
+    private final String feedId = UUID.randomUUID().toString();
+    private final PassStatusChange[] ring;
+    private long sequence;
+
+    public PassChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${pass.feed.capacity:100000}") int capacity) {
+        this.ring = new PassStatusChange[capacity];
+        meterRegistry.gauge("pass.feed.sequence", this, PassChangeFeed::sequence);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onPassChanged(PassChangedEvent event) {
+        sequence++;
+        ring[(int) (sequence % ring.length)] = new PassStatusChange(sequence, event.userId(), event.passNumber(),
+                event.status(), event.subscriptionType(), event.subscriptionEndDate(), event.removed());
+    }
+
+    public String feedId() {
+        return feedId;
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    public synchronized PassStatusFeed since(String clientFeedId, long after, int limit) {
+        if (!feedId.equals(clientFeedId) || after > sequence || after < sequence - ring.length) {
+            return new PassStatusFeed(feedId, sequence, true, List.of());
+        }
+        long last = Math.min(sequence, after + limit);
+        List<PassStatusChange> changes = new ArrayList<>((int) (last - after));
+        for (long seq = after + 1; seq <= last; seq++) {
+            changes.add(ring[(int) (seq % ring.length)]);
+        }
+        return new PassStatusFeed(feedId, last, false, changes);
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * État complet d'un pass pour les copies distantes (instantané ou flux de changements) ;
+ * l'appliquer deux fois est sans effet.
+ */
+public record PassStatusChange(
+        long sequence,
+        UUID userId,
+        String passNumber,
+        PassStatus status,
+        SubscriptionType subscriptionType,
+        LocalDate subscriptionEndDate,
+        boolean removed) {
+}
@@ -0,0 +1,39 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entrée compacte de l'index : statut, solde en centimes et fin d'abonnement en jour epoch
+ * ({@link #NO_SUBSCRIPTION} si aucun abonnement en cours).
+ */
+public record PassStatusEntry(PassStatus status, long balanceCents, long subscriptionEndEpochDay) {
+
+    public static final long NO_SUBSCRIPTION = Long.MIN_VALUE;
+
+    public static PassStatusEntry of(PassStatus status, BigDecimal balance,
+                                     SubscriptionType subscriptionType, LocalDate subscriptionEndDate) {
+        long endDay = subscriptionType != SubscriptionType.NONE && subscriptionEndDate != null
+                ? subscriptionEndDate.toEpochDay() : NO_SUBSCRIPTION;
+        return new PassStatusEntry(status, toCents(balance), endDay);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).longValue();
+    }
+
+    public boolean hasSubscriptionOn(long epochDay) {
+        return subscriptionEndEpochDay != NO_SUBSCRIPTION && epochDay <= subscriptionEndEpochDay;
+    }
+
+    public BigDecimal balance() {
+        return BigDecimal.valueOf(balanceCents, 2);
+    }
+
+    public LocalDate subscriptionEndDate() {
+        return subscriptionEndEpochDay == NO_SUBSCRIPTION ? null : LocalDate.ofEpochDay(subscriptionEndEpochDay);
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index mémoire numéro de pass -> statut, solde, fin d'abonnement, utilisé par les portiques.
+ * <p>
+ * Chargé au démarrage par une projection sans jointure, puis tenu à jour par les
+ * {@link PassChangedEvent} publiés après commit. Une resynchronisation périodique
+ * rattrape les écritures faites par d'autres instances du service.
+ */
+@Component
+@Slf4j
+public class PassStatusIndex {
+
+    private static final PassStatusEntry TOMBSTONE = new PassStatusEntry(PassStatus.EXPIRED, 0, 0);
+
+    private final MobilityPassRepository mobilityPassRepository;
+    private final long defaultFareCents;
+
+    private volatile Map<String, PassStatusEntry> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /** Événements reçus pendant un rechargement, rejoués sur la nouvelle table. Protégé par {@code this}. */
+    private Map<String, PassStatusEntry> changedDuringReload;
+
+    public PassStatusIndex(MobilityPassRepository mobilityPassRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${pass.gate.default-fare:150}") BigDecimal defaultFare) {
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.defaultFareCents = PassStatusEntry.toCents(defaultFare);
+        meterRegistry.gauge("pass.index.size", this, index -> index.entries.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${pass.index.resync-interval-ms:300000}",
+            initialDelayString = "${pass.index.resync-interval-ms:300000}")
+    public void resync() {
+        reload();
+    }
+
+    void reload() {
+        long start = System.currentTimeMillis();
+        Map<String, PassStatusEntry> changed = new ConcurrentHashMap<>();
+        Map<String, PassStatusEntry> fresh = new ConcurrentHashMap<>(Math.max(16, entries.size() * 2));
+        synchronized (this) {
+            changedDuringReload = changed;
+        }
+        try {
+            mobilityPassRepository.findAllStatusRows().forEach(row -> fresh.put(row.passNumber(),
+                    PassStatusEntry.of(row.status(), row.balance(), row.subscriptionType(), row.subscriptionEndDate())));
+        } finally {
+            synchronized (this) {
+                changedDuringReload = null;
+                changed.forEach((passNumber, entry) -> apply(fresh, passNumber, entry));
+                entries = fresh;
+                ready = true;
+            }
+        }
+        log.info("[INDEX] Index des pass chargé: {} entrées en {} ms", fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPassChanged(PassChangedEvent event) {
+        if (event.passNumber() == null) {
+            return;
+        }
+        PassStatusEntry entry = event.removed() ? TOMBSTONE : PassStatusEntry.of(
+                event.status(), event.balance(), event.subscriptionType(), event.subscriptionEndDate());
+        synchronized (this) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(event.passNumber(), entry);
+            }
+            apply(entries, event.passNumber(), entry);
+        }
+    }
+
+    private static void apply(Map<String, PassStatusEntry> target, String passNumber, PassStatusEntry entry) {
+        if (entry == TOMBSTONE) {
+            target.remove(passNumber);
+        } else {
+            target.put(passNumber, entry);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public PassStatusEntry get(String passNumber) {
+        return entries.get(passNumber);
+    }
+
+    /**
+     * Décision d'accès à partir de l'index ; le tarif par défaut s'applique si {@code fare} est null.
+     */
+    public GateDecision validate(String passNumber, BigDecimal fare) {
+        return decide(entries.get(passNumber), fare);
+    }
+
+    public GateDecision decide(PassStatusEntry entry, BigDecimal fare) {
+        if (entry == null) {
+            return GateDecision.UNKNOWN_PASS;
+        }
+        if (entry.status() == PassStatus.SUSPENDED) {
+            return GateDecision.PASS_SUSPENDED;
+        }
+        if (entry.status() == PassStatus.EXPIRED) {
+            return GateDecision.PASS_EXPIRED;
+        }
+        if (entry.hasSubscriptionOn(LocalDate.now().toEpochDay())) {
+            return GateDecision.ALLOWED_SUBSCRIPTION;
+        }
+        long fareCents = fare != null ? PassStatusEntry.toCents(fare) : defaultFareCents;
+        return entry.balanceCents() >= fareCents ? GateDecision.ALLOWED_BALANCE : GateDecision.INSUFFICIENT_BALANCE;
+    }
+}
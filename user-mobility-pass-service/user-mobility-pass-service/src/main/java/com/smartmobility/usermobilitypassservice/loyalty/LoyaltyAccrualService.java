@@ -0,0 +1,257 @@
+package com.smartmobility.usermobilitypassservice.loyalty;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmobility.usermobilitypassservice.cache.PassReadCache;
+import com.smartmobility.usermobilitypassservice.cache.UserReadCache;
+import com.smartmobility.usermobilitypassservice.dto.LoyaltyAccrualResponse;
+import com.smartmobility.usermobilitypassservice.dto.TripCompletedBatch;
+import com.smartmobility.usermobilitypassservice.exception.ValidationException;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.PassOwnerRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Points de fidélité acquis sur les trajets terminés.
+ * <p>
+ * Les trajets reçus sont écrits dans un journal local ({@link LoyaltyEventLog}) puis cumulés en
+ * mémoire par pass ; toutes les {@code loyalty.flush-interval-ms} les cumuls partent en un lot
+ * {@code UPDATE ... SET loyalty_points = loyalty_points + ?}, et le point de reprise du journal
+ * avance. Après un arrêt brutal, les trajets postérieurs au point de reprise sont rejoués au
+ * démarrage (au moins une fois : un lot appliqué juste avant l'arrêt peut être compté deux fois).
+ * <p>
+ * Le lot ne touche pas {@code version} ({@code loyalty_points} n'est jamais réécrit par JPA) : un débit
+ * ou une modification du pass en cours ne doit pas échouer pour des points. Les caches de lecture
+ * des pass reportés sont invalidés après commit.
+ */
+@Service
+@Slf4j
+public class LoyaltyAccrualService {
+
+    private static final String ACCRUE_SQL =
+            "UPDATE mobility_passes SET loyalty_points = loyalty_points + :points WHERE pass_number = :passNumber";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final MobilityPassRepository mobilityPassRepository;
+    private final PassReadCache passReadCache;
+    private final UserReadCache userReadCache;
+    private final LoyaltyEventLog eventLog;
+    private final Cache<UUID, Boolean> recentTrips;
+    private final BigDecimal amountPerPoint;
+    private final int maxItems;
+    private final long compactBytes;
+    private final Counter pointsCounter;
+    private final Timer flushTimer;
+
+    private final Object lock = new Object();
+    private Map<String, Integer> pending = new HashMap<>();
+    private long appendedOffset;
+
+    public LoyaltyAccrualService(NamedParameterJdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 MobilityPassRepository mobilityPassRepository,
+                                 PassReadCache passReadCache,
+                                 UserReadCache userReadCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${loyalty.log.dir:data/loyalty}") String logDirectory,
+                                 @Value("${loyalty.points.amount-per-point:100}") BigDecimal amountPerPoint,
+                                 @Value("${loyalty.dedup.maximum-size:200000}") long dedupSize,
+                                 @Value("${loyalty.batch.max-items:5000}") int maxItems,
+                                 @Value("${loyalty.log.compact-bytes:67108864}") long compactBytes) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.passReadCache = passReadCache;
+        this.userReadCache = userReadCache;
+        this.eventLog = new LoyaltyEventLog(Path.of(logDirectory));
+        this.recentTrips = Caffeine.newBuilder().maximumSize(dedupSize).build();
+        this.amountPerPoint = amountPerPoint;
+        this.maxItems = maxItems;
+        this.compactBytes = compactBytes;
+
+        this.pointsCounter = Counter.builder("loyalty.points.accrued").register(meterRegistry);
+        this.flushTimer = Timer.builder("loyalty.flush").register(meterRegistry);
+        Gauge.builder("loyalty.pending.passes", this, LoyaltyAccrualService::pendingPasses).register(meterRegistry);
+
+        replay();
+    }
+
+    /**
+     * Reprend les trajets journalisés mais pas encore reportés en base ; le prochain flush les applique.
+     */
+    private void replay() {
+        long checkpoint = eventLog.checkpoint();
+        List<LoyaltyEventLog.Entry> entries = eventLog.readFrom(checkpoint);
+        synchronized (lock) {
+            for (LoyaltyEventLog.Entry entry : entries) {
+                pending.merge(entry.passNumber(), entry.points(), Integer::sum);
+                recentTrips.put(entry.tripId(), Boolean.TRUE);
+            }
+            appendedOffset = eventLog.size();
+        }
+        if (!entries.isEmpty()) {
+            log.info("[LOYALTY] {} trajets rejoués depuis le journal local", entries.size());
+        }
+    }
+
+    public LoyaltyAccrualResponse accrue(TripCompletedBatch batch) {
+        List<TripCompletedBatch.Event> events = batch != null ? batch.getEvents() : null;
+        if (events == null || events.isEmpty()) {
+            throw new ValidationException("La liste des trajets est obligatoire");
+        }
+        if (events.size() > maxItems) {
+            throw new ValidationException("Trop de trajets dans un lot (maximum " + maxItems + ")");
+        }
+
+        Map<UUID, String> passByUser = resolvePassNumbers(events);
+        List<LoyaltyEventLog.Entry> entries = new ArrayList<>(events.size());
+        int rejected = 0;
+        for (TripCompletedBatch.Event event : events) {
+            String passNumber = event == null ? null
+                    : event.getPassNumber() != null && !event.getPassNumber().isBlank()
+                    ? event.getPassNumber() : passByUser.get(event.getUserId());
+            if (passNumber == null || event.getTripId() == null
+                    || (event.getAmount() != null && event.getAmount().signum() < 0)) {
+                rejected++;
+            } else {
+                entries.add(new LoyaltyEventLog.Entry(event.getTripId(), passNumber, points(event.getAmount())));
+            }
+        }
+
+        int duplicates = 0;
+        long points = 0;
+        synchronized (lock) {
+            List<LoyaltyEventLog.Entry> fresh = new ArrayList<>(entries.size());
+            Set<UUID> seen = new HashSet<>();
+            for (LoyaltyEventLog.Entry entry : entries) {
+                if (!seen.add(entry.tripId()) || recentTrips.getIfPresent(entry.tripId()) != null) {
+                    duplicates++;
+                } else {
+                    fresh.add(entry);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                appendedOffset = eventLog.append(fresh);
+                for (LoyaltyEventLog.Entry entry : fresh) {
+                    pending.merge(entry.passNumber(), entry.points(), Integer::sum);
+                    recentTrips.put(entry.tripId(), Boolean.TRUE);
+                    points += entry.points();
+                }
+            }
+            entries = fresh;
+        }
+        pointsCounter.increment(points);
+        return new LoyaltyAccrualResponse(entries.size(), duplicates, rejected, points);
+    }
+
+    /**
+     * Reporte les cumuls en base en un lot ; en cas d'échec ils sont remis en attente pour le flush suivant.
+     */
+    @Scheduled(fixedDelayString = "${loyalty.flush-interval-ms:250}")
+    public synchronized int flush() {
+        Map<String, Integer> batch;
+        long offset;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = pending;
+            offset = appendedOffset;
+            pending = new HashMap<>();
+        }
+
+        MapSqlParameterSource[] updates = batch.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("points", e.getValue())
+                        .addValue("passNumber", e.getKey()))
+                .toArray(MapSqlParameterSource[]::new);
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> jdbc.batchUpdate(ACCRUE_SQL, updates)));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                batch.forEach((passNumber, points) -> pending.merge(passNumber, points, Integer::sum));
+            }
+            log.warn("[LOYALTY] Report des points échoué pour {} pass, nouvel essai au prochain cycle: {}",
+                    batch.size(), e.getMessage());
+            return 0;
+        }
+
+        eventLog.checkpoint(offset);
+        invalidateCaches(batch.keySet());
+        synchronized (lock) {
+            if (pending.isEmpty() && appendedOffset == offset && offset >= compactBytes) {
+                eventLog.reset();
+                appendedOffset = 0;
+            }
+        }
+        log.debug("[LOYALTY] Points reportés pour {} pass", batch.size());
+        return batch.size();
+    }
+
+    int points(BigDecimal amount) {
+        if (amount == null) {
+            return 1;
+        }
+        return Math.max(1, amount.divide(amountPerPoint, 0, RoundingMode.FLOOR).intValue());
+    }
+
+    private Map<UUID, String> resolvePassNumbers(List<TripCompletedBatch.Event> events) {
+        Set<UUID> userIds = new HashSet<>();
+        for (TripCompletedBatch.Event event : events) {
+            if (event != null && (event.getPassNumber() == null || event.getPassNumber().isBlank())
+                    && event.getUserId() != null) {
+                userIds.add(event.getUserId());
+            }
+        }
+        Map<UUID, String> byUser = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (PassOwnerRow owner : mobilityPassRepository.findPassOwnersByUserIdIn(userIds)) {
+                byUser.put(owner.userId(), owner.passNumber());
+            }
+        }
+        return byUser;
+    }
+
+    private void invalidateCaches(Set<String> passNumbers) {
+        for (PassOwnerRow owner : mobilityPassRepository.findPassOwnersByPassNumberIn(passNumbers)) {
+            passReadCache.invalidate(owner.passNumber(), owner.userId());
+            userReadCache.invalidate(owner.userId(), null, null);
+        }
+    }
+
+    private int pendingPasses() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        eventLog.close();
+    }
+}
@@ -0,0 +1,169 @@
+package com.smartmobility.usermobilitypassservice.loyalty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Journal local des points acquis, une ligne {@code tripId<TAB>passNumber<TAB>points} par trajet.
+ * <p>
+ * Chaque ajout est forcé sur disque avant d'être acquitté. Le point de reprise (offset du journal
+ * déjà reporté en base) est écrit à part, par remplacement atomique ; au redémarrage, tout ce qui
+ * suit ce point est rejoué. Une ligne tronquée par un arrêt brutal est ignorée et effacée.
+ */
+final class LoyaltyEventLog {
+
+    record Entry(UUID tripId, String passNumber, int points) {
+    }
+
+    private final Path logFile;
+    private final Path checkpointFile;
+    private final FileChannel channel;
+
+    LoyaltyEventLog(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            this.logFile = directory.resolve("events.log");
+            this.checkpointFile = directory.resolve("checkpoint");
+            this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            truncatePartialLine();
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ajoute les entrées et retourne l'offset de fin du journal une fois les données sur disque.
+     */
+    long append(List<Entry> entries) {
+        StringBuilder lines = new StringBuilder(entries.size() * 64);
+        for (Entry entry : entries) {
+            lines.append(entry.tripId()).append('\t').append(entry.passNumber()).append('\t')
+                    .append(entry.points()).append('\n');
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    List<Entry> readFrom(long offset) {
+        try {
+            long size = channel.size();
+            if (offset >= size) {
+                return List.of();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - offset));
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (String line : new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\n")) {
+                String[] fields = line.split("\t");
+                if (fields.length == 3) {
+                    entries.add(new Entry(UUID.fromString(fields[0]), fields[1], Integer.parseInt(fields[2])));
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long checkpoint() {
+        try {
+            if (!Files.exists(checkpointFile)) {
+                return 0;
+            }
+            return Math.min(Long.parseLong(Files.readString(checkpointFile).trim()), channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void checkpoint(long offset) {
+        try {
+            Path tmp = checkpointFile.resolveSibling("checkpoint.tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+                out.force(true);
+            }
+            Files.move(tmp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vide le journal ; à n'appeler que lorsque tout son contenu est reporté en base.
+     */
+    void reset() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            checkpoint(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void truncatePartialLine() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer one = ByteBuffer.allocate(1);
+        long end = size;
+        while (end > 0) {
+            one.clear();
+            channel.read(one, end - 1);
+            if (one.get(0) == '\n') {
+                break;
+            }
+            end--;
+        }
+        if (end < size) {
+            channel.truncate(end);
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class MobilityPassMapper {
         dto.setLoyaltyPoints(pass.getLoyaltyPoints());
         dto.setCreatedAt(pass.getCreatedAt());
         dto.setLastUsedAt(pass.getLastUsedAt());
+        dto.setVersion(pass.getVersion());
 
         return dto;
     }
@@ -64,9 +64,9 @@ public class UserMapper {
     }
 
     /**
-     * Convertit un CreateUserRequest en entité User
+     * Convertit un CreateUserRequest en entité User, avec le mot de passe déjà haché
      */
-    public User toEntity(CreateUserRequest request) {
+    public User toEntity(CreateUserRequest request, String passwordHash) {
         if (request == null) {
             return null;
         }
@@ -76,7 +76,7 @@ public class UserMapper {
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
         user.setPhoneNumber(request.getPhoneNumber());
-        user.setPassword(request.getPassword()); // TODO: Encoder avec BCrypt
+        user.setPassword(passwordHash);
         user.setStatus(UserStatus.ACTIVE);
 
         return user;
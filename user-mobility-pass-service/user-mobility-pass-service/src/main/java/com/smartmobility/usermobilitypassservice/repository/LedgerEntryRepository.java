@@ -0,0 +1,14 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByPassNumberOrderByIdDesc(String passNumber, Pageable pageable);
+}
@@ -1,17 +1,28 @@
 package com.smartmobility.usermobilitypassservice.repository;
 
+import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
 import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
 import com.smartmobility.usermobilitypassservice.entity.PassStatus;
 import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MobilityPassRepository extends JpaRepository<MobilityPass, UUID> {
@@ -22,13 +33,137 @@ public interface MobilityPassRepository extends JpaRepository<MobilityPass, UUID
 
     boolean existsByPassNumber(String passNumber);
 
-    List<MobilityPass> findByStatus(PassStatus status);
+    boolean existsByUserId(UUID userId);
 
-    List<MobilityPass> findBySubscriptionType(SubscriptionType subscriptionType);
+    /**
+     * Projection directe vers le DTO : une seule requête sur mobility_passes, sans charger
+     * l'entité ni l'utilisateur associé (user.id est lu depuis la clé étrangère).
+     */
+    String PASS_DTO = "SELECT new com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO(" +
+            "mp.id, mp.passNumber, mp.user.id, mp.balance, mp.status, mp.subscriptionType, " +
+            "mp.subscriptionStartDate, mp.subscriptionEndDate, mp.loyaltyPoints, mp.createdAt, mp.lastUsedAt, " +
+            "mp.version) FROM MobilityPass mp";
 
-    @Query("SELECT mp FROM MobilityPass mp WHERE mp.balance < :threshold AND mp.status = :status")
-    List<MobilityPass> findByBalanceLessThanAndStatus(@Param("threshold") BigDecimal threshold, @Param("status") PassStatus status);
+    @Query(PASS_DTO + " WHERE mp.id = :id")
+    Optional<MobilityPassDTO> findDtoById(@Param("id") UUID id);
 
-    @Query("SELECT mp FROM MobilityPass mp WHERE mp.subscriptionEndDate < CURRENT_DATE AND mp.status = 'ACTIVE'")
-    List<MobilityPass> findExpiredSubscriptions();
+    @Query(PASS_DTO + " WHERE mp.passNumber = :passNumber")
+    Optional<MobilityPassDTO> findDtoByPassNumber(@Param("passNumber") String passNumber);
+
+    @Query(PASS_DTO + " WHERE mp.user.id = :userId")
+    Optional<MobilityPassDTO> findDtoByUserId(@Param("userId") UUID userId);
+
+    @Query(PASS_DTO + " WHERE mp.status = :status")
+    List<MobilityPassDTO> findDtosByStatus(@Param("status") PassStatus status);
+
+    @Query(PASS_DTO + " WHERE mp.subscriptionType = :subscriptionType")
+    List<MobilityPassDTO> findDtosBySubscriptionType(@Param("subscriptionType") SubscriptionType subscriptionType);
+
+    @Query(PASS_DTO + " WHERE mp.passNumber IN :passNumbers ORDER BY mp.passNumber")
+    List<MobilityPassDTO> findDtosByPassNumberIn(@Param("passNumbers") Collection<String> passNumbers);
+
+    @Query("SELECT mp.passNumber FROM MobilityPass mp WHERE mp.status <> :status")
+    List<String> findPassNumbersByStatusNot(@Param("status") PassStatus status);
+
+    @Query("SELECT mp.passNumber FROM MobilityPass mp WHERE mp.balance < :threshold AND mp.status = :status")
+    List<String> findPassNumbersByBalanceLessThanAndStatus(@Param("threshold") BigDecimal threshold,
+                                                         @Param("status") PassStatus status);
+
+    @Query(PASS_DTO + " WHERE mp.subscriptionEndDate < CURRENT_DATE AND mp.status = 'ACTIVE'")
+    List<MobilityPassDTO> findExpiredSubscriptionDtos();
+
+    @Query(value = PASS_DTO, countQuery = "SELECT COUNT(mp) FROM MobilityPass mp")
+    Page<MobilityPassDTO> findDtoPage(Pageable pageable);
+
+    @Query(PASS_DTO + " ORDER BY mp.id")
+    List<MobilityPassDTO> findFirstDtos(Pageable pageable);
+
+    @Query(PASS_DTO + " WHERE mp.id > :after ORDER BY mp.id")
+    List<MobilityPassDTO> findDtosAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Parcours complet en flux, lu par lots de 500 lignes (côté MySQL, nécessite useCursorFetch=true
+     * dans l'URL JDBC pour que le pilote ouvre un curseur serveur au lieu de tout charger).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PASS_DTO + " ORDER BY mp.id")
+    Stream<MobilityPassDTO> streamAllDtos();
+
+    /**
+     * Tranche de pass actifs dont l'abonnement est échu, lue par l'index (status, subscription_end_date).
+     */
+    @Query("SELECT mp.id FROM MobilityPass mp WHERE mp.status = 'ACTIVE' AND mp.subscriptionEndDate < :today " +
+            "ORDER BY mp.subscriptionEndDate, mp.id")
+    List<UUID> findExpiredSubscriptionIds(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Expiration groupée par clé primaire ; la condition est revérifiée pour ignorer un pass
+     * renouvelé ou suspendu depuis la lecture de la tranche.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MobilityPass mp SET mp.status = 'EXPIRED', mp.version = mp.version + 1 " +
+            "WHERE mp.id IN :ids AND mp.status = 'ACTIVE' AND mp.subscriptionEndDate < :today")
+    int expireSubscriptions(@Param("ids") Collection<UUID> ids, @Param("today") LocalDate today);
+
+    String STATUS_ROW = "SELECT new com.smartmobility.usermobilitypassservice.repository.PassStatusRow(" +
+            "mp.id, mp.passNumber, mp.user.id, mp.status, mp.balance, mp.subscriptionType, mp.subscriptionEndDate, " +
+            "mp.version) FROM MobilityPass mp";
+
+    @Query(STATUS_ROW)
+    List<PassStatusRow> findAllStatusRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(STATUS_ROW)
+    Stream<PassStatusRow> streamAllStatusRows();
+
+    @Query(STATUS_ROW + " WHERE mp.passNumber = :passNumber")
+    Optional<PassStatusRow> findStatusRowByPassNumber(@Param("passNumber") String passNumber);
+
+    @Query(STATUS_ROW + " WHERE mp.passNumber IN :passNumbers")
+    List<PassStatusRow> findStatusRowsByPassNumberIn(@Param("passNumbers") Collection<String> passNumbers);
+
+    @Query(STATUS_ROW + " WHERE mp.id IN :ids")
+    List<PassStatusRow> findStatusRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.smartmobility.usermobilitypassservice.repository.PassOwnerRow(mp.user.id, mp.passNumber) " +
+            "FROM MobilityPass mp WHERE mp.user.id IN :userIds")
+    List<PassOwnerRow> findPassOwnersByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT new com.smartmobility.usermobilitypassservice.repository.PassOwnerRow(mp.user.id, mp.passNumber) " +
+            "FROM MobilityPass mp WHERE mp.passNumber IN :passNumbers")
+    List<PassOwnerRow> findPassOwnersByPassNumberIn(@Param("passNumbers") Collection<String> passNumbers);
+
+    /**
+     * Débit atomique : une seule instruction, appliquée seulement si le pass est actif et le solde suffisant.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MobilityPass mp SET mp.balance = mp.balance - :amount, mp.version = mp.version + 1, " +
+            "mp.lastUsedAt = :usedAt " +
+            "WHERE mp.passNumber = :passNumber AND mp.status = 'ACTIVE' AND mp.balance >= :amount")
+    int debit(@Param("passNumber") String passNumber,
+              @Param("amount") BigDecimal amount,
+              @Param("usedAt") LocalDateTime usedAt);
+
+    /**
+     * Débit conditionné en plus à la version lue par l'appelant (détection des écritures concurrentes).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MobilityPass mp SET mp.balance = mp.balance - :amount, mp.version = mp.version + 1, " +
+            "mp.lastUsedAt = :usedAt " +
+            "WHERE mp.passNumber = :passNumber AND mp.status = 'ACTIVE' AND mp.balance >= :amount " +
+            "AND mp.version = :expectedVersion")
+    int debitIfVersion(@Param("passNumber") String passNumber,
+                       @Param("amount") BigDecimal amount,
+                       @Param("expectedVersion") long expectedVersion,
+                       @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MobilityPass mp SET mp.balance = mp.balance + :amount, mp.version = mp.version + 1 " +
+            "WHERE mp.passNumber = :passNumber AND mp.status <> 'EXPIRED'")
+    int credit(@Param("passNumber") String passNumber, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MobilityPass mp SET mp.balance = mp.balance + :delta, mp.version = mp.version + 1 " +
+            "WHERE mp.passNumber = :passNumber AND mp.balance + :delta >= 0")
+    int adjust(@Param("passNumber") String passNumber, @Param("delta") BigDecimal delta);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Association utilisateur -> numéro de pass, lue sans charger les entités.
+ */
+public record PassOwnerRow(UUID userId, String passNumber) {
+}
@@ -0,0 +1,22 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection minimale d'un pass, sans jointure sur l'utilisateur.
+ */
+public record PassStatusRow(
+        UUID id,
+        String passNumber,
+        UUID userId,
+        PassStatus status,
+        BigDecimal balance,
+        SubscriptionType subscriptionType,
+        LocalDate subscriptionEndDate,
+        long version) {
+}
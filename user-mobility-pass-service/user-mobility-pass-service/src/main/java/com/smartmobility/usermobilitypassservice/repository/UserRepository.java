@@ -2,13 +2,22 @@ package com.smartmobility.usermobilitypassservice.repository;
 
 import com.smartmobility.usermobilitypassservice.entity.User;
 import com.smartmobility.usermobilitypassservice.entity.UserStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -23,7 +32,45 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     List<User> findByStatus(UserStatus status);
 
+    @Query(value = "SELECT u FROM User u LEFT JOIN FETCH u.mobilityPass",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<User> findPageWithPass(Pageable pageable);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.mobilityPass ORDER BY u.id")
+    List<User> findFirstWithPass(Pageable pageable);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.mobilityPass WHERE u.id > :after ORDER BY u.id")
+    List<User> findAfterWithPass(@Param("after") UUID after, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.mobilityPass ORDER BY u.id")
+    Stream<User> streamAllWithPass();
+
     List<User> findByFirstNameContainingOrLastNameContaining(String firstName, String lastName);
 
-    Collection<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String searchTerm, String searchTerm1);
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.mobilityPass WHERE u.id IN :ids")
+    List<User> findAllWithPassByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") UUID id, @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.phoneNumber IN :phoneNumbers")
+    List<String> findExistingPhoneNumbers(@Param("phoneNumbers") Collection<String> phoneNumbers);
+
+    String SEARCH_ROW = "SELECT new com.smartmobility.usermobilitypassservice.repository.UserSearchRow(" +
+            "u.id, u.firstName, u.lastName, u.email, u.phoneNumber) FROM User u";
+
+    @Query(SEARCH_ROW + " ORDER BY u.id")
+    List<UserSearchRow> findFirstSearchRows(Pageable pageable);
+
+    @Query(SEARCH_ROW + " WHERE u.id > :after ORDER BY u.id")
+    List<UserSearchRow> findSearchRowsAfter(@Param("after") UUID after, Pageable pageable);
 }
\ No newline at end of file
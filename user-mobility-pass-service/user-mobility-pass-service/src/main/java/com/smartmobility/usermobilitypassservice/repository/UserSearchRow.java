@@ -0,0 +1,14 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Champs d'un utilisateur indexés pour la recherche.
+ */
+public record UserSearchRow(
+        UUID id,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber) {
+}
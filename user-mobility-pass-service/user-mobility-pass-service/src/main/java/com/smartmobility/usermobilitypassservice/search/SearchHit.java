@@ -0,0 +1,6 @@
+package com.smartmobility.usermobilitypassservice.search;
+
+import java.util.UUID;
+
+public record SearchHit(UUID userId, double score) {
+}
@@ -0,0 +1,278 @@
+package com.smartmobility.usermobilitypassservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Index inversé de trigrammes sur le nom, l'email et le téléphone des utilisateurs.
+ * <p>
+ * Les textes sont normalisés (minuscules, sans accents ; chiffres seuls pour le téléphone) et
+ * chaque mot est encadré d'espaces, comme pg_trgm : un terme de une ou deux lettres devient une
+ * recherche par début de mot. Les listes de documents sont triées (identifiants croissants),
+ * une mise à jour ajoute un nouveau document et marque l'ancien comme supprimé.
+ * <p>
+ * Non thread-safe : l'appelant sérialise les écritures et les exclut des lectures.
+ */
+final class TrigramIndex {
+
+    /** Part minimale des trigrammes du terme présents dans un document pour qu'il soit retenu. */
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final char FIELD_SEPARATOR = '|';
+    private static final double MAX_SCORE = 2.5;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> docByUser = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private UUID[] users = new UUID[1024];
+    private String[] texts = new String[1024];
+    private int docCount;
+
+    int size() {
+        return docByUser.size();
+    }
+
+    int deletedCount() {
+        return deleted.cardinality();
+    }
+
+    void put(UUID userId, String firstName, String lastName, String email, String phoneNumber) {
+        remove(userId);
+        String names = normalize(firstName) + " " + normalize(lastName);
+        String mail = normalize(email);
+        String phone = digits(phoneNumber);
+
+        int doc = docCount++;
+        if (doc == users.length) {
+            users = Arrays.copyOf(users, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2);
+        }
+        users[doc] = userId;
+        texts[doc] = names.trim() + FIELD_SEPARATOR + mail + FIELD_SEPARATOR + phone;
+        docByUser.put(userId, doc);
+
+        Set<Long> grams = new LinkedHashSet<>();
+        for (String word : names.split(" ")) {
+            addWordTrigrams(word, grams);
+        }
+        addWordTrigrams(mail, grams);
+        addWordTrigrams(phone, grams);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    void remove(UUID userId) {
+        Integer doc = docByUser.remove(userId);
+        if (doc != null) {
+            deleted.set(doc);
+            texts[doc] = null;
+        }
+    }
+
+    /**
+     * Documents classés par similarité (part des trigrammes du terme trouvés), avec un bonus
+     * quand le terme apparaît tel quel et un autre quand un champ commence par lui.
+     */
+    List<SearchHit> search(String term, int limit) {
+        String query = isPhoneLike(term) ? digits(term) : normalize(term).trim();
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> grams = new LinkedHashSet<>();
+        if (query.length() < 3) {
+            grams.add(trigram(' ', query.length() == 1 ? ' ' : query.charAt(0), query.charAt(query.length() - 1)));
+        } else {
+            for (String word : query.split(" ")) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    grams.add(trigram(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)));
+                }
+                if (word.length() == 1) {
+                    grams.add(trigram(' ', ' ', word.charAt(0)));
+                } else if (word.length() == 2) {
+                    grams.add(trigram(' ', word.charAt(0), word.charAt(1)));
+                }
+            }
+        }
+
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (long gram : grams) {
+            lists.add(postings.getOrDefault(gram, Postings.EMPTY));
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        int required = Math.max(1, (int) Math.ceil(lists.size() * MIN_SIMILARITY));
+        // Un document qui a au moins `required` trigrammes figure forcément dans l'une des
+        // (n - required + 1) listes les plus courtes : les candidats viennent de celles-là, fusionnées
+        // par identifiant croissant ; chaque liste avance par saut exponentiel jusqu'au candidat.
+        // Les meilleurs résultats sont gardés dans un tas borné ; dès qu'il est plein de scores
+        // maximaux, aucun autre candidat ne peut y entrer et le parcours s'arrête.
+        int candidateLists = lists.size() - required + 1;
+        int[] cursor = new int[lists.size()];
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(SearchHit::score));
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int l = 0; l < candidateLists; l++) {
+                Postings list = lists.get(l);
+                if (cursor[l] < list.size && list.docs[cursor[l]] < doc) {
+                    doc = list.docs[cursor[l]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+
+            int matched = 0;
+            for (int l = 0; l < lists.size(); l++) {
+                Postings list = lists.get(l);
+                cursor[l] = list.advance(cursor[l], doc);
+                if (cursor[l] < list.size && list.docs[cursor[l]] == doc) {
+                    matched++;
+                    cursor[l]++;
+                }
+            }
+            if (matched < required || deleted.get(doc)) {
+                continue;
+            }
+
+            double score = score(texts[doc], query, matched, lists.size());
+            if (best.size() < limit) {
+                best.add(new SearchHit(users[doc], score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new SearchHit(users[doc], score));
+            }
+            if (best.size() == limit && best.peek().score() >= MAX_SCORE) {
+                break;
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(SearchHit::score).reversed());
+        return hits;
+    }
+
+    private static double score(String text, String query, int matched, int total) {
+        double score = (double) matched / total;
+        if (text.contains(query)) {
+            score += 1.0;
+            if (text.startsWith(query) || text.contains(" " + query) || text.contains(FIELD_SEPARATOR + query)) {
+                score += 0.5;
+            }
+        }
+        return score;
+    }
+
+    private static void addWordTrigrams(String word, Set<Long> grams) {
+        if (word.isEmpty()) {
+            return;
+        }
+        String padded = "  " + word + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(trigram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c) || c == '@' || c == '.' || c == '_' || c == '+') {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space && !out.isEmpty()) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return out.substring(0, end);
+    }
+
+    static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isPhoneLike(String term) {
+        boolean digit = false;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c != '+' && c != ' ' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    /** Liste croissante d'identifiants de documents. */
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings();
+
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * Première position {@code >= from} dont l'identifiant est {@code >= target}.
+         */
+        int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + 1;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = low + step;
+            }
+            int found = Arrays.binarySearch(docs, low + 1, Math.min(high + 1, size), target);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.smartmobility.usermobilitypassservice.search;
+
+import com.smartmobility.usermobilitypassservice.event.UserChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserSearchRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche des utilisateurs tenu en mémoire (trigrammes sur nom, email, téléphone).
+ * <p>
+ * Construit au démarrage par pages de projection, puis tenu à jour par les {@link UserChangedEvent}
+ * publiés après commit. La reconstruction périodique rattrape les écritures des autres instances
+ * et libère les documents remplacés.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final Timer searchTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+
+    /** Événements reçus pendant une reconstruction, rejoués sur le nouvel index. Protégé par {@code lock}. */
+    private List<UserChangedEvent> changedDuringReload;
+
+    public UserSearchIndex(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.searchTimer = meterRegistry.timer("user.search");
+        meterRegistry.gauge("user.search.index.size", this, UserSearchIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${user.search.rebuild-interval-ms:3600000}",
+            initialDelayString = "${user.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        reload();
+    }
+
+    void reload() {
+        long start = System.currentTimeMillis();
+        List<UserChangedEvent> changed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            changedDuringReload = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TrigramIndex fresh = new TrigramIndex();
+        try {
+            List<UserSearchRow> page = userRepository.findFirstSearchRows(PageRequest.of(0, LOAD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                page.forEach(row -> fresh.put(row.id(), row.firstName(), row.lastName(), row.email(), row.phoneNumber()));
+                if (page.size() < LOAD_PAGE_SIZE) {
+                    break;
+                }
+                page = userRepository.findSearchRowsAfter(page.get(page.size() - 1).id(), PageRequest.of(0, LOAD_PAGE_SIZE));
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = null;
+                changed.forEach(event -> apply(fresh, event));
+                index = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("[SEARCH] Index utilisateurs construit: {} entrées en {} ms", fresh.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringReload != null) {
+                changedDuringReload.add(event);
+            }
+            apply(index, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TrigramIndex target, UserChangedEvent event) {
+        if (event.removed()) {
+            target.remove(event.userId());
+        } else {
+            target.put(event.userId(), event.firstName(), event.lastName(), event.email(), event.phoneNumber());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<SearchHit> search(String term, int limit) {
+        return searchTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return index.search(term, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
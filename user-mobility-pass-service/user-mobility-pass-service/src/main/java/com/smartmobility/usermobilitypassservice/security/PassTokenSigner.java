@@ -0,0 +1,109 @@
+package com.smartmobility.usermobilitypassservice.security;
+
+import com.smartmobility.usermobilitypassservice.index.PassStatusEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signe les jetons de pass présentés en QR code aux portiques et contrôleurs, vérifiables hors ligne
+ * par la bibliothèque pass-token-verifier (format v1 décrit dans {@code PassTokenFormat}).
+ * <p>
+ * HMAC-SHA256 tronqué à 16 octets, clé identifiée par {@code pass.token.key-id} pour permettre la rotation :
+ * les terminaux gardent l'ancienne clé le temps que les jetons émis avec elle expirent ({@code ttl-seconds}).
+ * Sans {@code pass.token.secret}, une clé aléatoire est tirée au démarrage et les jetons ne sont
+ * vérifiables par aucun terminal.
+ */
+@Component
+@Slf4j
+public class PassTokenSigner {
+
+    static final int VERSION = 1;
+    static final int MAC_LENGTH = 16;
+    static final int NO_SUBSCRIPTION = -1;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final int keyId;
+    private final Duration ttl;
+    private final ThreadLocal<Mac> mac;
+    private final Counter issued;
+
+    public PassTokenSigner(MeterRegistry meterRegistry,
+                           @Value("${pass.token.secret:}") String secret,
+                           @Value("${pass.token.key-id:1}") int keyId,
+                           @Value("${pass.token.ttl-seconds:900}") long ttlSeconds) {
+        if (keyId < 0 || keyId > 255) {
+            throw new IllegalArgumentException("pass.token.key-id doit être compris entre 0 et 255");
+        }
+        byte[] secretBytes;
+        if (secret.isBlank()) {
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+            log.warn("[TOKEN] pass.token.secret absent : clé aléatoire, jetons non vérifiables par les terminaux");
+        } else {
+            secretBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(secretBytes, MAC_ALGORITHM);
+        this.keyId = keyId;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.issued = Counter.builder("pass.token.issued").register(meterRegistry);
+    }
+
+    public int keyId() {
+        return keyId;
+    }
+
+    public Instant expiresAt(Instant issuedAt) {
+        return issuedAt.plus(ttl);
+    }
+
+    /**
+     * Jeton base64url pour l'état du pass à {@code issuedAt}. Le solde n'est signé qu'à titre
+     * d'information : il peut baisser pendant le ttl, les terminaux ne s'en servent pas pour accepter.
+     */
+    public String sign(String passNumber, PassStatusEntry entry, Instant issuedAt) {
+        byte[] number = passNumber.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(24 + number.length + MAC_LENGTH)
+                .put((byte) VERSION)
+                .put((byte) keyId)
+                .putInt((int) issuedAt.getEpochSecond())
+                .putInt((int) expiresAt(issuedAt).getEpochSecond())
+                .put((byte) entry.status().ordinal())
+                .putInt(entry.subscriptionEndEpochDay() == PassStatusEntry.NO_SUBSCRIPTION
+                        ? NO_SUBSCRIPTION : (int) entry.subscriptionEndEpochDay())
+                .putLong(Math.max(0, entry.balanceCents()))
+                .put((byte) number.length)
+                .put(number);
+        byte[] bytes = buffer.array();
+        Mac hmac = mac.get();
+        hmac.update(bytes, 0, buffer.position());
+        byte[] digest = hmac.doFinal();
+        System.arraycopy(digest, 0, bytes, buffer.position(), MAC_LENGTH);
+        issued.increment();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance(MAC_ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponible", e);
+        }
+    }
+}
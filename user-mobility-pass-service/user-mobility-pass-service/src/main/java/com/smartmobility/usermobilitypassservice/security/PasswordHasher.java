@@ -0,0 +1,167 @@
+package com.smartmobility.usermobilitypassservice.security;
+
+import com.smartmobility.usermobilitypassservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hachage des mots de passe en Argon2id sur un pool borné, distinct des threads HTTP.
+ * <p>
+ * La mémoire et le parallélisme sont fixés par configuration ; le nombre d'itérations est calibré
+ * au démarrage pour qu'un hachage prenne environ {@code password.hash.target-ms} sur cette machine.
+ * Un hash produit avec des paramètres plus faibles est signalé par {@link #needsRehash(String)},
+ * ce qui permet de le remplacer à la connexion suivante. Quand la file est pleine, l'appel
+ * échoue immédiatement ({@link ServiceBusyException}) plutôt que de saturer le CPU.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final int MAX_ITERATIONS = 10;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final ThreadPoolExecutor executor;
+    private final Argon2PasswordEncoder encoder;
+    private final int iterations;
+    private final int batchWindow;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${password.hash.memory-kib:19456}") int memoryKib,
+                          @Value("${password.hash.parallelism:1}") int parallelism,
+                          @Value("${password.hash.target-ms:250}") long targetMs,
+                          @Value("${password.hash.threads:0}") int threads,
+                          @Value("${password.hash.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.batchWindow = Math.max(poolSize * 2, 1);
+
+        this.iterations = calibrate(memoryKib, parallelism, targetMs);
+        this.encoder = new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, iterations);
+        log.info("[PASSWORD] Argon2id m={} KiB, p={}, t={} (cible {} ms), pool de {} threads, file de {}",
+                memoryKib, parallelism, iterations, targetMs, poolSize, queueCapacity);
+
+        this.hashTimer = Timer.builder("password.hash").tag("operation", "hash").register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hash").tag("operation", "verify").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("password.hash.iterations", this, h -> h.iterations).register(meterRegistry);
+    }
+
+    /**
+     * Plus petit nombre d'itérations atteignant la latence cible (borné à {@value #MAX_ITERATIONS}).
+     */
+    private static int calibrate(int memoryKib, int parallelism, long targetMs) {
+        Argon2PasswordEncoder warmUp = new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, 1);
+        warmUp.encode(CALIBRATION_PASSWORD);
+        for (int t = 1; t < MAX_ITERATIONS; t++) {
+            Argon2PasswordEncoder candidate = new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, t);
+            long start = System.nanoTime();
+            candidate.encode(CALIBRATION_PASSWORD);
+            if ((System.nanoTime() - start) / 1_000_000 >= targetMs) {
+                return t;
+            }
+        }
+        return MAX_ITERATIONS;
+    }
+
+    public String hash(String rawPassword) {
+        return await(submit(() -> hashTimer.record(() -> encoder.encode(rawPassword))));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null || rawPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith("$argon2")) {
+            // Mot de passe enregistré en clair avant la mise en place du hachage : re-haché à la connexion
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return await(submit(() -> verifyTimer.record(() -> encoder.matches(rawPassword, encodedPassword))));
+    }
+
+    /**
+     * Vrai si le hash a été produit avec des paramètres plus faibles que ceux en vigueur
+     * (ou n'est pas un hash Argon2, comme les mots de passe enregistrés en clair avant le hachage).
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("$argon2")) {
+            return true;
+        }
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hache une liste de mots de passe (import en masse) par fenêtres, pour ne pas remplir la file
+     * au détriment des inscriptions unitaires.
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += batchWindow) {
+            List<CompletableFuture<String>> window = rawPasswords
+                    .subList(from, Math.min(from + batchWindow, rawPasswords.size())).stream()
+                    .map(raw -> submit(() -> hashTimer.record(() -> encoder.encode(raw))))
+                    .toList();
+            window.forEach(future -> hashes.add(await(future)));
+        }
+        return hashes;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("[PASSWORD] File de hachage pleine ({} en attente)", executor.getQueue().size());
+            throw new ServiceBusyException("Service momentanément surchargé, veuillez réessayer");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,177 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.LedgerEntryDTO;
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntryType;
+import com.smartmobility.usermobilitypassservice.id.UuidV7;
+import com.smartmobility.usermobilitypassservice.repository.LedgerEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Journal des mouvements de solde (table {@code balance_ledger}, ajout seul) et ses snapshots.
+ * <p>
+ * Le solde se dérive du dernier snapshot du pass plus la somme des mouvements suivants.
+ * La colonne {@code mobility_passes.balance} reste la garde atomique des débits : chaque
+ * mouvement est inséré dans la même transaction que l'UPDATE conditionnel correspondant.
+ */
+@Service
+@Slf4j
+public class BalanceLedgerService {
+
+    private static final String INSERT_ENTRY = "INSERT INTO balance_ledger (pass_number, type, amount, reference, created_at) "
+            + "VALUES (:passNumber, :type, :amount, :reference, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final long snapshotLagMs;
+
+    public BalanceLedgerService(NamedParameterJdbcTemplate jdbc,
+                                LedgerEntryRepository ledgerEntryRepository,
+                                @Value("${pass.ledger.snapshot-lag-ms:60000}") long snapshotLagMs) {
+        this.jdbc = jdbc;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.snapshotLagMs = snapshotLagMs;
+    }
+
+    /**
+     * Mouvement à enregistrer ; {@code amount} est signé.
+     */
+    public record Movement(String passNumber, LedgerEntryType type, BigDecimal amount, String reference) {
+    }
+
+    /**
+     * Ajoute un mouvement ; une référence déjà présente lève {@link DuplicateKeyException}.
+     */
+    public void append(Movement movement) {
+        jdbc.update(INSERT_ENTRY, params(movement, Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    public void appendAll(List<Movement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(INSERT_ENTRY, movements.stream()
+                .map(m -> params(m, now))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public static String newReference(LedgerEntryType type) {
+        return type.name().toLowerCase() + ":" + UuidV7.next();
+    }
+
+    public Set<String> existingReferences(Collection<String> references) {
+        if (references.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.queryForList(
+                "SELECT reference FROM balance_ledger WHERE reference IN (:references)",
+                new MapSqlParameterSource("references", references), String.class));
+    }
+
+    /**
+     * Solde dérivé du journal : dernier snapshot + mouvements postérieurs.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal ledgerBalance(String passNumber) {
+        MapSqlParameterSource params = new MapSqlParameterSource("passNumber", passNumber);
+        List<Object[]> snapshot = jdbc.query(
+                "SELECT balance, last_entry_id FROM balance_snapshots WHERE pass_number = :passNumber",
+                params, (rs, i) -> new Object[]{rs.getBigDecimal(1), rs.getLong(2)});
+        BigDecimal base = snapshot.isEmpty() ? BigDecimal.ZERO : (BigDecimal) snapshot.get(0)[0];
+        long after = snapshot.isEmpty() ? 0L : (Long) snapshot.get(0)[1];
+
+        BigDecimal tail = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM balance_ledger WHERE pass_number = :passNumber AND id > :after",
+                params.addValue("after", after), BigDecimal.class);
+        return base.add(tail);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerEntryDTO> history(String passNumber, int limit) {
+        return ledgerEntryRepository.findByPassNumberOrderByIdDesc(passNumber, PageRequest.of(0, limit)).stream()
+                .map(e -> new LedgerEntryDTO(e.getId(), e.getType(), e.getAmount(), e.getReference(), e.getCreatedAt()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${pass.ledger.snapshot-interval-ms:900000}")
+    public void scheduledSnapshots() {
+        takeSnapshots();
+    }
+
+    /**
+     * Avance les snapshots des pass ayant des mouvements depuis leur dernier snapshot.
+     * Seuls les mouvements plus anciens que {@code pass.ledger.snapshot-lag-ms} sont intégrés :
+     * un identifiant plus petit qu'un identifiant déjà visible peut encore être en cours de commit.
+     */
+    @Transactional
+    public int takeSnapshots() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusNanos(snapshotLagMs * 1_000_000));
+        Long upTo = jdbc.queryForObject("SELECT MAX(id) FROM balance_ledger WHERE created_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff), Long.class);
+        if (upTo == null) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<MapSqlParameterSource> rows = jdbc.query(
+                "SELECT l.pass_number, SUM(l.amount), MAX(l.id), MAX(s.last_entry_id), MAX(s.balance) "
+                        + "FROM balance_ledger l LEFT JOIN balance_snapshots s ON s.pass_number = l.pass_number "
+                        + "WHERE l.id > COALESCE(s.last_entry_id, 0) AND l.id <= :upTo GROUP BY l.pass_number",
+                new MapSqlParameterSource("upTo", upTo),
+                (rs, i) -> {
+                    long previous = rs.getLong(4);
+                    boolean exists = !rs.wasNull();
+                    BigDecimal base = exists ? rs.getBigDecimal(5) : BigDecimal.ZERO;
+                    return new MapSqlParameterSource()
+                            .addValue("passNumber", rs.getString(1))
+                            .addValue("balance", base.add(rs.getBigDecimal(2)))
+                            .addValue("lastEntryId", rs.getLong(3))
+                            .addValue("previousEntryId", exists ? previous : null)
+                            .addValue("takenAt", now);
+                });
+
+        int written = 0;
+        for (MapSqlParameterSource row : rows) {
+            if (row.getValue("previousEntryId") != null) {
+                written += jdbc.update("UPDATE balance_snapshots SET balance = :balance, last_entry_id = :lastEntryId, "
+                        + "taken_at = :takenAt WHERE pass_number = :passNumber AND last_entry_id = :previousEntryId", row);
+            } else {
+                try {
+                    written += jdbc.update("INSERT INTO balance_snapshots (pass_number, balance, last_entry_id, taken_at) "
+                            + "VALUES (:passNumber, :balance, :lastEntryId, :takenAt)", row);
+                } catch (DuplicateKeyException e) {
+                    log.debug("Snapshot du pass {} déjà créé par une autre instance", row.getValue("passNumber"));
+                }
+            }
+        }
+        if (written > 0) {
+            log.info("Snapshots de solde avancés: {} pass, jusqu'au mouvement {}", written, upTo);
+        }
+        return written;
+    }
+
+    private static MapSqlParameterSource params(Movement movement, Timestamp createdAt) {
+        return new MapSqlParameterSource()
+                .addValue("passNumber", movement.passNumber())
+                .addValue("type", movement.type().name())
+                .addValue("amount", movement.amount())
+                .addValue("reference", movement.reference())
+                .addValue("createdAt", createdAt);
+    }
+}
@@ -0,0 +1,269 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitRequest;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse.ItemResult;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse.Outcome;
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntryType;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.exception.ValidationException;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.PassOwnerRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Règlement groupé des débits de trajets.
+ * <p>
+ * Les éléments sont traités par tranches, une transaction par tranche : les pass concernés
+ * sont verrouillés ({@code SELECT ... FOR UPDATE}), les débits répartis dans l'ordre de la
+ * requête, puis appliqués en deux lots JDBC (un UPDATE par pass avec le total, un mouvement
+ * FARE_DEBIT par trajet dans le journal). Un tripId déjà présent comme référence du journal
+ * est signalé DUPLICATE sans nouveau débit. Une tranche qui échoue (y compris après la nouvelle
+ * tentative sur référence concurrente) est annulée seule : ses éléments sont signalés FAILED et
+ * les résultats des tranches déjà validées sont conservés.
+ */
+@Service
+@Slf4j
+public class FareSettlementService {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final MobilityPassRepository mobilityPassRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public FareSettlementService(NamedParameterJdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 MobilityPassRepository mobilityPassRepository,
+                                 BalanceLedgerService balanceLedgerService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${pass.debit.batch.chunk-size:500}") int chunkSize,
+                                 @Value("${pass.debit.batch.max-items:5000}") int maxItems) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public BatchDebitResponse debitBatch(BatchDebitRequest request) {
+        List<BatchDebitRequest.Item> items = request != null ? request.getItems() : null;
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("La liste des débits est obligatoire");
+        }
+        if (items.size() > maxItems) {
+            throw new ValidationException("Trop de débits dans un lot (maximum " + maxItems + ")");
+        }
+        long start = System.currentTimeMillis();
+
+        ItemResult[] results = new ItemResult[items.size()];
+        List<Integer> pending = precheck(items, results);
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            Set<String> touched;
+            try {
+                touched = settleChunkWithRetry(items, chunk, results);
+            } catch (RuntimeException e) {
+                log.error("Tranche de {} débits annulée: {}", chunk.size(), e.getMessage(), e);
+                chunk.forEach(index -> results[index] = result(index, items.get(index), null, Outcome.FAILED, null));
+                continue;
+            }
+            publishChanges(touched);
+        }
+
+        int applied = 0;
+        int duplicates = 0;
+        for (ItemResult result : results) {
+            if (result.getOutcome() == Outcome.APPLIED) {
+                applied++;
+            } else if (result.getOutcome() == Outcome.DUPLICATE) {
+                duplicates++;
+            }
+        }
+        log.info("Lot de débits traité: {} éléments, {} appliqués, {} doublons en {} ms",
+                items.size(), applied, duplicates, System.currentTimeMillis() - start);
+        return new BatchDebitResponse(applied, duplicates, items.size() - applied - duplicates, List.of(results));
+    }
+
+    private Set<String> settleChunkWithRetry(List<BatchDebitRequest.Item> items, List<Integer> chunk, ItemResult[] results) {
+        try {
+            return transactionTemplate.execute(status -> settleChunk(items, chunk, results));
+        } catch (DuplicateKeyException e) {
+            // Un rejeu concurrent a inséré la même référence entre la vérification et l'insertion
+            log.warn("Référence de trajet insérée en concurrence, nouvelle tentative de la tranche");
+            return transactionTemplate.execute(status -> settleChunk(items, chunk, results));
+        }
+    }
+
+    /**
+     * Rejette les éléments invalides et les tripId répétés dans la requête ; retourne les index restants.
+     */
+    private static List<Integer> precheck(List<BatchDebitRequest.Item> items, ItemResult[] results) {
+        List<Integer> pending = new ArrayList<>(items.size());
+        Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchDebitRequest.Item item = items.get(i);
+            if (item == null || item.getTripId() == null || !validAmount(item.getAmount())
+                    || ((item.getPassNumber() == null || item.getPassNumber().isBlank()) && item.getUserId() == null)) {
+                results[i] = result(i, item, null, Outcome.INVALID, null);
+            } else if (!seen.add(item.getTripId())) {
+                results[i] = result(i, item, item.getPassNumber(), Outcome.DUPLICATE, null);
+            } else {
+                pending.add(i);
+            }
+        }
+        return pending;
+    }
+
+    private Set<String> settleChunk(List<BatchDebitRequest.Item> items, List<Integer> chunk, ItemResult[] results) {
+        Map<Integer, String> passOf = resolvePassNumbers(items, chunk);
+        Set<String> alreadyDebited = balanceLedgerService.existingReferences(
+                chunk.stream().map(i -> items.get(i).getTripId().toString()).toList());
+        Map<String, LockedPass> passes = lockPasses(passOf.values());
+
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        List<BalanceLedgerService.Movement> movements = new ArrayList<>();
+        Map<Integer, LockedPass> appliedTo = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int index : chunk) {
+            BatchDebitRequest.Item item = items.get(index);
+            String passNumber = passOf.get(index);
+            LockedPass pass = passNumber != null ? passes.get(passNumber) : null;
+
+            if (alreadyDebited.contains(item.getTripId().toString())) {
+                results[index] = result(index, item, passNumber, Outcome.DUPLICATE, null);
+            } else if (pass == null) {
+                results[index] = result(index, item, passNumber, Outcome.PASS_NOT_FOUND, null);
+            } else if (!"ACTIVE".equals(pass.status)) {
+                results[index] = result(index, item, passNumber, Outcome.PASS_INACTIVE, pass.balance);
+            } else if (pass.balance.compareTo(item.getAmount()) < 0) {
+                results[index] = result(index, item, passNumber, Outcome.INSUFFICIENT_BALANCE, pass.balance);
+            } else {
+                pass.balance = pass.balance.subtract(item.getAmount());
+                totals.merge(passNumber, item.getAmount(), BigDecimal::add);
+                appliedTo.put(index, pass);
+                movements.add(new BalanceLedgerService.Movement(passNumber, LedgerEntryType.FARE_DEBIT,
+                        item.getAmount().negate(), item.getTripId().toString()));
+            }
+        }
+
+        if (!totals.isEmpty()) {
+            MapSqlParameterSource[] updates = totals.entrySet().stream()
+                    .map(e -> new MapSqlParameterSource()
+                            .addValue("total", e.getValue())
+                            .addValue("usedAt", now)
+                            .addValue("passNumber", e.getKey()))
+                    .toArray(MapSqlParameterSource[]::new);
+            int[] counts = jdbc.batchUpdate(
+                    "UPDATE mobility_passes SET balance = balance - :total, version = version + 1, "
+                            + "last_used_at = :usedAt WHERE pass_number = :passNumber AND balance >= :total", updates);
+            for (int count : counts) {
+                if (count == 0) {
+                    throw new IllegalStateException("Solde modifié malgré le verrou pendant le règlement groupé");
+                }
+            }
+            balanceLedgerService.appendAll(movements);
+        }
+
+        appliedTo.forEach((index, pass) ->
+                results[index] = result(index, items.get(index), pass.passNumber, Outcome.APPLIED, pass.balance));
+        return totals.keySet();
+    }
+
+    private Map<Integer, String> resolvePassNumbers(List<BatchDebitRequest.Item> items, List<Integer> chunk) {
+        Set<UUID> userIds = new HashSet<>();
+        for (int index : chunk) {
+            BatchDebitRequest.Item item = items.get(index);
+            if (item.getPassNumber() == null || item.getPassNumber().isBlank()) {
+                userIds.add(item.getUserId());
+            }
+        }
+        Map<UUID, String> byUser = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (PassOwnerRow owner : mobilityPassRepository.findPassOwnersByUserIdIn(userIds)) {
+                byUser.put(owner.userId(), owner.passNumber());
+            }
+        }
+        Map<Integer, String> passOf = new HashMap<>();
+        for (int index : chunk) {
+            BatchDebitRequest.Item item = items.get(index);
+            String passNumber = item.getPassNumber() != null && !item.getPassNumber().isBlank()
+                    ? item.getPassNumber() : byUser.get(item.getUserId());
+            if (passNumber != null) {
+                passOf.put(index, passNumber);
+            }
+        }
+        return passOf;
+    }
+
+    private Map<String, LockedPass> lockPasses(Collection<String> passNumbers) {
+        Map<String, LockedPass> passes = new HashMap<>();
+        if (passNumbers.isEmpty()) {
+            return passes;
+        }
+        jdbc.query("SELECT pass_number, balance, status FROM mobility_passes "
+                        + "WHERE pass_number IN (:passNumbers) ORDER BY pass_number FOR UPDATE",
+                new MapSqlParameterSource("passNumbers", new HashSet<>(passNumbers)),
+                rs -> {
+                    LockedPass pass = new LockedPass(rs.getString(1), rs.getBigDecimal(2), rs.getString(3));
+                    passes.put(pass.passNumber, pass);
+                });
+        return passes;
+    }
+
+    private void publishChanges(Set<String> passNumbers) {
+        if (passNumbers == null || passNumbers.isEmpty()) {
+            return;
+        }
+        mobilityPassRepository.findStatusRowsByPassNumberIn(passNumbers)
+                .forEach(row -> eventPublisher.publishEvent(PassChangedEvent.of(row)));
+    }
+
+    private static boolean validAmount(BigDecimal amount) {
+        return amount != null && amount.signum() > 0 && amount.stripTrailingZeros().scale() <= 2;
+    }
+
+    private static ItemResult result(int index, BatchDebitRequest.Item item, String passNumber,
+                                     Outcome outcome, BigDecimal balance) {
+        return new ItemResult(index, item != null ? item.getTripId() : null, passNumber, outcome, balance);
+    }
+
+    private static final class LockedPass {
+        private final String passNumber;
+        private final String status;
+        private BigDecimal balance;
+
+        private LockedPass(String passNumber, BigDecimal balance, String status) {
+            this.passNumber = passNumber;
+            this.balance = balance;
+            this.status = status;
+        }
+    }
+}
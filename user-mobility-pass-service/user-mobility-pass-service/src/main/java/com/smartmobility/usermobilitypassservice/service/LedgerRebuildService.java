@@ -0,0 +1,191 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.LedgerRebuildReport;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.exception.ValidationException;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recalcule les soldes à partir du journal, en parallèle par tranches de pass.
+ * <p>
+ * Chaque tranche est traitée dans sa propre transaction : la somme des mouvements de chaque pass
+ * est comparée à {@code mobility_passes.balance}, soldes et sommes étant lus par une seule requête
+ * (même instantané, y compris en vérification sans verrou). Si {@code apply}, les pass sont d'abord
+ * verrouillés, les écarts corrigés et les snapshots réécrits.
+ * <p>
+ * Les pass créés avant le premier mouvement du journal (la bascule) reçoivent une seule fois, sous
+ * verrou, un mouvement d'ouverture égal à leur solde moins les mouvements déjà journalisés, même nul :
+ * il marque la bascule, et les écarts apparus ensuite sont bien corrigés au lieu d'être absorbés.
+ */
+@Service
+@Slf4j
+public class LedgerRebuildService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_PARALLELISM = 16;
+    private static final int SAMPLE_SIZE = 100;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final MobilityPassRepository mobilityPassRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LedgerRebuildService(NamedParameterJdbcTemplate jdbc,
+                                PlatformTransactionManager transactionManager,
+                                MobilityPassRepository mobilityPassRepository,
+                                ApplicationEventPublisher eventPublisher) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public LedgerRebuildReport rebuild(int parallelism, boolean apply) {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new ValidationException("Le parallélisme doit être compris entre 1 et " + MAX_PARALLELISM);
+        }
+        long start = System.currentTimeMillis();
+        log.info("Reconstruction des soldes depuis le journal - parallélisme={}, apply={}", parallelism, apply);
+
+        Timestamp cutover = cutover();
+        AtomicInteger openings = new AtomicInteger();
+
+        List<String> passNumbers = jdbc.queryForList(
+                "SELECT pass_number FROM mobility_passes ORDER BY pass_number", new MapSqlParameterSource(), String.class);
+
+        List<LedgerRebuildReport.Mismatch> mismatches = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<List<LedgerRebuildReport.Mismatch>>> chunks = new ArrayList<>();
+            for (int from = 0; from < passNumbers.size(); from += CHUNK_SIZE) {
+                List<String> chunk = passNumbers.subList(from, Math.min(from + CHUNK_SIZE, passNumbers.size()));
+                chunks.add(pool.submit(() -> transactionTemplate.execute(status -> rebuildChunk(chunk, apply, cutover, openings))));
+            }
+            for (Future<List<LedgerRebuildReport.Mismatch>> chunk : chunks) {
+                mismatches.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstruction interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la reconstruction: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (apply && !mismatches.isEmpty()) {
+            mobilityPassRepository.findStatusRowsByPassNumberIn(
+                            mismatches.stream().map(LedgerRebuildReport.Mismatch::getPassNumber).toList())
+                    .forEach(row -> eventPublisher.publishEvent(PassChangedEvent.of(row)));
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Reconstruction terminée: {} pass, {} écarts, {} mouvements d'ouverture en {} ms",
+                passNumbers.size(), mismatches.size(), openings, elapsed);
+        return new LedgerRebuildReport(passNumbers.size(), openings.get(), mismatches.size(), apply, elapsed,
+                mismatches.subList(0, Math.min(SAMPLE_SIZE, mismatches.size())));
+    }
+
+    /**
+     * Date du premier mouvement journalisé hors ouverture ; tant que le journal est vide, tous les
+     * pass existants sont antérieurs à la bascule.
+     */
+    private Timestamp cutover() {
+        Timestamp first = jdbc.queryForObject(
+                "SELECT MIN(created_at) FROM balance_ledger WHERE reference NOT LIKE 'opening:%'",
+                new MapSqlParameterSource(), Timestamp.class);
+        return first != null ? first : Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    private List<LedgerRebuildReport.Mismatch> rebuildChunk(List<String> chunk, boolean apply,
+                                                            Timestamp cutover, AtomicInteger openings) {
+        MapSqlParameterSource params = new MapSqlParameterSource("passNumbers", chunk);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        if (apply) {
+            jdbc.query("SELECT pass_number FROM mobility_passes WHERE pass_number IN (:passNumbers) "
+                    + "ORDER BY pass_number FOR UPDATE", params, rs -> {
+            });
+            openings.addAndGet(jdbc.update(
+                    "INSERT INTO balance_ledger (pass_number, type, amount, reference, created_at) "
+                            + "SELECT mp.pass_number, 'ADJUSTMENT', mp.balance - COALESCE("
+                            + "(SELECT SUM(l.amount) FROM balance_ledger l WHERE l.pass_number = mp.pass_number), 0), "
+                            + "CONCAT('opening:', mp.pass_number), :now "
+                            + "FROM mobility_passes mp WHERE mp.pass_number IN (:passNumbers) "
+                            + "AND mp.created_at < :cutover AND NOT EXISTS "
+                            + "(SELECT 1 FROM balance_ledger o WHERE o.reference = CONCAT('opening:', mp.pass_number))",
+                    new MapSqlParameterSource("passNumbers", chunk)
+                            .addValue("now", now)
+                            .addValue("cutover", cutover)));
+        }
+
+        Map<String, BigDecimal> balances = new HashMap<>();
+        Map<String, BigDecimal> sums = new HashMap<>();
+        Map<String, Long> lastIds = new HashMap<>();
+        jdbc.query("SELECT mp.pass_number, mp.balance, l.total, l.last_id FROM mobility_passes mp "
+                        + "LEFT JOIN (SELECT pass_number, SUM(amount) AS total, MAX(id) AS last_id FROM balance_ledger "
+                        + "WHERE pass_number IN (:passNumbers) GROUP BY pass_number) l ON l.pass_number = mp.pass_number "
+                        + "WHERE mp.pass_number IN (:passNumbers)",
+                params, rs -> {
+                    balances.put(rs.getString(1), rs.getBigDecimal(2));
+                    long lastId = rs.getLong(4);
+                    if (!rs.wasNull()) {
+                        sums.put(rs.getString(1), rs.getBigDecimal(3));
+                        lastIds.put(rs.getString(1), lastId);
+                    }
+                });
+
+        List<LedgerRebuildReport.Mismatch> mismatches = new ArrayList<>();
+        List<MapSqlParameterSource> fixes = new ArrayList<>();
+        List<MapSqlParameterSource> snapshots = new ArrayList<>();
+
+        balances.forEach((passNumber, balance) -> {
+            BigDecimal ledger = sums.getOrDefault(passNumber, BigDecimal.ZERO);
+            if (balance.compareTo(ledger) != 0) {
+                mismatches.add(new LedgerRebuildReport.Mismatch(passNumber, balance, ledger));
+                fixes.add(new MapSqlParameterSource().addValue("passNumber", passNumber).addValue("balance", ledger));
+            }
+            if (lastIds.containsKey(passNumber)) {
+                snapshots.add(new MapSqlParameterSource()
+                        .addValue("passNumber", passNumber)
+                        .addValue("balance", ledger)
+                        .addValue("lastEntryId", lastIds.get(passNumber))
+                        .addValue("takenAt", now));
+            }
+        });
+
+        if (apply) {
+            if (!fixes.isEmpty()) {
+                jdbc.batchUpdate("UPDATE mobility_passes SET balance = :balance, version = version + 1 "
+                        + "WHERE pass_number = :passNumber", fixes.toArray(MapSqlParameterSource[]::new));
+            }
+            jdbc.update("DELETE FROM balance_snapshots WHERE pass_number IN (:passNumbers)", params);
+            if (!snapshots.isEmpty()) {
+                jdbc.batchUpdate("INSERT INTO balance_snapshots (pass_number, balance, last_entry_id, taken_at) "
+                        + "VALUES (:passNumber, :balance, :lastEntryId, :takenAt)",
+                        snapshots.toArray(MapSqlParameterSource[]::new));
+            }
+        }
+        return mismatches;
+    }
+}
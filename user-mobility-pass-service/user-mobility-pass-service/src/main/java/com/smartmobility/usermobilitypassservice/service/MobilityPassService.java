@@ -1,25 +1,57 @@
 package com.smartmobility.usermobilitypassservice.service;
 
+import com.smartmobility.usermobilitypassservice.cache.PassReadCache;
+import com.smartmobility.usermobilitypassservice.config.ReplicaRoutingDataSource;
+import com.smartmobility.usermobilitypassservice.dto.BalanceOperationResponse;
 import com.smartmobility.usermobilitypassservice.dto.BalanceResponse;
+import com.smartmobility.usermobilitypassservice.dto.GateValidationResponse;
+import com.smartmobility.usermobilitypassservice.dto.LedgerBalanceResponse;
+import com.smartmobility.usermobilitypassservice.dto.LedgerEntryDTO;
 import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
+import com.smartmobility.usermobilitypassservice.dto.PageResponse;
+import com.smartmobility.usermobilitypassservice.dto.PassTokenResponse;
 import com.smartmobility.usermobilitypassservice.entity.*;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.exception.DuplicateResourceException;
+import com.smartmobility.usermobilitypassservice.exception.InsufficientBalanceException;
 import com.smartmobility.usermobilitypassservice.exception.InvalidOperationException;
+import com.smartmobility.usermobilitypassservice.exception.PassVersionConflictException;
 import com.smartmobility.usermobilitypassservice.exception.ResourceNotFoundException;
 import com.smartmobility.usermobilitypassservice.exception.ValidationException;
+import com.smartmobility.usermobilitypassservice.id.PassNumberGenerator;
+import com.smartmobility.usermobilitypassservice.id.PassNumbers;
+import com.smartmobility.usermobilitypassservice.index.GateDecision;
+import com.smartmobility.usermobilitypassservice.index.LowBalanceTracker;
+import com.smartmobility.usermobilitypassservice.index.PassStatusChange;
+import com.smartmobility.usermobilitypassservice.index.PassStatusEntry;
+import com.smartmobility.usermobilitypassservice.index.PassStatusIndex;
 import com.smartmobility.usermobilitypassservice.mapper.MobilityPassMapper;
 import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.PassStatusRow;
 import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import com.smartmobility.usermobilitypassservice.security.PassTokenSigner;
+import com.smartmobility.usermobilitypassservice.util.JsonArrayStreamer;
 import com.smartmobility.usermobilitypassservice.util.ValidationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -29,8 +61,17 @@ public class MobilityPassService {
     private final MobilityPassRepository mobilityPassRepository;
     private final UserRepository userRepository;
     private final MobilityPassMapper mobilityPassMapper;
-
-    private static final BigDecimal LOW_BALANCE_THRESHOLD = new BigDecimal("500");
+    private final PassStatusIndex passStatusIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PassNumberGenerator passNumberGenerator;
+    private final BalanceLedgerService balanceLedgerService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final PassReadCache passReadCache;
+    private final LowBalanceTracker lowBalanceTracker;
+    private final PassTokenSigner passTokenSigner;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int IN_CHUNK_SIZE = 1000;
 
     @Transactional
     public MobilityPassDTO createMobilityPass(UUID userId) {
@@ -43,22 +84,30 @@ public class MobilityPassService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + userId));
 
-        if (mobilityPassRepository.findByUserId(userId).isPresent()) {
+        if (mobilityPassRepository.existsByUserId(userId)) {
             throw new InvalidOperationException("L'utilisateur possède déjà un Mobility Pass");
         }
 
+        MobilityPass savedPass = mobilityPassRepository.save(newPass(user));
+        eventPublisher.publishEvent(PassChangedEvent.of(savedPass));
+
+        log.info("Mobility Pass créé avec succès: {}", savedPass.getPassNumber());
+
+        return mobilityPassMapper.toDto(savedPass);
+    }
+
+    /**
+     * Pass vierge (solde nul, actif, sans abonnement) rattaché à l'utilisateur, non encore persisté.
+     */
+    MobilityPass newPass(User user) {
         MobilityPass mobilityPass = new MobilityPass();
+        mobilityPass.setPassNumber(passNumberGenerator.next());
         mobilityPass.setUser(user);
         mobilityPass.setBalance(BigDecimal.ZERO);
         mobilityPass.setStatus(PassStatus.ACTIVE);
         mobilityPass.setSubscriptionType(SubscriptionType.NONE);
         mobilityPass.setLoyaltyPoints(0);
-
-        MobilityPass savedPass = mobilityPassRepository.save(mobilityPass);
-
-        log.info("Mobility Pass créé avec succès: {}", savedPass.getPassNumber());
-
-        return mobilityPassMapper.toDto(savedPass);
+        return mobilityPass;
     }
 
     public MobilityPassDTO getMobilityPassById(UUID id) {
@@ -68,9 +117,8 @@ public class MobilityPassService {
             throw new ValidationException("L'ID du pass est obligatoire");
         }
 
-        MobilityPass pass = mobilityPassRepository.findById(id)
+        return mobilityPassRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé avec l'ID: " + id));
-        return mobilityPassMapper.toDto(pass);
     }
 
     public MobilityPassDTO getMobilityPassByPassNumber(String passNumber) {
@@ -78,9 +126,8 @@ public class MobilityPassService {
 
         ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
 
-        MobilityPass pass = mobilityPassRepository.findByPassNumber(passNumber)
+        return passReadCache.getByPassNumber(passNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
-        return mobilityPassMapper.toDto(pass);
     }
 
     public MobilityPassDTO getMobilityPassByUserId(UUID userId) {
@@ -90,9 +137,8 @@ public class MobilityPassService {
             throw new ValidationException("L'ID utilisateur est obligatoire");
         }
 
-        MobilityPass pass = mobilityPassRepository.findByUserId(userId)
+        return passReadCache.getByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Aucun Mobility Pass trouvé pour cet utilisateur"));
-        return mobilityPassMapper.toDto(pass);
     }
 
     public BalanceResponse getBalance(String passNumber) {
@@ -100,7 +146,7 @@ public class MobilityPassService {
 
         ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
 
-        MobilityPass pass = mobilityPassRepository.findByPassNumber(passNumber)
+        MobilityPassDTO pass = passReadCache.getByPassNumber(passNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
 
         BalanceResponse response = new BalanceResponse();
@@ -108,7 +154,7 @@ public class MobilityPassService {
         response.setBalance(pass.getBalance());
         response.setStatus(pass.getStatus().name());
 
-        if (pass.getBalance().compareTo(LOW_BALANCE_THRESHOLD) < 0) {
+        if (pass.getBalance().compareTo(LowBalanceTracker.LOW_BALANCE_THRESHOLD) < 0) {
             response.setMessage("Attention: Solde faible. Veuillez recharger votre pass.");
         } else {
             response.setMessage("Solde suffisant");
@@ -117,6 +163,179 @@ public class MobilityPassService {
         return response;
     }
 
+    /**
+     * Contrôle portique : répond depuis l'index mémoire, sans accès base une fois l'index chargé.
+     */
+    public GateValidationResponse validateAtGate(String passNumber, BigDecimal fare) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        if (fare != null && fare.signum() < 0) {
+            throw new ValidationException("Le tarif ne peut pas être négatif");
+        }
+
+        if (!PassNumbers.isValid(passNumber) && !PassNumbers.isLegacy(passNumber)) {
+            return new GateValidationResponse(passNumber, false, GateDecision.INVALID_PASS_NUMBER.name(), null, null);
+        }
+
+        PassStatusEntry entry = statusEntry(passNumber);
+        GateDecision decision = passStatusIndex.decide(entry, fare);
+        return new GateValidationResponse(
+                passNumber,
+                decision.isAllowed(),
+                decision.name(),
+                entry != null ? entry.balance() : null,
+                entry != null ? entry.subscriptionEndDate() : null);
+    }
+
+    /**
+     * Jeton signé à courte durée de vie pour le QR code du pass, vérifiable hors ligne par les terminaux.
+     * Les droits signés sont lus sur la ligne du primaire et non dans l'index mémoire, qui ne voit les
+     * écritures des autres instances qu'à la resynchronisation : un pass bloqué ailleurs n'obtient plus de jeton.
+     */
+    public PassTokenResponse issueToken(String passNumber) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        PassStatusEntry entry = ReplicaRoutingDataSource.readFromPrimary(() ->
+                mobilityPassRepository.findStatusRowByPassNumber(passNumber))
+                .map(p -> PassStatusEntry.of(p.status(), p.balance(), p.subscriptionType(), p.subscriptionEndDate()))
+                .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé avec le numéro: " + passNumber));
+        Instant issuedAt = Instant.now();
+        String token = passTokenSigner.sign(passNumber, entry, issuedAt);
+        return new PassTokenResponse(passNumber, token, passTokenSigner.keyId(), passTokenSigner.expiresAt(issuedAt));
+    }
+
+    private PassStatusEntry statusEntry(String passNumber) {
+        if (passStatusIndex.isReady()) {
+            return passStatusIndex.get(passNumber);
+        }
+        return mobilityPassRepository.findStatusRowByPassNumber(passNumber)
+                .map(p -> PassStatusEntry.of(p.status(), p.balance(), p.subscriptionType(), p.subscriptionEndDate()))
+                .orElse(null);
+    }
+
+    /**
+     * Débite le pass par un UPDATE conditionnel unique (pas de lecture préalable ni de verrou
+     * applicatif). Si {@code expectedVersion} est fourni, le débit échoue en conflit dès que
+     * le pass a été modifié depuis la lecture de l'appelant. Le mouvement est inscrit au journal
+     * dans la même transaction ; une référence déjà connue est refusée.
+     */
+    @Transactional
+    public BalanceOperationResponse debit(String passNumber, BigDecimal amount, Long expectedVersion, String reference) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        validateAmount(amount);
+
+        appendToLedger(passNumber, LedgerEntryType.FARE_DEBIT, amount.negate(), reference);
+        int updated = expectedVersion == null
+                ? mobilityPassRepository.debit(passNumber, amount, LocalDateTime.now())
+                : mobilityPassRepository.debitIfVersion(passNumber, amount, expectedVersion, LocalDateTime.now());
+        if (updated == 0) {
+            throw debitRejection(passNumber, amount, expectedVersion);
+        }
+        return balanceOperationResult(passNumber, "DEBIT", amount);
+    }
+
+    /**
+     * Recharge ({@code TOP_UP}) ou remboursement ({@code REFUND}, référence obligatoire).
+     */
+    @Transactional
+    public BalanceOperationResponse credit(String passNumber, BigDecimal amount, LedgerEntryType type, String reference) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        validateAmount(amount);
+        if (type != LedgerEntryType.TOP_UP && type != LedgerEntryType.REFUND) {
+            throw new ValidationException("Type de crédit invalide: " + type);
+        }
+        if (type == LedgerEntryType.REFUND && (reference == null || reference.isBlank())) {
+            throw new ValidationException("La référence du trajet remboursé est obligatoire");
+        }
+
+        appendToLedger(passNumber, type, amount, reference);
+        if (mobilityPassRepository.credit(passNumber, amount) == 0) {
+            mobilityPassRepository.findStatusRowByPassNumber(passNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
+            throw new InvalidOperationException("Impossible de créditer un pass expiré");
+        }
+        return balanceOperationResult(passNumber, type.name(), amount);
+    }
+
+    /**
+     * Ajustement manuel signé ; un ajustement négatif ne peut pas rendre le solde négatif.
+     */
+    @Transactional
+    public BalanceOperationResponse adjust(String passNumber, BigDecimal delta, String reference) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        if (delta == null || delta.signum() == 0) {
+            throw new ValidationException("Le montant de l'ajustement doit être non nul");
+        }
+        validateAmount(delta.abs());
+
+        appendToLedger(passNumber, LedgerEntryType.ADJUSTMENT, delta, reference);
+        if (mobilityPassRepository.adjust(passNumber, delta) == 0) {
+            PassStatusRow row = mobilityPassRepository.findStatusRowByPassNumber(passNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
+            throw new InsufficientBalanceException("Ajustement refusé, solde insuffisant: " + row.balance());
+        }
+        return balanceOperationResult(passNumber, LedgerEntryType.ADJUSTMENT.name(), delta);
+    }
+
+    public LedgerBalanceResponse getLedgerBalance(String passNumber) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        PassStatusRow row = mobilityPassRepository.findStatusRowByPassNumber(passNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
+        BigDecimal ledgerBalance = balanceLedgerService.ledgerBalance(passNumber);
+        return new LedgerBalanceResponse(passNumber, row.balance(), ledgerBalance,
+                row.balance().compareTo(ledgerBalance) == 0);
+    }
+
+    public List<LedgerEntryDTO> getLedger(String passNumber, int limit) {
+        ValidationUtils.validateNotEmpty(passNumber, "Numéro de pass");
+        if (limit < 1 || limit > 500) {
+            throw new ValidationException("La limite doit être comprise entre 1 et 500");
+        }
+        return balanceLedgerService.history(passNumber, limit);
+    }
+
+    private void appendToLedger(String passNumber, LedgerEntryType type, BigDecimal signedAmount, String reference) {
+        String ref = reference == null || reference.isBlank() ? BalanceLedgerService.newReference(type) : reference;
+        try {
+            balanceLedgerService.append(new BalanceLedgerService.Movement(passNumber, type, signedAmount, ref));
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Mouvement déjà enregistré pour la référence: " + ref);
+        }
+    }
+
+    private BalanceOperationResponse balanceOperationResult(String passNumber, String operation, BigDecimal amount) {
+        PassStatusRow row = mobilityPassRepository.findStatusRowByPassNumber(passNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber));
+        eventPublisher.publishEvent(PassChangedEvent.of(row));
+        log.info("{} de {} sur le pass {} - nouveau solde {}", operation, amount, passNumber, row.balance());
+        return new BalanceOperationResponse(passNumber, operation, amount, row.balance(), row.version());
+    }
+
+    /**
+     * L'UPDATE n'a touché aucune ligne : relit l'état pour retourner la cause exacte.
+     */
+    private RuntimeException debitRejection(String passNumber, BigDecimal amount, Long expectedVersion) {
+        PassStatusRow row = mobilityPassRepository.findStatusRowByPassNumber(passNumber).orElse(null);
+        if (row == null) {
+            return new ResourceNotFoundException("Mobility Pass non trouvé: " + passNumber);
+        }
+        if (expectedVersion != null && row.version() != expectedVersion) {
+            return new PassVersionConflictException("Le pass " + passNumber + " a été modifié (version attendue "
+                    + expectedVersion + ", actuelle " + row.version() + ")");
+        }
+        if (row.status() != PassStatus.ACTIVE) {
+            return new InvalidOperationException("Impossible de débiter un pass non actif");
+        }
+        return new InsufficientBalanceException("Solde insuffisant: " + row.balance() + " < " + amount);
+    }
+
+    private static void validateAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new ValidationException("Le montant doit être strictement positif");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new ValidationException("Le montant ne peut pas avoir plus de 2 décimales");
+        }
+    }
+
     @Transactional
     public MobilityPassDTO suspendPass(String passNumber) {
         log.info("Suspension du Mobility Pass: {}", passNumber);
@@ -132,6 +351,7 @@ public class MobilityPassService {
 
         pass.setStatus(PassStatus.SUSPENDED);
         MobilityPass updatedPass = mobilityPassRepository.save(pass);
+        eventPublisher.publishEvent(PassChangedEvent.of(updatedPass));
 
         log.info("Pass suspendu avec succès");
         return mobilityPassMapper.toDto(updatedPass);
@@ -156,6 +376,7 @@ public class MobilityPassService {
 
         pass.setStatus(PassStatus.ACTIVE);
         MobilityPass updatedPass = mobilityPassRepository.save(pass);
+        eventPublisher.publishEvent(PassChangedEvent.of(updatedPass));
 
         log.info("Pass réactivé avec succès");
         return mobilityPassMapper.toDto(updatedPass);
@@ -194,16 +415,66 @@ public class MobilityPassService {
         }
 
         MobilityPass updatedPass = mobilityPassRepository.save(pass);
+        eventPublisher.publishEvent(PassChangedEvent.of(updatedPass));
 
         log.info("Abonnement mis à jour avec succès");
         return mobilityPassMapper.toDto(updatedPass);
     }
 
-    public List<MobilityPassDTO> getAllPasses() {
-        log.info("Récupération de tous les Mobility Pass");
-        return mobilityPassRepository.findAll().stream()
-                .map(mobilityPassMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Liste paginée des pass : par numéro de page si {@code page} est fourni, sinon par curseur
+     * (identifiant du dernier pass reçu), sans requête de comptage.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<MobilityPassDTO> listPasses(Integer page, UUID after, int size) {
+        log.info("Récupération des Mobility Pass - page={}, after={}, size={}", page, after, size);
+        ValidationUtils.validatePageSize(size, MAX_PAGE_SIZE);
+
+        if (page != null) {
+            if (page < 0) {
+                throw new ValidationException("Le numéro de page ne peut pas être négatif");
+            }
+            Page<MobilityPassDTO> result = mobilityPassRepository.findDtoPage(
+                    PageRequest.of(page, size, Sort.by("id")));
+            return new PageResponse<>(result.getContent(), page, size, result.getTotalElements(), null);
+        }
+
+        List<MobilityPassDTO> passes = after == null
+                ? mobilityPassRepository.findFirstDtos(PageRequest.of(0, size))
+                : mobilityPassRepository.findDtosAfter(after, PageRequest.of(0, size));
+        String nextCursor = passes.size() == size ? passes.get(size - 1).getId().toString() : null;
+        return new PageResponse<>(passes, null, size, null, nextCursor);
+    }
+
+    /**
+     * Écrit tous les pass en JSON au fil de la lecture du curseur ; la projection ne crée aucune
+     * entité, le contexte de persistance reste vide.
+     */
+    @Transactional(readOnly = true)
+    public long writeAllPasses(OutputStream out) {
+        try (Stream<MobilityPassDTO> passes = mobilityPassRepository.streamAllDtos()) {
+            long count = jsonArrayStreamer.write(out, passes, Function.identity());
+            log.info("Export en flux de {} Mobility Pass", count);
+            return count;
+        }
+    }
+
+    /**
+     * Instantané userId -> statut de tous les pass pour les copies distantes ; la séquence du flux
+     * de changements doit être relevée avant l'appel. Lu sur le primaire : un réplica en retard
+     * renverrait un état plus ancien que la séquence annoncée, et les changements manquants ne
+     * seraient jamais rejoués par le flux.
+     */
+    @Transactional(readOnly = true)
+    public long writeStatusSnapshot(OutputStream out, long sequence) {
+        return ReplicaRoutingDataSource.readFromPrimary(() -> {
+            try (Stream<PassStatusRow> rows = mobilityPassRepository.streamAllStatusRows()) {
+                long count = jsonArrayStreamer.write(out, rows, row -> new PassStatusChange(sequence, row.userId(),
+                        row.passNumber(), row.status(), row.subscriptionType(), row.subscriptionEndDate(), false));
+                log.info("Instantané des statuts de {} pass (séquence {})", count, sequence);
+                return count;
+            }
+        });
     }
 
     public List<MobilityPassDTO> getPassesByStatus(PassStatus status) {
@@ -213,23 +484,25 @@ public class MobilityPassService {
             throw new ValidationException("Le statut est obligatoire");
         }
 
-        return mobilityPassRepository.findByStatus(status).stream()
-                .map(mobilityPassMapper::toDto)
-                .collect(Collectors.toList());
+        return mobilityPassRepository.findDtosByStatus(status);
     }
 
     public List<MobilityPassDTO> getLowBalancePasses() {
         log.info("Recherche des pass avec un solde faible");
-        return mobilityPassRepository.findByBalanceLessThanAndStatus(LOW_BALANCE_THRESHOLD, PassStatus.ACTIVE)
-                .stream()
-                .map(mobilityPassMapper::toDto)
-                .collect(Collectors.toList());
+        List<String> passNumbers = lowBalanceTracker.passNumbers();
+        List<MobilityPassDTO> passes = new ArrayList<>(passNumbers.size());
+        for (int from = 0; from < passNumbers.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = passNumbers.subList(from, Math.min(from + IN_CHUNK_SIZE, passNumbers.size()));
+            // Relecture par clé unique : un pass remonté au-dessus du seuil entre-temps est écarté.
+            mobilityPassRepository.findDtosByPassNumberIn(chunk).stream()
+                    .filter(dto -> LowBalanceTracker.isLow(dto.getStatus(), dto.getBalance()))
+                    .forEach(passes::add);
+        }
+        return passes;
     }
 
     public List<MobilityPassDTO> getExpiredSubscriptions() {
         log.info("Recherche des abonnements expirés");
-        return mobilityPassRepository.findExpiredSubscriptions().stream()
-                .map(mobilityPassMapper::toDto)
-                .collect(Collectors.toList());
+        return mobilityPassRepository.findExpiredSubscriptionDtos();
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.SubscriptionExpiryReport;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.event.SubscriptionExpiredEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.PassStatusRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Passe à EXPIRED les pass actifs dont l'abonnement est échu, par tranches.
+ * <p>
+ * Chaque tranche lit un lot d'identifiants sans verrou (index status, subscription_end_date), puis
+ * l'expire par un UPDATE groupé sur la clé primaire dans sa propre transaction courte : seuls les
+ * pass de la tranche sont verrouillés, le temps d'un UPDATE. Les événements partent après commit.
+ */
+@Service
+@Slf4j
+public class SubscriptionExpiryService {
+
+    private final MobilityPassRepository mobilityPassRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Timer runTimer;
+    private final Counter expiredCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SubscriptionExpiryService(MobilityPassRepository mobilityPassRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${pass.expiry.chunk-size:500}") int chunkSize,
+                                     @Value("${pass.expiry.max-chunks-per-run:200}") int maxChunks) {
+        this.mobilityPassRepository = mobilityPassRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.runTimer = meterRegistry.timer("pass.expiry.run");
+        this.expiredCounter = meterRegistry.counter("pass.expiry.expired");
+    }
+
+    @Scheduled(cron = "${pass.expiry.cron:0 5 * * * *}")
+    public void scheduledExpiry() {
+        expireDueSubscriptions(LocalDate.now());
+    }
+
+    /**
+     * Expire les abonnements échus avant {@code today}. Un seul passage à la fois par instance ;
+     * un passage concurrent sur une autre instance est sans risque (condition revérifiée à l'UPDATE).
+     */
+    public SubscriptionExpiryReport expireDueSubscriptions(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("[EXPIRY] Traitement déjà en cours, passage ignoré");
+            return new SubscriptionExpiryReport(today, 0, 0, false, 0);
+        }
+        long start = System.currentTimeMillis();
+        int expired = 0;
+        int chunks = 0;
+        boolean truncated = false;
+        try {
+            while (true) {
+                if (chunks == maxChunks) {
+                    truncated = true;
+                    break;
+                }
+                List<UUID> ids = mobilityPassRepository.findExpiredSubscriptionIds(today, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                expired += transactionTemplate.execute(status -> expireChunk(ids, today));
+                chunks++;
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        runTimer.record(elapsed, TimeUnit.MILLISECONDS);
+        expiredCounter.increment(expired);
+        log.info("[EXPIRY] {} abonnements expirés en {} tranches, {} ms{}", expired, chunks, elapsed,
+                truncated ? " (limite de tranches atteinte, suite au prochain passage)" : "");
+        return new SubscriptionExpiryReport(today, expired, chunks, truncated, elapsed);
+    }
+
+    private int expireChunk(List<UUID> ids, LocalDate today) {
+        int updated = mobilityPassRepository.expireSubscriptions(ids, today);
+        if (updated == 0) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (PassStatusRow row : mobilityPassRepository.findStatusRowsByIdIn(ids)) {
+            if (row.status() != PassStatus.EXPIRED) {
+                continue;
+            }
+            eventPublisher.publishEvent(PassChangedEvent.of(row));
+            eventPublisher.publishEvent(new SubscriptionExpiredEvent(row.passNumber(), row.userId(),
+                    row.subscriptionType(), row.subscriptionEndDate(), now));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,365 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.CreateUserRequest;
+import com.smartmobility.usermobilitypassservice.dto.UserImportReport;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.event.UserChangedEvent;
+import com.smartmobility.usermobilitypassservice.exception.ValidationException;
+import com.smartmobility.usermobilitypassservice.id.PassNumberGenerator;
+import com.smartmobility.usermobilitypassservice.mapper.UserMapper;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import com.smartmobility.usermobilitypassservice.security.PasswordHasher;
+import com.smartmobility.usermobilitypassservice.util.ValidationUtils;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import en masse d'utilisateurs et de leurs Mobility Pass depuis un flux CSV ou NDJSON.
+ * <p>
+ * Le flux est lu par lots : les lignes d'un lot sont validées en parallèle, les doublons cherchés
+ * dans le fichier (ensembles tenus sur tout l'import) et en base (deux requêtes IN par lot), les mots
+ * de passe hachés sur le pool de {@link PasswordHasher}, puis les utilisateurs et leurs pass sont
+ * insérés en lots JDBC par une session sans état, une transaction par lot. La progression et les
+ * erreurs par ligne sont écrites en NDJSON au fil de l'eau.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final SessionFactory sessionFactory;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PassNumberGenerator passNumberGenerator;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+    private final int maxRows;
+
+    public UserImportService(EntityManagerFactory entityManagerFactory,
+                             UserRepository userRepository,
+                             UserMapper userMapper,
+                             PassNumberGenerator passNumberGenerator,
+                             PasswordHasher passwordHasher,
+                             ApplicationEventPublisher eventPublisher,
+                             JsonMapper jsonMapper,
+                             @Value("${user.import.batch-size:1000}") int batchSize,
+                             @Value("${user.import.max-rows:100000}") int maxRows) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passNumberGenerator = passNumberGenerator;
+        this.passwordHasher = passwordHasher;
+        this.eventPublisher = eventPublisher;
+        this.jsonMapper = jsonMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    public UserImportReport importUsers(InputStream in, Format format, OutputStream out) {
+        long start = System.currentTimeMillis();
+        log.info("Import en masse d'utilisateurs ({})", format);
+
+        ImportState state = new ImportState(out);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = format == Format.CSV ? readCsvHeader(reader) : null;
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            int rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (++rowNumber > maxRows) {
+                    throw new ValidationException("L'import est limité à " + maxRows + " lignes");
+                }
+                batch.add(parse(rowNumber, line, columns));
+                if (batch.size() == batchSize) {
+                    processBatch(batch, state);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, state);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        UserImportReport report = new UserImportReport(state.processed, state.created, state.failed,
+                System.currentTimeMillis() - start);
+        state.write(report);
+        log.info("Import terminé: {} lignes, {} créées, {} rejetées en {} ms",
+                report.getRows(), report.getCreated(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+
+    private void processBatch(List<ImportRow> batch, ImportState state) {
+        batch.parallelStream()
+                .filter(row -> row.error == null)
+                .forEach(row -> row.error = validate(row.request));
+
+        // Doublons dans le fichier : la première occurrence gagne
+        for (ImportRow row : batch) {
+            if (row.error != null) {
+                continue;
+            }
+            if (!state.emails.add(row.request.getEmail().toLowerCase(Locale.ROOT))) {
+                row.error = "Email en double dans le fichier";
+            } else if (!state.phones.add(row.request.getPhoneNumber())) {
+                row.error = "Numéro de téléphone en double dans le fichier";
+            }
+        }
+
+        List<ImportRow> candidates = batch.stream().filter(row -> row.error == null).toList();
+        if (!candidates.isEmpty()) {
+            Set<String> existingEmails = new HashSet<>();
+            userRepository.findExistingEmails(candidates.stream().map(r -> r.request.getEmail()).toList())
+                    .forEach(email -> existingEmails.add(email.toLowerCase(Locale.ROOT)));
+            Set<String> existingPhones = new HashSet<>(userRepository.findExistingPhoneNumbers(
+                    candidates.stream().map(r -> r.request.getPhoneNumber()).toList()));
+            for (ImportRow row : candidates) {
+                if (existingEmails.contains(row.request.getEmail().toLowerCase(Locale.ROOT))) {
+                    row.error = "Un utilisateur avec cet email existe déjà";
+                } else if (existingPhones.contains(row.request.getPhoneNumber())) {
+                    row.error = "Un utilisateur avec ce numéro de téléphone existe déjà";
+                }
+            }
+        }
+
+        insert(batch.stream().filter(row -> row.error == null).toList());
+
+        for (ImportRow row : batch) {
+            state.processed++;
+            if (row.error == null) {
+                state.created++;
+            } else {
+                state.failed++;
+                state.write(new UserImportReport.RowError(row.number,
+                        row.request != null ? row.request.getEmail() : null, row.error));
+            }
+        }
+        state.write(new UserImportReport.Progress(state.processed, state.created, state.failed));
+    }
+
+    /**
+     * Insère les utilisateurs puis leurs pass ; les INSERT de même forme partent en lots JDBC.
+     * Si le lot échoue (doublon créé entre-temps par une autre requête, valeur refusée par la base),
+     * il est annulé puis réinséré par moitiés, jusqu'à isoler les seules lignes fautives.
+     */
+    private void insert(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> passwordHashes = passwordHasher.hashAll(rows.stream().map(row -> row.request.getPassword()).toList());
+        insert(rows, passwordHashes);
+    }
+
+    private void insert(List<ImportRow> rows, List<String> passwordHashes) {
+        List<User> users = new ArrayList<>(rows.size());
+        List<MobilityPass> passes = new ArrayList<>(rows.size());
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction tx = session.beginTransaction();
+            try {
+                for (int i = 0; i < rows.size(); i++) {
+                    User user = userMapper.toEntity(rows.get(i).request, passwordHashes.get(i));
+                    session.insert(user);
+                    users.add(user);
+                }
+                for (User user : users) {
+                    MobilityPass pass = new MobilityPass();
+                    pass.setPassNumber(passNumberGenerator.next());
+                    pass.setUser(user);
+                    pass.setBalance(BigDecimal.ZERO);
+                    pass.setStatus(PassStatus.ACTIVE);
+                    pass.setSubscriptionType(SubscriptionType.NONE);
+                    pass.setLoyaltyPoints(0);
+                    session.insert(pass);
+                    passes.add(pass);
+                }
+                tx.commit();
+            } catch (RuntimeException e) {
+                tx.rollback();
+                if (rows.size() == 1) {
+                    log.warn("Ligne {} d'import refusée: {}", rows.get(0).number, e.getMessage());
+                    rows.get(0).error = "Insertion refusée: " + rootMessage(e);
+                    return;
+                }
+                log.warn("Lot d'import de {} lignes annulé, réinsertion par moitiés: {}", rows.size(), e.getMessage());
+                int half = rows.size() / 2;
+                insert(rows.subList(0, half), passwordHashes.subList(0, half));
+                insert(rows.subList(half, rows.size()), passwordHashes.subList(half, rows.size()));
+                return;
+            }
+        }
+        users.forEach(user -> eventPublisher.publishEvent(UserChangedEvent.of(user)));
+        passes.forEach(pass -> eventPublisher.publishEvent(PassChangedEvent.of(pass)));
+    }
+
+    private static String validate(CreateUserRequest request) {
+        try {
+            ValidationUtils.validateName(request.getFirstName(), "Prénom");
+            ValidationUtils.validateName(request.getLastName(), "Nom");
+            ValidationUtils.validateEmail(request.getEmail());
+            ValidationUtils.validatePhoneNumber(request.getPhoneNumber());
+            ValidationUtils.validatePassword(request.getPassword());
+            return null;
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private ImportRow parse(int number, String line, Map<String, Integer> columns) {
+        if (columns == null) {
+            try {
+                return new ImportRow(number, jsonMapper.readValue(line, CreateUserRequest.class), null);
+            } catch (JacksonException e) {
+                return new ImportRow(number, null, "JSON invalide: " + e.getOriginalMessage());
+            }
+        }
+        List<String> fields = splitCsv(line);
+        CreateUserRequest request = new CreateUserRequest(
+                field(fields, columns, "firstname"),
+                field(fields, columns, "lastname"),
+                field(fields, columns, "email"),
+                field(fields, columns, "phonenumber"),
+                field(fields, columns, "password"));
+        return new ImportRow(number, request, null);
+    }
+
+    private static Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ValidationException("Le fichier CSV est vide");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header.startsWith("﻿") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+            columns.put(name.equals("phone") ? "phonenumber" : name, i);
+        }
+        for (String required : List.of("firstname", "lastname", "email", "phonenumber", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new ValidationException("Colonne manquante dans l'en-tête CSV: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule ou point-virgule, champs entre guillemets, "" échappé).
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',' || c == ';') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static final class ImportRow {
+        final int number;
+        final CreateUserRequest request;
+        volatile String error;
+
+        ImportRow(int number, CreateUserRequest request, String error) {
+            this.number = number;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    private final class ImportState {
+        final OutputStream out;
+        final Set<String> emails = new HashSet<>();
+        final Set<String> phones = new HashSet<>();
+        int processed;
+        int created;
+        int failed;
+
+        ImportState(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(Object line) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write(jsonMapper.writeValueAsBytes(line));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
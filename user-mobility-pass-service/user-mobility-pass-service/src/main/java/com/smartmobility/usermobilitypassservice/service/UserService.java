@@ -1,67 +1,163 @@
 package com.smartmobility.usermobilitypassservice.service;
 
+import com.smartmobility.usermobilitypassservice.cache.UserReadCache;
 import com.smartmobility.usermobilitypassservice.dto.CreateUserRequest;
+import com.smartmobility.usermobilitypassservice.dto.LoginRequest;
+import com.smartmobility.usermobilitypassservice.dto.PageResponse;
 import com.smartmobility.usermobilitypassservice.dto.UpdateUserRequest;
 import com.smartmobility.usermobilitypassservice.dto.UserDTO;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
 import com.smartmobility.usermobilitypassservice.entity.User;
 import com.smartmobility.usermobilitypassservice.entity.UserStatus;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.event.UserChangedEvent;
 import com.smartmobility.usermobilitypassservice.exception.DuplicateResourceException;
+import com.smartmobility.usermobilitypassservice.exception.InvalidCredentialsException;
+import com.smartmobility.usermobilitypassservice.exception.InvalidOperationException;
 import com.smartmobility.usermobilitypassservice.exception.ResourceNotFoundException;
+import com.smartmobility.usermobilitypassservice.exception.ServiceBusyException;
 import com.smartmobility.usermobilitypassservice.exception.ValidationException;
 import com.smartmobility.usermobilitypassservice.mapper.UserMapper;
 import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import com.smartmobility.usermobilitypassservice.search.SearchHit;
+import com.smartmobility.usermobilitypassservice.security.PasswordHasher;
+import com.smartmobility.usermobilitypassservice.search.UserSearchIndex;
+import com.smartmobility.usermobilitypassservice.util.JsonArrayStreamer;
 import com.smartmobility.usermobilitypassservice.util.ValidationUtils;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final UserRepository userRepository;
     private final MobilityPassService mobilityPassService;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final EntityManager entityManager;
+    private final UserSearchIndex userSearchIndex;
+    private final UserReadCache userReadCache;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Le mot de passe est haché hors transaction (pool dédié) pour ne pas garder de connexion pendant le calcul.
+     */
     public UserDTO createUser(CreateUserRequest request) {
         log.info("Création d'un nouvel utilisateur: {}", request.getEmail());
 
         // Validation des données
         validateUserRequest(request);
 
-        // Vérification des doublons
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new DuplicateResourceException("Un utilisateur avec cet email existe déjà");
+        String passwordHash = passwordHasher.hash(request.getPassword());
+
+        // Utilisateur et pass insérés au même flush ; les doublons sont détectés par les contraintes uniques
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> {
+                User user = userMapper.toEntity(request, passwordHash);
+                MobilityPass pass = mobilityPassService.newPass(user);
+                user.setMobilityPass(pass);
+
+                User saved = userRepository.saveAndFlush(user);
+                eventPublisher.publishEvent(UserChangedEvent.of(saved));
+                eventPublisher.publishEvent(PassChangedEvent.of(pass));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e, request);
         }
 
-        if (userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
-            throw new DuplicateResourceException("Un utilisateur avec ce numéro de téléphone existe déjà");
-        }
+        log.info("Utilisateur créé avec succès: ID {}", savedUser.getId());
 
-        // Conversion et sauvegarde
-        User user = userMapper.toEntity(request);
-        User savedUser = userRepository.save(user);
+        return userMapper.toDto(savedUser);
+    }
 
-        // Créer automatiquement un Mobility Pass
-        mobilityPassService.createMobilityPass(savedUser.getId());
+    /**
+     * Vérifie les identifiants ; si le hash stocké date de paramètres plus faibles (ou d'avant le
+     * hachage), il est remplacé par un hash aux paramètres courants.
+     */
+    public UserDTO authenticate(LoginRequest request) {
+        ValidationUtils.validateEmail(request.getEmail());
+        ValidationUtils.validateNotEmpty(request.getPassword(), "Mot de passe");
 
-        log.info("Utilisateur créé avec succès: ID {}", savedUser.getId());
+        User user = userRepository.findByEmail(request.getEmail())
+                .orElseThrow(() -> new InvalidCredentialsException("Email ou mot de passe incorrect"));
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
+            throw new InvalidCredentialsException("Email ou mot de passe incorrect");
+        }
+        if (user.getStatus() != UserStatus.ACTIVE) {
+            throw new InvalidOperationException("Le compte utilisateur n'est pas actif");
+        }
 
-        return userMapper.toDto(savedUser);
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String upgraded = passwordHasher.hash(request.getPassword());
+            Integer updated = transactionTemplate.execute(status ->
+                    userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), upgraded));
+            log.info("Mot de passe re-haché aux paramètres courants pour l'utilisateur {} ({})",
+                    user.getId(), updated != null && updated == 1 ? "ok" : "déjà modifié");
+        }
+
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Traduit en 409 les doublons d'email ou de téléphone ; toute autre violation (numéro de pass
+     * en collision, etc.) n'est pas une faute du client et remonte telle quelle.
+     * <p>
+     * Les bases créées avant le nommage des contraintes gardent des noms générés : si le nom n'est pas
+     * reconnu, l'email puis le téléphone sont revérifiés (hors transaction, la création ayant été annulée).
+     */
+    private RuntimeException duplicateUser(DataIntegrityViolationException e, CreateUserRequest request) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT) : "";
+        if (constraint.contains(User.UK_EMAIL)) {
+            return new DuplicateResourceException("Un utilisateur avec cet email existe déjà");
+        }
+        if (constraint.contains(User.UK_PHONE_NUMBER)) {
+            return new DuplicateResourceException("Un utilisateur avec ce numéro de téléphone existe déjà");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            return new DuplicateResourceException("Un utilisateur avec cet email existe déjà");
+        }
+        if (request.getPhoneNumber() != null && userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
+            return new DuplicateResourceException("Un utilisateur avec ce numéro de téléphone existe déjà");
+        }
+        log.error("Violation de contrainte inattendue à la création d'un utilisateur: {}", e.getMostSpecificCause().getMessage());
+        return e;
     }
 
     public UserDTO getUserById(UUID id) {
         log.info("Recherche de l'utilisateur avec l'ID: {}", id);
-        User user = userRepository.findById(id)
+        return userReadCache.getById(id, () -> userRepository.findById(id).map(userMapper::toDto))
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
-        return userMapper.toDto(user);
     }
 
     public UserDTO getUserByEmail(String email) {
@@ -69,9 +165,8 @@ public class UserService {
 
         ValidationUtils.validateEmail(email);
 
-        User user = userRepository.findByEmail(email)
+        return userReadCache.getByEmail(email, () -> userRepository.findByEmail(email).map(userMapper::toDto))
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'email: " + email));
-        return userMapper.toDto(user);
     }
 
     public UserDTO getUserByPhoneNumber(String phoneNumber) {
@@ -79,16 +174,53 @@ public class UserService {
 
         ValidationUtils.validatePhoneNumber(phoneNumber);
 
-        User user = userRepository.findByPhoneNumber(phoneNumber)
+        return userReadCache.getByPhoneNumber(phoneNumber,
+                        () -> userRepository.findByPhoneNumber(phoneNumber).map(userMapper::toDto))
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec ce numéro"));
-        return userMapper.toDto(user);
     }
 
-    public List<UserDTO> getAllUsers() {
-        log.info("Récupération de tous les utilisateurs");
-        return userRepository.findAll().stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Liste paginée des utilisateurs : par numéro de page si {@code page} est fourni, sinon par
+     * curseur (identifiant du dernier utilisateur reçu).
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserDTO> listUsers(Integer page, UUID after, int size) {
+        log.info("Récupération des utilisateurs - page={}, after={}, size={}", page, after, size);
+        ValidationUtils.validatePageSize(size, MAX_PAGE_SIZE);
+
+        if (page != null) {
+            if (page < 0) {
+                throw new ValidationException("Le numéro de page ne peut pas être négatif");
+            }
+            Page<User> result = userRepository.findPageWithPass(PageRequest.of(page, size, Sort.by("id")));
+            return new PageResponse<>(result.getContent().stream().map(userMapper::toDto).toList(),
+                    page, size, result.getTotalElements(), null);
+        }
+
+        List<User> users = after == null
+                ? userRepository.findFirstWithPass(PageRequest.of(0, size))
+                : userRepository.findAfterWithPass(after, PageRequest.of(0, size));
+        String nextCursor = users.size() == size ? users.get(size - 1).getId().toString() : null;
+        return new PageResponse<>(users.stream().map(userMapper::toDto).toList(), null, size, null, nextCursor);
+    }
+
+    /**
+     * Écrit tous les utilisateurs en JSON au fil de la lecture du curseur.
+     */
+    @Transactional(readOnly = true)
+    public long writeAllUsers(OutputStream out) {
+        try (Stream<User> users = userRepository.streamAllWithPass()) {
+            long count = jsonArrayStreamer.write(out, users, user -> {
+                UserDTO dto = userMapper.toDto(user);
+                if (user.getMobilityPass() != null) {
+                    entityManager.detach(user.getMobilityPass());
+                }
+                entityManager.detach(user);
+                return dto;
+            });
+            log.info("Export en flux de {} utilisateurs", count);
+            return count;
+        }
     }
 
     public List<UserDTO> getUsersByStatus(UserStatus status) {
@@ -98,16 +230,33 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
-    public List<UserDTO> searchUsers(String searchTerm) {
+    /**
+     * Recherche par nom, email ou téléphone dans l'index en mémoire ; les résultats sont classés
+     * par pertinence puis chargés en une requête par clé primaire. Tant que l'index n'est pas chargé,
+     * la recherche répond 503 plutôt qu'une liste vide.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> searchUsers(String searchTerm, int limit) {
         log.info("Recherche d'utilisateurs avec le terme: {}", searchTerm);
 
         ValidationUtils.validateNotEmpty(searchTerm, "Terme de recherche");
+        ValidationUtils.validatePageSize(limit, MAX_SEARCH_LIMIT);
+        if (!userSearchIndex.isReady()) {
+            throw new ServiceBusyException("Index de recherche en cours de chargement, veuillez réessayer");
+        }
 
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                        searchTerm, searchTerm)
-                .stream()
+        List<SearchHit> hits = userSearchIndex.search(searchTerm, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, User> users = userRepository.findAllWithPassByIdIn(
+                        hits.stream().map(SearchHit::userId).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> users.get(hit.userId()))
+                .filter(Objects::nonNull)
                 .map(userMapper::toDto)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Transactional
@@ -117,6 +266,9 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
 
+        String previousEmail = user.getEmail();
+        String previousPhoneNumber = user.getPhoneNumber();
+
         // Validation et mise à jour des champs
         if (request.getFirstName() != null) {
             ValidationUtils.validateName(request.getFirstName(), "Prénom");
@@ -151,6 +303,9 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        // Anciennes clés retirées tout de suite ; l'événement retire toutes les clés après commit
+        userReadCache.invalidate(id, previousEmail, previousPhoneNumber);
+        eventPublisher.publishEvent(UserChangedEvent.of(updatedUser));
 
         log.info("Utilisateur mis à jour avec succès");
         return userMapper.toDto(updatedUser);
@@ -169,6 +324,7 @@ public class UserService {
 
         user.setStatus(status);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(updatedUser));
 
         log.info("Statut mis à jour avec succès");
         return userMapper.toDto(updatedUser);
@@ -178,11 +334,14 @@ public class UserService {
     public void deleteUser(UUID id) {
         log.info("Suppression de l'utilisateur: {}", id);
 
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
 
-        userRepository.deleteById(id);
+        if (user.getMobilityPass() != null) {
+            eventPublisher.publishEvent(PassChangedEvent.removed(user.getMobilityPass()));
+        }
+        userRepository.delete(user);
+        eventPublisher.publishEvent(UserChangedEvent.removed(user));
         log.info("Utilisateur supprimé avec succès");
     }
 
@@ -0,0 +1,42 @@
+package com.smartmobility.usermobilitypassservice.util;
+
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Écrit un tableau JSON élément par élément à partir d'un flux, sans le matérialiser :
+ * la mémoire utilisée ne dépend pas du nombre de lignes.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final JsonMapper jsonMapper;
+
+    public JsonArrayStreamer(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    public <T> long write(OutputStream out, Stream<T> rows, Function<T, ?> toDto) {
+        long count = 0;
+        try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            Iterator<T> it = rows.iterator();
+            while (it.hasNext()) {
+                jsonMapper.writeValue(generator, toDto.apply(it.next()));
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+}
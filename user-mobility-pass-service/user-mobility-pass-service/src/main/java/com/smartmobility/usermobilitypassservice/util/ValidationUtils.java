@@ -76,4 +76,13 @@ public class ValidationUtils {
         validateNotEmpty(name, fieldName);
         validateLength(name, fieldName, 2, 100);
     }
-}
\ No newline at end of file
+
+    /**
+     * Valide la taille d'une page de résultats
+     */
+    public static void validatePageSize(int size, int maxSize) {
+        if (size < 1 || size > maxSize) {
+            throw new ValidationException("La taille de page doit être comprise entre 1 et " + maxSize);
+        }
+    }
+}
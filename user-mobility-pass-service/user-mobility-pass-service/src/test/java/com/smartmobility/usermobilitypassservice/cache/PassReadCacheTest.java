@@ -0,0 +1,65 @@
+package com.smartmobility.usermobilitypassservice.cache;
+
+import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PassReadCacheTest {
+
+    private static final String PASS_NUMBER = "SMP-0000000000000000001";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final MobilityPassRepository repository = mock(MobilityPassRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PassReadCache cache = new PassReadCache(repository, meterRegistry, 100, 60_000);
+
+    private static MobilityPassDTO pass(String balance) {
+        MobilityPassDTO dto = new MobilityPassDTO();
+        dto.setPassNumber(PASS_NUMBER);
+        dto.setUserId(USER_ID);
+        dto.setBalance(new BigDecimal(balance));
+        dto.setStatus(PassStatus.ACTIVE);
+        return dto;
+    }
+
+    @Test
+    void servesRepeatedReadsFromMemoryUntilThePassChanges() {
+        when(repository.findDtoByPassNumber(PASS_NUMBER))
+                .thenReturn(Optional.of(pass("1000")))
+                .thenReturn(Optional.of(pass("850")));
+
+        assertEquals(new BigDecimal("1000"), cache.getByPassNumber(PASS_NUMBER).orElseThrow().getBalance());
+        assertEquals(new BigDecimal("1000"), cache.getByPassNumber(PASS_NUMBER).orElseThrow().getBalance());
+        verify(repository, times(1)).findDtoByPassNumber(PASS_NUMBER);
+
+        cache.onPassChanged(new PassChangedEvent(UUID.randomUUID(), PASS_NUMBER, USER_ID, PassStatus.ACTIVE,
+                new BigDecimal("850"), SubscriptionType.NONE, null, false));
+
+        assertEquals(new BigDecimal("850"), cache.getByPassNumber(PASS_NUMBER).orElseThrow().getBalance());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "pass.by-number").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownPassesAreNotCached() {
+        when(repository.findDtoByUserId(USER_ID)).thenReturn(Optional.empty()).thenReturn(Optional.of(pass("0")));
+
+        assertTrue(cache.getByUserId(USER_ID).isEmpty());
+        assertTrue(cache.getByUserId(USER_ID).isPresent());
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartmobility.usermobilitypassservice.cache;
+
+import com.smartmobility.usermobilitypassservice.dto.UserDTO;
+import com.smartmobility.usermobilitypassservice.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserReadCacheTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserReadCache cache = new UserReadCache(meterRegistry, 100, 60_000);
+    private final AtomicReference<UserDTO> database = new AtomicReference<>(user("awa@example.sn", "+221770000001"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static UserDTO user(String email, String phoneNumber) {
+        UserDTO dto = new UserDTO();
+        dto.setId(USER_ID);
+        dto.setFirstName("Awa");
+        dto.setLastName("Diallo");
+        dto.setEmail(email);
+        dto.setPhoneNumber(phoneNumber);
+        return dto;
+    }
+
+    private Supplier<Optional<UserDTO>> load(String email) {
+        return () -> {
+            loads.incrementAndGet();
+            UserDTO current = database.get();
+            return email == null || current.getEmail().equalsIgnoreCase(email) ? Optional.of(current) : Optional.empty();
+        };
+    }
+
+    @Test
+    void oneEntryIsReachableByIdEmailAndPhone() {
+        cache.getByEmail("Awa@example.sn", load("awa@example.sn"));
+        cache.getById(USER_ID, load(null));
+        cache.getByPhoneNumber("+221770000001", load(null));
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "user.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void updateInvalidatesOldAndNewKeys() {
+        cache.getById(USER_ID, load(null));
+        database.set(user("awa.diallo@example.sn", "+221770000002"));
+
+        cache.onUserChanged(new UserChangedEvent(USER_ID, "Awa", "Diallo",
+                "awa.diallo@example.sn", "+221770000002", false));
+
+        assertTrue(cache.getByEmail("awa@example.sn", load("awa@example.sn")).isEmpty());
+        assertEquals("+221770000002", cache.getByPhoneNumber("+221770000002", load(null)).orElseThrow().getPhoneNumber());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void loadStartedBeforeAnInvalidationIsNotCached() {
+        UserDTO stale = database.get();
+        cache.getById(USER_ID, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(USER_ID, null, null);
+            return Optional.of(stale);
+        });
+
+        cache.getById(USER_ID, load(null));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidatingAnotherUserDoesNotDropTheFill() {
+        cache.getById(USER_ID, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(new UUID(USER_ID.getMostSignificantBits(), USER_ID.getLeastSignificantBits() ^ 1), null, null);
+            return Optional.of(database.get());
+        });
+
+        cache.getById(USER_ID, load(null));
+        assertEquals(1, loads.get());
+    }
+}
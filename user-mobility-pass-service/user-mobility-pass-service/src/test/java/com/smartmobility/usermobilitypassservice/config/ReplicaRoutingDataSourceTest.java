@@ -0,0 +1,114 @@
+package com.smartmobility.usermobilitypassservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deux bases H2 distinctes tiennent lieu de primaire et de réplica ; chacune répond par son nom.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private MutableClock clock;
+    private ReadYourWritesGuard guard;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readTx;
+    private TransactionTemplate writeTx;
+
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        guard = new ReadYourWritesGuard(1_000, clock);
+        DataSource routing = ReplicaRoutingDataSource.lazy(node("primary"), node("replica"), guard,
+                new SimpleMeterRegistry());
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+        guard.enter(null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.exit();
+    }
+
+    private String readNode(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readNode(readTx));
+        assertEquals("primary", readNode(writeTx));
+    }
+
+    @Test
+    void readsOwnWritesFromPrimaryWithinLagWindow() {
+        writeTx.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readNode(readTx));
+        clock.advance(1_001);
+        assertEquals("replica", readNode(readTx));
+
+        guard.enter(clock.millis() - 500, null);
+        assertEquals("primary", readNode(readTx));
+    }
+
+    @Test
+    void readFromPrimaryOverridesReadOnlyRouting() {
+        assertEquals("primary", ReplicaRoutingDataSource.readFromPrimary(() -> readNode(readTx)));
+        assertEquals("replica", readNode(readTx));
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = 1_700_000_000_000L;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PassNumberGeneratorTest {
+
+    @Test
+    void numbersAreWellFormedAndCarryNode() {
+        PassNumberGenerator generator = new PassNumberGenerator(42);
+        long before = System.currentTimeMillis();
+        String number = generator.next();
+
+        assertTrue(PassNumbers.isValid(number));
+        assertEquals(24, number.length());
+        long id = PassNumbers.snowflakeOf(number);
+        assertEquals(42, PassNumbers.nodeOf(id));
+        assertTrue(PassNumbers.issuedAtMillis(id) >= before);
+    }
+
+    @Test
+    void checkDigitRejectsTypos() {
+        String number = new PassNumberGenerator(1).next();
+        char last = number.charAt(number.length() - 1);
+        String wrongCheck = number.substring(0, number.length() - 1) + (char) ('0' + (last - '0' + 1) % 10);
+        char[] swapped = number.toCharArray();
+        swapped[10] = (char) ('0' + (swapped[10] - '0' + 3) % 10);
+
+        assertFalse(PassNumbers.isValid(wrongCheck));
+        assertFalse(PassNumbers.isValid(new String(swapped)));
+        assertFalse(PassNumbers.isValid("SMP-123"));
+        assertTrue(PassNumbers.isLegacy("SMP-1735689600000-42"));
+    }
+
+    @Test
+    void uniqueUnderConcurrency() {
+        PassNumberGenerator generator = new PassNumberGenerator(7);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        int count = 200_000;
+
+        IntStream.range(0, count).parallel().forEach(i -> seen.add(generator.next()));
+
+        assertEquals(count, seen.size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.smartmobility.usermobilitypassservice.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void layoutFollowsRfc9562() {
+        long now = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.timestampOf(id) >= now);
+    }
+
+    @Test
+    void strictlyIncreasingEvenWhenClockGoesBack() {
+        UUID a = UuidV7.next(2_000_000_000_000L);
+        UUID b = UuidV7.next(1_000_000_000_000L);
+        UUID c = UuidV7.next(2_000_000_000_000L);
+
+        assertTrue(compareUnsigned(a, b) < 0);
+        assertTrue(compareUnsigned(b, c) < 0);
+    }
+
+    @Test
+    void uniqueAndOrderedPerThreadUnderContention() throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<UUID> all = new ConcurrentLinkedQueue<>();
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                UUID prev = null;
+                boolean ordered = true;
+                for (int i = 0; i < perThread; i++) {
+                    UUID id = UuidV7.next();
+                    ordered &= prev == null || compareUnsigned(prev, id) < 0;
+                    all.add(id);
+                    prev = id;
+                }
+                return ordered;
+            }));
+        }
+        start.countDown();
+        for (var result : results) {
+            assertTrue(result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, all.stream().distinct().count());
+    }
+
+    /**
+     * Insertion v4 vs v7 dans une table à clé primaire BINARY(16).
+     * Lancement : mvn test -Dtest=UuidV7Test -Dbenchmark=true
+     * [-Dbenchmark.jdbc.url=jdbc:mysql://... -Dbenchmark.jdbc.user=... -Dbenchmark.jdbc.password=...]
+     * Sur MySQL la taille des données et de l'index est lue dans information_schema.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void insertBenchmark() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:uuidbench;DB_CLOSE_DELAY=-1");
+        int rows = Integer.getInteger("benchmark.rows", 500_000);
+        int batch = 1_000;
+
+        try (Connection cn = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""))) {
+            for (UuidStyle style : UuidStyle.values()) {
+                String table = "uuid_bench_" + style.name().toLowerCase();
+                try (Statement st = cn.createStatement()) {
+                    st.execute("DROP TABLE IF EXISTS " + table);
+                    st.execute("CREATE TABLE " + table + " (id BINARY(16) PRIMARY KEY, payload VARCHAR(64))");
+                }
+                cn.setAutoCommit(false);
+                long start = System.nanoTime();
+                try (PreparedStatement ps = cn.prepareStatement("INSERT INTO " + table + " VALUES (?, ?)")) {
+                    for (int i = 1; i <= rows; i++) {
+                        ps.setBytes(1, toBytes(style.next()));
+                        ps.setString(2, "pass-" + i);
+                        ps.addBatch();
+                        if (i % batch == 0) {
+                            ps.executeBatch();
+                            cn.commit();
+                        }
+                    }
+                    ps.executeBatch();
+                    cn.commit();
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                cn.setAutoCommit(true);
+                System.out.printf("[BENCH] %-12s %,d rows in %,d ms (%,.0f rows/s), size=%s%n",
+                        style, rows, elapsedMs, rows * 1000.0 / Math.max(1, elapsedMs), tableSize(cn, table));
+            }
+        }
+    }
+
+    private static String tableSize(Connection cn, String table) throws Exception {
+        if (!cn.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL")) {
+            return "n/a";
+        }
+        try (Statement st = cn.createStatement()) {
+            st.execute("ANALYZE TABLE " + table);
+            try (ResultSet rs = st.executeQuery("SELECT data_length, index_length FROM information_schema.tables "
+                    + "WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                rs.next();
+                return String.format("data=%,d KB index=%,d KB", rs.getLong(1) / 1024, rs.getLong(2) / 1024);
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
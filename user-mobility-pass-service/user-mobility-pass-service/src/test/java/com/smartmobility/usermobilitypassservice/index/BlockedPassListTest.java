@@ -0,0 +1,66 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.id.PassNumbers;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BlockedPassListTest {
+
+    /** Messages décodés par BlockedPassSetTest (pass-token-verifier) : les deux côtés doivent rester alignés. */
+    static final String SNAPSHOT = "U01QQgEAAAAAAAAAAAEAAAAAAAAAAgAAAAAAAAAAAAAAAAAAAAAC//nVZkXxv4GTtZ3F59aKAwA=";
+    static final String DELTA = "U01QQgEBAAAAAAAAAAEAAAAAAAAAAgAAAAAAAAAAAAAAAAAAAAIBAAAA5fTI88oB//nVZkXxv4E=";
+
+    static final String LEGACY = "SMP-1735689600123-7";
+    static final String SUSPENDED = PassNumbers.format(123_456_789_012L);
+    static final String ACTIVE = PassNumbers.format(987_654_321_098L);
+
+    private final MobilityPassRepository repository = mock(MobilityPassRepository.class);
+    private final BlockedPassList list = new BlockedPassList(repository, new SimpleMeterRegistry(), 8, new UUID(1, 2));
+
+    private static PassChangedEvent change(String passNumber, PassStatus status, String balance) {
+        return new PassChangedEvent(UUID.randomUUID(), passNumber, UUID.randomUUID(), status,
+                new BigDecimal(balance), SubscriptionType.NONE, null, false);
+    }
+
+    @Test
+    void servesASnapshotThenNetDeltasOfStatusTransitions() {
+        when(repository.findPassNumbersByStatusNot(any())).thenReturn(List.of(LEGACY, SUSPENDED, "SMP-A"));
+        list.reload();
+        byte[] snapshot = list.since(null, 0);
+        assertEquals(SNAPSHOT, Base64.getEncoder().encodeToString(snapshot));
+        assertSame(snapshot, list.since(UUID.randomUUID(), 0));
+
+        list.onPassChanged(change(SUSPENDED, PassStatus.SUSPENDED, "10"));
+        list.onPassChanged(change(ACTIVE, PassStatus.ACTIVE, "10"));
+        list.onPassChanged(change(ACTIVE, PassStatus.SUSPENDED, "10"));
+        list.onPassChanged(change(LEGACY, PassStatus.ACTIVE, "10"));
+        assertEquals(2, list.sequence());
+        assertEquals(DELTA, Base64.getEncoder().encodeToString(list.since(new UUID(1, 2), 0)));
+
+        when(repository.findPassNumbersByStatusNot(any())).thenReturn(List.of(ACTIVE));
+        list.reload();
+        assertEquals(3, list.sequence());
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void numericKeysKeepLegacyNumbersApartFromSnowflakes() {
+        assertEquals(123_456_789_012L, PassNumbers.numericKey(SUSPENDED));
+        assertEquals(-1_735_689_600_123_007L, PassNumbers.numericKey(LEGACY));
+    }
+}
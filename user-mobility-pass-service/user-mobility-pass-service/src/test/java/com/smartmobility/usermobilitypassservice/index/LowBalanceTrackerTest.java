@@ -0,0 +1,60 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.event.BalanceThresholdCrossedEvent;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LowBalanceTrackerTest {
+
+    private final MobilityPassRepository repository = mock(MobilityPassRepository.class);
+    private final List<BalanceThresholdCrossedEvent> crossings = new ArrayList<>();
+    private final LowBalanceTracker tracker = new LowBalanceTracker(repository,
+            event -> crossings.add((BalanceThresholdCrossedEvent) event), new SimpleMeterRegistry());
+
+    private static PassChangedEvent change(String passNumber, PassStatus status, String balance) {
+        return new PassChangedEvent(UUID.randomUUID(), passNumber, UUID.randomUUID(), status,
+                new BigDecimal(balance), SubscriptionType.NONE, null, false);
+    }
+
+    @Test
+    void publishesOnlyWhenTheBalanceCrossesTheThreshold() {
+        when(repository.findPassNumbersByBalanceLessThanAndStatus(any(), any())).thenReturn(List.of("SMP-B"));
+        tracker.reload();
+
+        tracker.onPassChanged(change("SMP-A", PassStatus.ACTIVE, "800"));
+        tracker.onPassChanged(change("SMP-A", PassStatus.ACTIVE, "450"));
+        tracker.onPassChanged(change("SMP-A", PassStatus.ACTIVE, "300"));
+        tracker.onPassChanged(change("SMP-B", PassStatus.ACTIVE, "1500"));
+
+        assertEquals(List.of("SMP-A"), tracker.passNumbers());
+        assertEquals(2, crossings.size());
+        assertTrue(crossings.get(0).below());
+        assertEquals("SMP-B", crossings.get(1).passNumber());
+        assertFalse(crossings.get(1).below());
+    }
+
+    @Test
+    void suspensionLeavesTheSetWithoutAlert() {
+        tracker.onPassChanged(change("SMP-A", PassStatus.ACTIVE, "100"));
+        tracker.onPassChanged(change("SMP-A", PassStatus.SUSPENDED, "100"));
+
+        assertFalse(tracker.contains("SMP-A"));
+        assertEquals(1, crossings.size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartmobility.usermobilitypassservice.index;
+
+import com.smartmobility.usermobilitypassservice.dto.PassStatusFeed;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PassChangeFeedTest {
+
+    private final PassChangeFeed feed = new PassChangeFeed(new SimpleMeterRegistry(), 4);
+
+    private void change(String passNumber, PassStatus status) {
+        feed.onPassChanged(new PassChangedEvent(UUID.randomUUID(), passNumber, UUID.randomUUID(), status,
+                BigDecimal.TEN, SubscriptionType.MONTHLY, null, false));
+    }
+
+    @Test
+    void returnsChangesAfterTheGivenSequenceInOrder() {
+        change("SMP-A", PassStatus.ACTIVE);
+        change("SMP-B", PassStatus.SUSPENDED);
+        change("SMP-C", PassStatus.EXPIRED);
+
+        PassStatusFeed page = feed.since(feed.feedId(), 1, 1);
+        assertFalse(page.isReset());
+        assertEquals(2, page.getSequence());
+        assertEquals("SMP-B", page.getChanges().get(0).passNumber());
+
+        PassStatusFeed rest = feed.since(feed.feedId(), page.getSequence(), 100);
+        assertEquals(3, rest.getSequence());
+        assertEquals(PassStatus.EXPIRED, rest.getChanges().get(0).status());
+        assertTrue(feed.since(feed.feedId(), 3, 100).getChanges().isEmpty());
+    }
+
+    @Test
+    void asksForASnapshotWhenThePositionIsUnknownOrOverwritten() {
+        for (int i = 0; i < 6; i++) {
+            change("SMP-" + i, PassStatus.ACTIVE);
+        }
+        assertTrue(feed.since("another-instance", 5, 100).isReset());
+        assertTrue(feed.since(feed.feedId(), 1, 100).isReset());
+        assertTrue(feed.since(feed.feedId(), 7, 100).isReset());
+        assertEquals(4, feed.since(feed.feedId(), 2, 100).getChanges().size());
+    }
+}
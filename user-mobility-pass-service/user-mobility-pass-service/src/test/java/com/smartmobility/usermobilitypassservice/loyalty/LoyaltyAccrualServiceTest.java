@@ -0,0 +1,124 @@
+package com.smartmobility.usermobilitypassservice.loyalty;
+
+import com.smartmobility.usermobilitypassservice.cache.PassReadCache;
+import com.smartmobility.usermobilitypassservice.cache.UserReadCache;
+import com.smartmobility.usermobilitypassservice.dto.LoyaltyAccrualResponse;
+import com.smartmobility.usermobilitypassservice.dto.TripCompletedBatch;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoyaltyAccrualServiceTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path logDirectory;
+
+    private LoyaltyAccrualService newService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new LoyaltyAccrualService(jdbc, transactionManager, mobilityPassRepository,
+                new PassReadCache(mobilityPassRepository, meterRegistry, 100, 60_000),
+                new UserReadCache(meterRegistry, 100, 60_000), meterRegistry,
+                logDirectory.toString(), new BigDecimal("100"), 1_000, 5_000, 64 * 1024 * 1024);
+    }
+
+    private MobilityPass createPass(String passNumber, String phone) {
+        User user = new User();
+        user.setFirstName("Aminata");
+        user.setLastName("Ba");
+        user.setEmail(phone + "@example.sn");
+        user.setPhoneNumber(phone);
+        user.setPassword("secret");
+        userRepository.save(user);
+
+        MobilityPass pass = new MobilityPass();
+        pass.setPassNumber(passNumber);
+        pass.setUser(user);
+        pass.setBalance(BigDecimal.ZERO);
+        return mobilityPassRepository.save(pass);
+    }
+
+    private int loyaltyPoints(String passNumber) {
+        return mobilityPassRepository.findByPassNumber(passNumber).orElseThrow().getLoyaltyPoints();
+    }
+
+    private static TripCompletedBatch.Event trip(UUID tripId, String passNumber, UUID userId, String amount) {
+        return new TripCompletedBatch.Event(tripId, passNumber, userId, new BigDecimal(amount), null);
+    }
+
+    @Test
+    void coalescesTripsPerPassAndIgnoresReplays() {
+        MobilityPass pass = createPass("SMP-LOYALTY-1", "+221770000201");
+        LoyaltyAccrualService service = newService();
+        UUID replayed = UUID.randomUUID();
+
+        LoyaltyAccrualResponse response = service.accrue(new TripCompletedBatch(List.of(
+                trip(replayed, "SMP-LOYALTY-1", null, "250"),
+                trip(UUID.randomUUID(), null, pass.getUser().getId(), "50"),
+                trip(replayed, "SMP-LOYALTY-1", null, "250"),
+                trip(UUID.randomUUID(), null, UUID.randomUUID(), "300"))));
+        service.accrue(new TripCompletedBatch(List.of(trip(replayed, "SMP-LOYALTY-1", null, "250"))));
+
+        assertEquals(2, response.getAccepted());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(1, response.getRejected());
+        assertEquals(0, loyaltyPoints("SMP-LOYALTY-1"));
+
+        assertEquals(1, service.flush());
+        assertEquals(3, loyaltyPoints("SMP-LOYALTY-1"));
+        assertEquals(pass.getVersion(), mobilityPassRepository.findByPassNumber("SMP-LOYALTY-1").orElseThrow().getVersion());
+        assertEquals(0, service.flush());
+    }
+
+    @Test
+    void replaysUnflushedTripsAfterRestart() throws Exception {
+        createPass("SMP-LOYALTY-2", "+221770000202");
+        LoyaltyAccrualService crashed = newService();
+        crashed.accrue(new TripCompletedBatch(List.of(trip(UUID.randomUUID(), "SMP-LOYALTY-2", null, "100"))));
+        crashed.flush();
+        crashed.accrue(new TripCompletedBatch(List.of(trip(UUID.randomUUID(), "SMP-LOYALTY-2", null, "400"))));
+        // Ligne à moitié écrite au moment de l'arrêt
+        Files.writeString(logDirectory.resolve("events.log"), "0000", StandardOpenOption.APPEND);
+
+        LoyaltyAccrualService restarted = newService();
+        restarted.flush();
+
+        assertEquals(5, loyaltyPoints("SMP-LOYALTY-2"));
+    }
+}
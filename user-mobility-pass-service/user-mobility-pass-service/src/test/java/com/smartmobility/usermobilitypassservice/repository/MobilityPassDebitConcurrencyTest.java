@@ -0,0 +1,174 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MobilityPassDebitConcurrencyTest {
+
+    private static final String PASS_NUMBER = "SMP-0000000000000000001";
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            mobilityPassRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    private void createPass(BigDecimal balance) {
+        tx.executeWithoutResult(status -> {
+            User user = new User();
+            user.setFirstName("Awa");
+            user.setLastName("Diop");
+            user.setEmail("awa.diop@example.sn");
+            user.setPhoneNumber("+221770000001");
+            user.setPassword("secret");
+            userRepository.save(user);
+
+            MobilityPass pass = new MobilityPass();
+            pass.setPassNumber(PASS_NUMBER);
+            pass.setUser(user);
+            pass.setBalance(balance);
+            mobilityPassRepository.save(pass);
+        });
+    }
+
+    private long balanceCents() {
+        return mobilityPassRepository.findStatusRowByPassNumber(PASS_NUMBER).orElseThrow()
+                .balance().movePointRight(2).longValueExact();
+    }
+
+    @Test
+    void parallelDebitsNeverOverdraw() throws Exception {
+        createPass(new BigDecimal("1000.00"));
+        int attempts = 2_000;
+
+        int succeeded = runConcurrently(attempts, 16, () -> tx.execute(status ->
+                mobilityPassRepository.debit(PASS_NUMBER, BigDecimal.ONE, LocalDateTime.now())) == 1);
+
+        assertEquals(1_000, succeeded);
+        assertEquals(0, balanceCents());
+        assertEquals(1_000, mobilityPassRepository.findStatusRowByPassNumber(PASS_NUMBER).orElseThrow().version());
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        createPass(new BigDecimal("10.00"));
+        long version = mobilityPassRepository.findStatusRowByPassNumber(PASS_NUMBER).orElseThrow().version();
+
+        assertEquals(1, (int) tx.execute(s -> mobilityPassRepository.credit(PASS_NUMBER, BigDecimal.ONE)));
+        assertEquals(0, (int) tx.execute(s ->
+                mobilityPassRepository.debitIfVersion(PASS_NUMBER, BigDecimal.ONE, version, LocalDateTime.now())));
+        assertEquals(1, (int) tx.execute(s ->
+                mobilityPassRepository.debitIfVersion(PASS_NUMBER, BigDecimal.ONE, version + 1, LocalDateTime.now())));
+        assertEquals(1_000, balanceCents());
+    }
+
+    /**
+     * Débits concurrents sur un seul pass : UPDATE conditionnel contre lecture/écriture avec @Version.
+     * Lancement : mvn test -Dtest=MobilityPassDebitConcurrencyTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void hotPassDebitBenchmark() throws Exception {
+        int debits = Integer.getInteger("benchmark.debits", 20_000);
+        int threads = Integer.getInteger("benchmark.threads", 32);
+
+        createPass(BigDecimal.valueOf(debits));
+        long start = System.nanoTime();
+        runConcurrently(debits, threads, () -> tx.execute(status ->
+                mobilityPassRepository.debit(PASS_NUMBER, BigDecimal.ONE, LocalDateTime.now())) == 1);
+        report("conditional UPDATE", debits, start, 0);
+
+        setUp();
+        createPass(BigDecimal.valueOf(debits));
+        AtomicInteger conflicts = new AtomicInteger();
+        start = System.nanoTime();
+        runConcurrently(debits, threads, () -> {
+            while (true) {
+                try {
+                    tx.executeWithoutResult(status -> {
+                        MobilityPass pass = mobilityPassRepository.findByPassNumber(PASS_NUMBER).orElseThrow();
+                        pass.setBalance(pass.getBalance().subtract(BigDecimal.ONE));
+                        mobilityPassRepository.save(pass);
+                    });
+                    return true;
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+        report("find-then-save", debits, start, conflicts.get());
+    }
+
+    private static void report(String label, int debits, long startNanos, int conflicts) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        System.out.printf("[BENCH] %-18s %,d debits in %,d ms (%,.0f/s), optimistic retries=%,d%n",
+                label, debits, elapsedMs, debits * 1000.0 / elapsedMs, conflicts);
+    }
+
+    private static int runConcurrently(int tasks, int threads, DebitAttempt attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    if (attempt.run()) {
+                        succeeded.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(2, TimeUnit.MINUTES);
+        return succeeded.get();
+    }
+
+    @FunctionalInterface
+    private interface DebitAttempt {
+        boolean run();
+    }
+}
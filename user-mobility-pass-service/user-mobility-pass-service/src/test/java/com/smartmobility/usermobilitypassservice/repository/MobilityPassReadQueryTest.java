@@ -0,0 +1,139 @@
+package com.smartmobility.usermobilitypassservice.repository;
+
+import com.smartmobility.usermobilitypassservice.dto.MobilityPassDTO;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MobilityPassReadQueryTest {
+
+    private static final int PASSES = 23;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            mobilityPassRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < PASSES; i++) {
+                User user = new User();
+                user.setFirstName("Usager");
+                user.setLastName("N" + i);
+                user.setEmail("usager" + i + "@example.sn");
+                user.setPhoneNumber(String.format("+2217700%05d", i));
+                user.setPassword("secret");
+                userRepository.save(user);
+
+                MobilityPass pass = new MobilityPass();
+                pass.setPassNumber(String.format("SMP-%019d", i + 1));
+                pass.setUser(user);
+                pass.setBalance(BigDecimal.TEN);
+                pass.setSubscriptionType(SubscriptionType.MONTHLY);
+                pass.setSubscriptionEndDate(LocalDate.now().minusDays(1));
+                mobilityPassRepository.save(pass);
+            }
+        });
+    }
+
+    private long statementsDuring(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        tx.executeWithoutResult(status -> call.run());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void readPathsIssueOneStatementWhateverTheRowCount() {
+        assertEquals(1, statementsDuring(() ->
+                assertEquals(PASSES, mobilityPassRepository.findDtosByStatus(PassStatus.ACTIVE).size())));
+        assertEquals(1, statementsDuring(() ->
+                assertEquals(3, mobilityPassRepository.findDtosByPassNumberIn(List.of(
+                        String.format("SMP-%019d", 1), String.format("SMP-%019d", 2), String.format("SMP-%019d", 3)))
+                        .size())));
+        assertEquals(1, statementsDuring(() ->
+                assertEquals(PASSES, mobilityPassRepository.findExpiredSubscriptionDtos().size())));
+        assertEquals(1, statementsDuring(() ->
+                assertEquals(10, mobilityPassRepository.findFirstDtos(PageRequest.of(0, 10)).size())));
+        assertEquals(1, statementsDuring(() -> {
+            MobilityPassDTO pass = mobilityPassRepository.findDtoByPassNumber(String.format("SMP-%019d", 1)).orElseThrow();
+            assertNotNull(pass.getUserId());
+        }));
+        assertEquals(2, statementsDuring(() ->
+                assertEquals(PASSES, mobilityPassRepository.findDtoPage(PageRequest.of(0, 5)).getTotalElements())));
+    }
+
+    @Test
+    void keysetPagesCoverEveryPassOnceInIdOrder() {
+        List<UUID> seen = new ArrayList<>();
+        List<MobilityPassDTO> page = mobilityPassRepository.findFirstDtos(PageRequest.of(0, 10));
+        while (!page.isEmpty()) {
+            page.forEach(p -> seen.add(p.getId()));
+            if (page.size() < 10) {
+                break;
+            }
+            page = mobilityPassRepository.findDtosAfter(page.get(page.size() - 1).getId(), PageRequest.of(0, 10));
+        }
+
+        assertEquals(PASSES, seen.size());
+        assertEquals(PASSES, seen.stream().distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).compareTo(seen.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void streamReadsAllPasses() {
+        long count = tx.execute(status -> {
+            try (Stream<MobilityPassDTO> passes = mobilityPassRepository.streamAllDtos()) {
+                return passes.filter(p -> p.getUserId() != null).count();
+            }
+        });
+        assertEquals(PASSES, count);
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartmobility.usermobilitypassservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private static final UUID AWA = UUID.randomUUID();
+    private static final UUID AWAIS = UUID.randomUUID();
+    private static final UUID MOUSSA = UUID.randomUUID();
+
+    private TrigramIndex sample() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(AWA, "Awa", "Diop", "awa.diop@example.sn", "+221 77 000 00 01");
+        index.put(AWAIS, "Awais", "Khan", "a.khan@example.com", "+221 76 123 45 67");
+        index.put(MOUSSA, "Moussa", "Ndiaye", "moussa@example.sn", "+221 70 555 12 34");
+        return index;
+    }
+
+    private static List<UUID> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::userId).toList();
+    }
+
+    @Test
+    void findsByAccentInsensitiveSubstringAndRanksExactMatchesFirst() {
+        TrigramIndex index = sample();
+
+        assertEquals(List.of(MOUSSA), ids(index.search("NDIAYÉ", 10)));
+        assertEquals(List.of(AWA), ids(index.search("diop@exa", 10)));
+        assertEquals(List.of(MOUSSA), ids(index.search("70 555", 10)));
+        assertEquals(AWA, index.search("awa", 10).get(0).userId());
+    }
+
+    @Test
+    void shortTermsMatchWordPrefixes() {
+        TrigramIndex index = sample();
+
+        assertEquals(Set.of(AWA, AWAIS), Set.copyOf(ids(index.search("aw", 10))));
+        assertTrue(index.search("wa", 10).isEmpty());
+    }
+
+    @Test
+    void updatesReplaceAndRemovalsHideDocuments() {
+        TrigramIndex index = sample();
+
+        index.put(AWA, "Awa", "Sow", "awa.sow@example.sn", "+221 77 000 00 01");
+        assertTrue(index.search("diop", 10).isEmpty());
+        assertEquals(List.of(AWA), ids(index.search("sow", 10)));
+
+        index.remove(MOUSSA);
+        assertTrue(index.search("moussa", 10).isEmpty());
+        assertEquals(2, index.size());
+        assertEquals(2, index.deletedCount());
+    }
+
+    @Test
+    void limitsResults() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 50; i++) {
+            index.put(UUID.randomUUID(), "Fatou", "Sarr" + i, "fatou" + i + "@example.sn", "+22177" + i);
+        }
+        assertEquals(5, index.search("fatou", 5).size());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void searchLatencyBenchmark() {
+        int users = Integer.getInteger("benchmark.users", 2_000_000);
+        String[] first = {"Awa", "Moussa", "Fatou", "Ibrahima", "Aminata", "Cheikh", "Mariama", "Ousmane", "Khady", "Babacar"};
+        String[] last = {"Diop", "Ndiaye", "Sarr", "Fall", "Sow", "Ba", "Gueye", "Faye", "Diallo", "Mbaye"};
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            String f = first[random.nextInt(first.length)];
+            String l = last[random.nextInt(last.length)];
+            index.put(UUID.randomUUID(), f, l, (f + "." + l + i + "@example.sn").toLowerCase(),
+                    String.format("+2217%08d", i));
+        }
+        System.out.printf("Index de %d utilisateurs construit en %d ms%n", users, (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] terms = {"diop123", "ousmane.fall", "7012345", "khady", "mbaye99999@"};
+        int rounds = 50;
+        for (int i = 0; i < rounds; i++) {
+            for (String term : terms) {
+                index.search(term, 20);
+            }
+        }
+        for (String term : terms) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < rounds; i++) {
+                found = index.search(term, 20).size();
+            }
+            System.out.printf("'%s': %d résultats, %.2f ms en moyenne%n", term, found,
+                    (System.nanoTime() - start) / 1e6 / rounds);
+        }
+    }
+}
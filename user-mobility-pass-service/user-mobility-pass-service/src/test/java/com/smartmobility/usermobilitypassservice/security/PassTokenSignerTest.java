@@ -0,0 +1,34 @@
+package com.smartmobility.usermobilitypassservice.security;
+
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.index.PassStatusEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PassTokenSignerTest {
+
+    /** Même vecteur que PassTokenVerifierTest (pass-token-verifier) : les deux côtés doivent rester alignés. */
+    static final String SECRET = "AQIDBAUGBwgJCgsMDQ4PEBESExQVFhcYGRobHB0eHyA=";
+    static final String TOKEN = "AQFqsTuAarE_BAAAAFFSAAAAAAACSfANU01QLTAwMDEtVEVTVJ8GswSfyvgvdBzegtBBeXQ";
+
+    @Test
+    void producesTheSharedV1TestVector() {
+        PassTokenSigner signer = new PassTokenSigner(new SimpleMeterRegistry(), SECRET, 1, 900);
+        PassStatusEntry entry = PassStatusEntry.of(PassStatus.ACTIVE, new BigDecimal("1500.00"),
+                SubscriptionType.MONTHLY, LocalDate.of(2026, 12, 31));
+
+        String token = signer.sign("SMP-0001-TEST", entry, Instant.ofEpochSecond(1_790_000_000L));
+
+        assertEquals(TOKEN, token);
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        assertEquals(24 + "SMP-0001-TEST".length() + PassTokenSigner.MAC_LENGTH, bytes.length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartmobility.usermobilitypassservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private static PasswordHasher hasher(int memoryKib) {
+        return new PasswordHasher(new SimpleMeterRegistry(), memoryKib, 1, 1, 2, 16);
+    }
+
+    @Test
+    void hashesAndVerifiesOnDedicatedPool() {
+        PasswordHasher hasher = hasher(1024);
+
+        String hash = hasher.hash("secret1");
+
+        assertTrue(hash.startsWith("$argon2id$"));
+        assertTrue(hasher.matches("secret1", hash));
+        assertFalse(hasher.matches("secret2", hash));
+        assertFalse(hasher.needsRehash(hash));
+        assertEquals(5, hasher.hashAll(List.of("a1", "b2", "c3", "d4", "e5")).size());
+    }
+
+    @Test
+    void flagsPlaintextAndWeakerHashesForRehash() {
+        PasswordHasher weak = hasher(512);
+        PasswordHasher current = hasher(1024);
+
+        assertTrue(current.needsRehash("secret1"));
+        assertTrue(current.matches("secret1", "secret1"));
+        assertTrue(current.needsRehash(weak.hash("secret1")));
+    }
+}
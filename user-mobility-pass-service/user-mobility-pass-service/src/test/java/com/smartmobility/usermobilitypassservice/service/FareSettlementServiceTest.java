@@ -0,0 +1,89 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitRequest;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse;
+import com.smartmobility.usermobilitypassservice.dto.BatchDebitResponse.Outcome;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FareSettlementService.class, BalanceLedgerService.class})
+@TestPropertySource(properties = "pass.debit.batch.chunk-size=2")
+class FareSettlementServiceTest {
+
+    @Autowired
+    private FareSettlementService fareSettlementService;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MobilityPass createPass(String passNumber, String phone, BigDecimal balance) {
+        User user = new User();
+        user.setFirstName("Moussa");
+        user.setLastName("Ndiaye");
+        user.setEmail(phone + "@example.sn");
+        user.setPhoneNumber(phone);
+        user.setPassword("secret");
+        userRepository.save(user);
+
+        MobilityPass pass = new MobilityPass();
+        pass.setPassNumber(passNumber);
+        pass.setUser(user);
+        pass.setBalance(balance);
+        return mobilityPassRepository.save(pass);
+    }
+
+    @Test
+    void appliesPerItemAndRejectsReplays() {
+        MobilityPass pass = createPass("SMP-BATCH-1", "+221770000101", new BigDecimal("10.00"));
+        UUID t1 = UUID.randomUUID();
+        UUID t2 = UUID.randomUUID();
+        UUID t3 = UUID.randomUUID();
+        UUID t4 = UUID.randomUUID();
+
+        BatchDebitRequest request = new BatchDebitRequest(List.of(
+                new BatchDebitRequest.Item("SMP-BATCH-1", null, new BigDecimal("4.00"), t1),
+                new BatchDebitRequest.Item(null, pass.getUser().getId(), new BigDecimal("4.00"), t2),
+                new BatchDebitRequest.Item("SMP-BATCH-1", null, new BigDecimal("4.00"), t3),
+                new BatchDebitRequest.Item("SMP-BATCH-1", null, new BigDecimal("1.00"), t1),
+                new BatchDebitRequest.Item("SMP-UNKNOWN", null, new BigDecimal("1.00"), t4),
+                new BatchDebitRequest.Item("SMP-BATCH-1", null, new BigDecimal("-1"), UUID.randomUUID())));
+
+        BatchDebitResponse first = fareSettlementService.debitBatch(request);
+
+        assertEquals(List.of(Outcome.APPLIED, Outcome.APPLIED, Outcome.INSUFFICIENT_BALANCE,
+                        Outcome.DUPLICATE, Outcome.PASS_NOT_FOUND, Outcome.INVALID),
+                first.getResults().stream().map(BatchDebitResponse.ItemResult::getOutcome).toList());
+        assertEquals(0, new BigDecimal("2.00").compareTo(first.getResults().get(1).getBalance()));
+
+        BatchDebitResponse replay = fareSettlementService.debitBatch(new BatchDebitRequest(
+                request.getItems().subList(0, 2)));
+
+        assertEquals(2, replay.getDuplicates());
+        assertEquals(0, new BigDecimal("2.00").compareTo(
+                mobilityPassRepository.findStatusRowByPassNumber("SMP-BATCH-1").orElseThrow().balance()));
+    }
+}
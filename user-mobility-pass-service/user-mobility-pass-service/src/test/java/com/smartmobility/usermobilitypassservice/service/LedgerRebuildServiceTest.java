@@ -0,0 +1,101 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.LedgerRebuildReport;
+import com.smartmobility.usermobilitypassservice.entity.LedgerEntryType;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BalanceLedgerService.class, LedgerRebuildService.class})
+@TestPropertySource(properties = "pass.ledger.snapshot-lag-ms=0")
+class LedgerRebuildServiceTest {
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private LedgerRebuildService ledgerRebuildService;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void createPass(String passNumber, String phone, BigDecimal balance) {
+        User user = new User();
+        user.setFirstName("Fatou");
+        user.setLastName("Sall");
+        user.setEmail(phone + "@example.sn");
+        user.setPhoneNumber(phone);
+        user.setPassword("secret");
+        userRepository.save(user);
+
+        MobilityPass pass = new MobilityPass();
+        pass.setPassNumber(passNumber);
+        pass.setUser(user);
+        pass.setBalance(balance);
+        mobilityPassRepository.save(pass);
+    }
+
+    private void move(String passNumber, LedgerEntryType type, String amount) {
+        balanceLedgerService.append(new BalanceLedgerService.Movement(
+                passNumber, type, new BigDecimal(amount), BalanceLedgerService.newReference(type)));
+    }
+
+    @Test
+    void snapshotsAndRebuildAgreeWithLedger() throws InterruptedException {
+        createPass("SMP-LEDGER-1", "+221770000201", new BigDecimal("700.00"));
+        createPass("SMP-LEDGER-2", "+221770000202", new BigDecimal("70.00"));
+        Thread.sleep(5);
+        move("SMP-LEDGER-1", LedgerEntryType.TOP_UP, "1000.00");
+        move("SMP-LEDGER-2", LedgerEntryType.TOP_UP, "20.00");
+        move("SMP-LEDGER-1", LedgerEntryType.FARE_DEBIT, "-350.00");
+
+        Thread.sleep(5);
+        assertEquals(2, balanceLedgerService.takeSnapshots());
+        move("SMP-LEDGER-1", LedgerEntryType.REFUND, "50.00");
+        assertEquals(0, new BigDecimal("700.00").compareTo(balanceLedgerService.ledgerBalance("SMP-LEDGER-1")));
+
+        // SMP-LEDGER-2 avait 50.00 avant le journal : écart jusqu'à l'inscription de son mouvement d'ouverture
+        LedgerRebuildReport dryRun = ledgerRebuildService.rebuild(2, false);
+        assertEquals(1, dryRun.getMismatches());
+
+        LedgerRebuildReport applied = ledgerRebuildService.rebuild(2, true);
+        assertEquals(2, applied.getOpeningEntries());
+        assertEquals(0, applied.getMismatches());
+        assertEquals(0, new BigDecimal("70.00").compareTo(balanceLedgerService.ledgerBalance("SMP-LEDGER-2")));
+        assertEquals(0, ledgerRebuildService.rebuild(1, true).getOpeningEntries());
+
+        jdbcTemplate.update("UPDATE mobility_passes SET balance = 1.00 WHERE pass_number = 'SMP-LEDGER-1'");
+        LedgerRebuildReport repaired = ledgerRebuildService.rebuild(4, true);
+        assertEquals(1, repaired.getMismatches());
+        assertTrue(ledgerRebuildService.rebuild(4, false).getSample().isEmpty());
+        assertEquals(0, new BigDecimal("700.00").compareTo(
+                mobilityPassRepository.findStatusRowByPassNumber("SMP-LEDGER-1").orElseThrow().balance()));
+        assertEquals(0, new BigDecimal("700.00").compareTo(balanceLedgerService.ledgerBalance("SMP-LEDGER-1")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.SubscriptionExpiryReport;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.event.SubscriptionExpiredEvent;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SubscriptionExpiryService.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "pass.expiry.chunk-size=2")
+@RecordApplicationEvents
+class SubscriptionExpiryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private SubscriptionExpiryService subscriptionExpiryService;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private void createPass(int n, LocalDate subscriptionEnd) {
+        User user = new User();
+        user.setFirstName("Fatou");
+        user.setLastName("Sarr");
+        user.setEmail("fatou" + n + "@example.sn");
+        user.setPhoneNumber("+22177100000" + n);
+        user.setPassword("secret");
+        userRepository.save(user);
+
+        MobilityPass pass = new MobilityPass();
+        pass.setPassNumber("SMP-EXP-" + n);
+        pass.setUser(user);
+        pass.setBalance(BigDecimal.ZERO);
+        pass.setSubscriptionType(SubscriptionType.MONTHLY);
+        pass.setSubscriptionEndDate(subscriptionEnd);
+        mobilityPassRepository.save(pass);
+    }
+
+    @Test
+    void expiresOnlyDueSubscriptionsInChunks() {
+        for (int n = 1; n <= 5; n++) {
+            createPass(n, TODAY.minusDays(n));
+        }
+        createPass(6, TODAY);
+
+        SubscriptionExpiryReport report = subscriptionExpiryService.expireDueSubscriptions(TODAY);
+
+        assertEquals(5, report.getExpired());
+        assertEquals(3, report.getChunks());
+        assertFalse(report.isTruncated());
+        assertEquals(PassStatus.EXPIRED, mobilityPassRepository.findByPassNumber("SMP-EXP-1").orElseThrow().getStatus());
+        assertEquals(PassStatus.ACTIVE, mobilityPassRepository.findByPassNumber("SMP-EXP-6").orElseThrow().getStatus());
+        assertEquals(5, events.stream(SubscriptionExpiredEvent.class).count());
+
+        assertEquals(0, subscriptionExpiryService.expireDueSubscriptions(TODAY).getExpired());
+    }
+}
@@ -0,0 +1,151 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.UserImportReport;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.event.PassChangedEvent;
+import com.smartmobility.usermobilitypassservice.id.PassNumberGenerator;
+import com.smartmobility.usermobilitypassservice.mapper.MobilityPassMapper;
+import com.smartmobility.usermobilitypassservice.mapper.UserMapper;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import com.smartmobility.usermobilitypassservice.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserImportService.class, UserMapper.class, MobilityPassMapper.class, PassNumberGenerator.class,
+        PasswordHasher.class, SimpleMeterRegistry.class, UserImportServiceTest.Config.class})
+@TestPropertySource(properties = "user.import.batch-size=2")
+@RecordApplicationEvents
+class UserImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        JsonMapper jsonMapper() {
+            return JsonMapper.builder().build();
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            mobilityPassRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        tx.executeWithoutResult(status -> {
+            User user = new User();
+            user.setFirstName("Awa");
+            user.setLastName("Ndiaye");
+            user.setEmail("awa@example.sn");
+            user.setPhoneNumber("+221771000000");
+            user.setPassword("secret");
+            userRepository.save(user);
+        });
+    }
+
+    @Test
+    void importsValidCsvRowsAndReportsRejectedOnes() {
+        String csv = """
+                first_name;last_name;email;phone;password
+                Moussa;Diop;moussa@example.sn;+221771000001;secret1
+                Fatou;"Sarr, née Ba";fatou@example.sn;+221771000002;secret2
+                Ibou;Fall;awa@example.sn;+221771000003;secret3
+                Aida;Kane;pas-un-email;+221771000004;secret4
+                Omar;Sy;moussa@example.sn;+221771000005;secret5
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        UserImportReport report = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV, out);
+
+        assertEquals(5, report.getRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(3, report.getFailed());
+        assertEquals(3, userRepository.count());
+        assertEquals(2, mobilityPassRepository.count());
+        User fatou = userRepository.findByEmail("fatou@example.sn").orElseThrow();
+        assertEquals("Sarr, née Ba", fatou.getLastName());
+        assertTrue(fatou.getPassword().startsWith("$argon2id$"));
+        assertTrue(mobilityPassRepository.existsByUserId(userRepository.findByEmail("moussa@example.sn").orElseThrow().getId()));
+        assertEquals(2, events.stream(PassChangedEvent.class).count());
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3 + 3 + 1, lines.length);
+        assertTrue(lines[lines.length - 1].contains("\"type\":\"summary\""));
+    }
+
+    @Test
+    void importsNdjsonAndReportsMalformedLines() {
+        String ndjson = """
+                {"firstName":"Moussa","lastName":"Diop","email":"moussa@example.sn","phoneNumber":"771000001","password":"secret1"}
+                {"firstName":"Fatou",
+                """;
+
+        UserImportReport report = userImportService.importUsers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.NDJSON, null);
+
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getFailed());
+    }
+
+    @Test
+    void rejectsOnlyTheRowsTheDatabaseRefuses() {
+        String tooLong = "a".repeat(160) + "@example.sn";
+        String csv = "first_name;last_name;email;phone;password\n"
+                + "Moussa;Diop;moussa@example.sn;+221771000001;secret1\n"
+                + "Ibou;Fall;" + tooLong + ";+221771000003;secret3\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        UserImportReport report = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV, out);
+
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getFailed());
+        assertTrue(userRepository.findByEmail("moussa@example.sn").isPresent());
+        assertEquals(1, mobilityPassRepository.count());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Insertion refusée"));
+    }
+}
@@ -0,0 +1,215 @@
+package com.smartmobility.usermobilitypassservice.service;
+
+import com.smartmobility.usermobilitypassservice.dto.CreateUserRequest;
+import com.smartmobility.usermobilitypassservice.dto.LoginRequest;
+import com.smartmobility.usermobilitypassservice.dto.UserDTO;
+import com.smartmobility.usermobilitypassservice.entity.MobilityPass;
+import com.smartmobility.usermobilitypassservice.entity.PassStatus;
+import com.smartmobility.usermobilitypassservice.entity.SubscriptionType;
+import com.smartmobility.usermobilitypassservice.entity.User;
+import com.smartmobility.usermobilitypassservice.exception.DuplicateResourceException;
+import com.smartmobility.usermobilitypassservice.exception.InvalidCredentialsException;
+import com.smartmobility.usermobilitypassservice.id.PassNumberGenerator;
+import com.smartmobility.usermobilitypassservice.mapper.UserMapper;
+import com.smartmobility.usermobilitypassservice.repository.MobilityPassRepository;
+import com.smartmobility.usermobilitypassservice.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserSignupTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MobilityPassRepository mobilityPassRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PassNumberGenerator passNumberGenerator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            mobilityPassRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    private static CreateUserRequest request(int n) {
+        return new CreateUserRequest("Moussa", "Diop", "moussa" + n + "@example.sn",
+                String.format("+22177%07d", n), "secret" + n);
+    }
+
+    @Test
+    void createsUserAndPassInOneFlush() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserDTO user = userService.createUser(request(1));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(mobilityPassRepository.existsByUserId(user.getId()));
+    }
+
+    @Test
+    void mapsUniqueViolationsToDuplicateResource() {
+        userService.createUser(request(1));
+
+        CreateUserRequest sameEmail = request(2);
+        sameEmail.setEmail("moussa1@example.sn");
+        DuplicateResourceException email = assertThrows(DuplicateResourceException.class,
+                () -> userService.createUser(sameEmail));
+        assertEquals("Un utilisateur avec cet email existe déjà", email.getMessage());
+
+        CreateUserRequest samePhone = request(3);
+        samePhone.setPhoneNumber(request(1).getPhoneNumber());
+        DuplicateResourceException phone = assertThrows(DuplicateResourceException.class,
+                () -> userService.createUser(samePhone));
+        assertEquals("Un utilisateur avec ce numéro de téléphone existe déjà", phone.getMessage());
+
+        assertEquals(1, userRepository.count());
+        assertEquals(1, mobilityPassRepository.count());
+    }
+
+    @Test
+    void mapsDuplicatesUnderLegacyConstraintNames() {
+        userService.createUser(request(1));
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT " + User.UK_EMAIL);
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT UK6DOTKOTT2KJSP8VW4D0M25FB7 UNIQUE (email)");
+        try {
+            CreateUserRequest sameEmail = request(2);
+            sameEmail.setEmail("moussa1@example.sn");
+            DuplicateResourceException email = assertThrows(DuplicateResourceException.class,
+                    () -> userService.createUser(sameEmail));
+            assertEquals("Un utilisateur avec cet email existe déjà", email.getMessage());
+            assertEquals(1, userRepository.count());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT UK6DOTKOTT2KJSP8VW4D0M25FB7");
+            jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT " + User.UK_EMAIL + " UNIQUE (email)");
+        }
+    }
+
+    @Test
+    void loginRehashesLegacyPasswords() {
+        User legacy = userMapper.toEntity(request(1), "secret1");
+        tx.executeWithoutResult(status -> userRepository.save(legacy));
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> userService.authenticate(new LoginRequest("moussa1@example.sn", "mauvais")));
+        userService.authenticate(new LoginRequest("moussa1@example.sn", "secret1"));
+
+        String stored = userRepository.findByEmail("moussa1@example.sn").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$argon2id$"));
+        assertEquals("moussa1@example.sn",
+                userService.authenticate(new LoginRequest("moussa1@example.sn", "secret1")).getEmail());
+    }
+
+    /**
+     * Inscriptions concurrentes : ancien chemin (exists + save + findById + existsByUserId + save)
+     * contre insertion unique de l'utilisateur et de son pass.
+     * Lancement : mvn test -Dtest=UserSignupTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void concurrentSignupBenchmark() throws Exception {
+        int signups = Integer.getInteger("benchmark.signups", 20_000);
+        int threads = Integer.getInteger("benchmark.threads", 32);
+
+        long start = System.nanoTime();
+        runConcurrently(signups, threads, n -> tx.executeWithoutResult(status -> legacySignup(request(n))));
+        report("check-then-insert", signups, start);
+
+        setUp();
+        start = System.nanoTime();
+        runConcurrently(signups, threads, n -> userService.createUser(request(n)));
+        report("single flush", signups, start);
+        assertEquals(signups, mobilityPassRepository.count());
+    }
+
+    private void legacySignup(CreateUserRequest request) {
+        if (userRepository.existsByEmail(request.getEmail())
+                || userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
+            throw new DuplicateResourceException("Doublon");
+        }
+        User saved = userRepository.save(userMapper.toEntity(request, request.getPassword()));
+        User user = userRepository.findById(saved.getId()).orElseThrow();
+        if (mobilityPassRepository.existsByUserId(user.getId())) {
+            throw new IllegalStateException("Pass existant");
+        }
+        MobilityPass pass = new MobilityPass();
+        pass.setPassNumber(passNumberGenerator.next());
+        pass.setUser(user);
+        pass.setBalance(BigDecimal.ZERO);
+        pass.setStatus(PassStatus.ACTIVE);
+        pass.setSubscriptionType(SubscriptionType.NONE);
+        pass.setLoyaltyPoints(0);
+        mobilityPassRepository.save(pass);
+    }
+
+    private static void report(String label, int signups, long startNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        System.out.printf("[BENCH] %-18s %,d signups in %,d ms (%,.0f/s)%n",
+                label, signups, elapsedMs, signups * 1000.0 / elapsedMs);
+    }
+
+    private static void runConcurrently(int tasks, int threads, IntConsumer signup) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    signup.accept(next.incrementAndGet());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+    }
+}